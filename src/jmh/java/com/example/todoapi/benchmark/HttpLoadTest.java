@@ -0,0 +1,129 @@
+package com.example.todoapi.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load against a running instance, used to compare the platform- and virtual-thread modes:
+ * {@code concurrency} clients each send the next request as soon as the previous one answers. Reports
+ * throughput and latency percentiles of the measured window; errors are non-2xx answers and I/O failures. A client
+ * told to back off with {@code Retry-After} (429/503) waits that long before its next request, as a well-behaved
+ * client would; those answers are counted as shed.
+ *
+ * <pre>
+ * java -cp target/test-classes com.example.todoapi.benchmark.HttpLoadTest \
+ *     http://localhost:8080/api/todos?limit=50 400 30 10
+ * </pre>
+ * Arguments: url, concurrency, measured seconds, warm-up seconds (default 10). The API needs a signed-in user:
+ * pass a token from {@code POST /api/auth/token} with {@code -Dtoken=...} to send it as a bearer token.
+ */
+public final class HttpLoadTest {
+
+    private HttpLoadTest() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        URI uri = URI.create(args[0]);
+        int concurrency = Integer.parseInt(args[1]);
+        long measureNanos = Duration.ofSeconds(Long.parseLong(args[2])).toNanos();
+        long warmupNanos = Duration.ofSeconds(args.length > 3 ? Long.parseLong(args[3]) : 10).toNanos();
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET();
+        String token = System.getProperty("token");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        HttpRequest request = builder.build();
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long measureUntil = measureFrom + measureNanos;
+        AtomicLong errors = new AtomicLong();
+        AtomicLong shed = new AtomicLong();
+        List<long[]> latencies = new ArrayList<>();
+        int[] counts = new int[concurrency];
+        CountDownLatch done = new CountDownLatch(concurrency);
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        for (int c = 0; c < concurrency; c++) {
+            int index = c;
+            long[] samples = new long[1 << 16];
+            latencies.add(samples);
+            clients.execute(() -> {
+                long[] own = samples;
+                try {
+                    long now;
+                    while ((now = System.nanoTime()) < measureUntil) {
+                        boolean ok;
+                        long retryAfter = 0;
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            ok = response.statusCode() < 300;
+                            retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(0);
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        long end = System.nanoTime();
+                        if (now >= measureFrom && end <= measureUntil) {
+                            if (!ok) {
+                                errors.incrementAndGet();
+                            }
+                            if (retryAfter > 0) {
+                                shed.incrementAndGet();
+                            }
+                            if (counts[index] == own.length) {
+                                own = Arrays.copyOf(own, own.length * 2);
+                                latencies.set(index, own);
+                            }
+                            own[counts[index]++] = end - now;
+                        }
+                        if (retryAfter > 0) {
+                            Thread.sleep(Duration.ofSeconds(retryAfter).toMillis());
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        clients.shutdown();
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int c = 0; c < concurrency; c++) {
+            System.arraycopy(latencies.get(c), 0, all, offset, counts[c]);
+            offset += counts[c];
+        }
+        Arrays.sort(all);
+        double seconds = measureNanos / 1e9;
+        System.out.printf("url=%s concurrency=%d requests=%d errors=%d shed=%d%n",
+                uri, concurrency, total, errors.get(), shed.get());
+        System.out.printf("throughput=%.1f req/s ok=%.1f req/s p50=%.1f ms p90=%.1f ms p99=%.1f ms max=%.1f ms%n",
+                total / seconds, (total - errors.get()) / seconds, percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99),
+                total == 0 ? 0 : all[total - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.todoapi.benchmark;
+
+import com.example.todoapi.config.AuthProperties;
+import com.example.todoapi.config.JwtAuthenticationFilter;
+import com.example.todoapi.config.JwtProperties;
+import com.example.todoapi.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of {@link JwtAuthenticationFilter}: {@code anonymous} has no token, {@code bearer} sends a
+ * valid one. With {@code cacheSize} 0 every request decodes and checks the signature; otherwise all but the
+ * first are served from the cache of verified tokens.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    @Param({"0", "10000"})
+    public long cacheSize;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest anonymousRequest;
+    private MockHttpServletRequest bearerRequest;
+    private final FilterChain chain = (request, response) -> { };
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret("benchmark-secret-that-is-long-enough-for-hs256");
+        properties.setExpiration(Duration.ofHours(1));
+        properties.setCacheSize(cacheSize);
+        AuthProperties authProperties = new AuthProperties();
+        AuthProperties.Account alice = new AuthProperties.Account();
+        alice.setRoles(List.of("USER"));
+        alice.setTenant("acme");
+        authProperties.getUsers().put("alice", alice);
+        JwtService jwtService = new JwtService(properties, authProperties, new SimpleMeterRegistry());
+        filter = new JwtAuthenticationFilter(jwtService);
+
+        String token = jwtService.issue("alice", "acme", AuthorityUtils.createAuthorityList("ROLE_USER"))
+                .getAccessToken();
+        anonymousRequest = new MockHttpServletRequest("GET", "/api/todos");
+        bearerRequest = new MockHttpServletRequest("GET", "/api/todos");
+        bearerRequest.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+
+    @Benchmark
+    public Object anonymous() throws ServletException, IOException {
+        return run(anonymousRequest);
+    }
+
+    @Benchmark
+    public Object bearer() throws ServletException, IOException {
+        return run(bearerRequest);
+    }
+
+    private Object run(MockHttpServletRequest request) throws ServletException, IOException {
+        // OncePerRequestFilter marks the request as filtered; clear it so that every invocation runs the filter
+        request.clearAttributes();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
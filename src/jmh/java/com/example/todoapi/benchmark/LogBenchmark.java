@@ -0,0 +1,119 @@
+package com.example.todoapi.benchmark;
+
+import com.example.todoapi.dto.LogPageDTO;
+import com.example.todoapi.service.LogIndexService;
+import com.example.todoapi.service.LogService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The services behind {@code /api/logs} (tail) and {@code /api/logs/search} over a generated log file of
+ * {@code logMegabytes} in the application's pattern. The index is built once per trial, as the scheduled
+ * refresh would have done, so {@code search} measures lookups rather than indexing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogBenchmark {
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String[] LEVELS = {"DEBUG", "INFO", "INFO", "INFO", "WARN", "ERROR"};
+    private static final String[] LOGGERS = {
+            "c.e.todoapi.service.TodoService", "c.e.todoapi.service.CategoryService",
+            "o.s.web.servlet.DispatcherServlet", "org.hibernate.SQL"};
+    private static final String[] WORDS = {
+            "todo", "criado", "atualizado", "deletado", "categoria", "busca", "pedido", "cliente", "falha",
+            "timeout", "conexão", "usuário", "lote", "índice", "cache", "sucesso"};
+
+    @Param({"10"})
+    public int logMegabytes;
+
+    private Path directory;
+    private LogService logService;
+    private LogIndexService logIndexService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("log-benchmark");
+        Path file = directory.resolve("application.log");
+        write(file, logMegabytes * 1024L * 1024L);
+        logService = new LogService(file.toString(), new SimpleMeterRegistry());
+        logIndexService = new LogIndexService(logService);
+        logIndexService.refresh();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public LogPageDTO tail() throws IOException {
+        return logService.tail(100, null);
+    }
+
+    @Benchmark
+    public LogPageDTO tailLarge() throws IOException {
+        return logService.tail(5000, null);
+    }
+
+    @Benchmark
+    public List<String> searchTerm() throws IOException {
+        return logIndexService.search("pedido", null, null, null, null, null, 100);
+    }
+
+    @Benchmark
+    public List<String> searchFiltered() throws IOException {
+        return logIndexService.search("falha timeout", List.of("ERROR"), "c.e.todoapi", null, null, null, 100);
+    }
+
+    private static void write(Path file, long bytes) throws IOException {
+        Random random = new Random(42);
+        LocalDateTime time = LocalDateTime.now().minusDays(1);
+        long written = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            while (written < bytes) {
+                StringBuilder line = new StringBuilder(160)
+                        .append(TIMESTAMP.format(time)).append(" [http-nio-8080-exec-").append(random.nextInt(10))
+                        .append("] ").append(LEVELS[random.nextInt(LEVELS.length)])
+                        .append(' ').append(LOGGERS[random.nextInt(LOGGERS.length)]).append(" -");
+                for (int i = 0; i < 8; i++) {
+                    line.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+                }
+                line.append(" id=").append(random.nextInt(1_000_000)).append('\n');
+                writer.write(line.toString());
+                written += line.length();
+                time = time.plusNanos(random.nextInt(5_000_000));
+            }
+        }
+    }
+}
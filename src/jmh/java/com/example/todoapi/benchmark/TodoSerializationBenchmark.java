@@ -0,0 +1,82 @@
+package com.example.todoapi.benchmark;
+
+import com.example.todoapi.dto.TodoDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of todo listings, configured as Spring Boot configures the application's mapper:
+ * {@code jsonArray} is the plain {@code GET /api/todos} body and {@code ndjson} the per-row streaming export.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoSerializationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<TodoDTO> todos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        LocalDateTime now = LocalDateTime.now();
+        todos = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            TodoDTO todo = new TodoDTO();
+            todo.setId((long) i);
+            todo.setTitle("Todo " + i);
+            todo.setDescription("Description of todo number " + i);
+            todo.setCompleted(i % 3 == 0);
+            todo.setCreatedAt(now.minusMinutes(i));
+            todo.setDueDate(i % 2 == 0 ? now.plusDays(i % 30) : null);
+            todo.setPriority(i % 3 == 0 ? "HIGH" : "MEDIUM");
+            todo.setCategoryId(i % 5 == 0 ? null : (long) (i % 20));
+            todos.add(todo);
+        }
+    }
+
+    @Benchmark
+    public byte[] jsonArray() throws IOException {
+        return objectMapper.writeValueAsBytes(todos);
+    }
+
+    @Benchmark
+    public void ndjson(Blackhole blackhole) throws IOException {
+        OutputStream out = OutputStream.nullOutputStream();
+        for (TodoDTO todo : todos) {
+            byte[] line = objectMapper.writeValueAsBytes(todo);
+            out.write(line);
+            out.write('\n');
+            blackhole.consume(line);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.todoapi.benchmark;
+
+import com.example.todoapi.TodoApiApplication;
+import com.example.todoapi.config.TenantPartitions;
+import com.example.todoapi.dto.TodoDTO;
+import com.example.todoapi.dto.TodoPageDTO;
+import com.example.todoapi.dto.TodoSearchResultDTO;
+import com.example.todoapi.service.CurrentUser;
+import com.example.todoapi.service.TodoSearchService;
+import com.example.todoapi.service.TodoService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TodoService} against the real application context and an embedded H2 seeded with {@code todos} rows.
+ * {@code findById} and {@code update} cover the private entity/DTO mapping ({@code convertToDTO},
+ * {@code updateTodoFromDTO}) together with the lookups around it; {@code search} runs a {@link TodoSearchService}
+ * query that every seeded row matches, the worst case for ranking. Application logging is lowered to WARN so the
+ * numbers reflect the code rather than the log appender. Each of {@code tenants} tenants gets its own copy of the
+ * rows, all belonging to one user; the first tenant's user is signed in on every benchmark thread through
+ * {@link SignedIn}, so raising {@code tenants} shows what the other tenants' data costs it. {@code layout} picks
+ * {@code todos.tenancy.layout}: with {@code schema} each tenant's rows go to its own schema.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoServiceBenchmark {
+    private static final int CATEGORIES = 20;
+    private static final int INSERT_BATCH_SIZE = 10_000;
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH"};
+    private static final String OWNER = "benchmark";
+
+    @Param({"10000"})
+    public int todos;
+
+    @Param({"1"})
+    public int tenants;
+
+    @Param({"column"})
+    public String layout;
+
+    private ConfigurableApplicationContext context;
+    private TodoService todoService;
+    private TodoSearchService todoSearchService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // Passed as arguments rather than default properties so that they override application.yml
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark",
+                "--spring.jpa.show-sql=false",
+                // The application does not start without a key; tokens are not used here
+                "--jwt.secret=benchmark-secret-that-is-long-enough-for-hs256",
+                "--logging.file.name=" + Files.createTempDirectory("todo-benchmark").resolve("application.log"),
+                "--logging.level.root=WARN",
+                "--logging.level.com.example.todoapi=WARN",
+                "--todos.tenancy.layout=" + layout));
+        // The schema layout creates a schema for each configured user's tenant
+        for (int index = 0; index < tenants; index++) {
+            args.add("--todos.auth.users.user-" + index + ".password={noop}benchmark");
+            args.add("--todos.auth.users.user-" + index + ".tenant=" + tenant(index));
+        }
+        context = new SpringApplicationBuilder(TodoApiApplication.class).run(args.toArray(String[]::new));
+        seed(context.getBean(JdbcTemplate.class), context.getBean(TenantPartitions.class), todos, tenants);
+        todoService = context.getBean(TodoService.class);
+        todoSearchService = context.getBean(TodoSearchService.class);
+        // The seed bypasses Hibernate, so its caches still hold what the startup loads read from the empty tables
+        context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getCache().evictAllRegions();
+        todoSearchService.rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * The security context is per thread, so each benchmark thread signs in for itself.
+     */
+    @State(Scope.Thread)
+    public static class SignedIn {
+        @Setup(Level.Trial)
+        public void signIn() {
+            SecurityContextHolder.getContext().setAuthentication(
+                    UsernamePasswordAuthenticationToken.authenticated(
+                            new CurrentUser.SignedIn(OWNER, tenant(0)), null, List.of()));
+        }
+
+        @TearDown(Level.Trial)
+        public void signOut() {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public List<TodoDTO> findAll(SignedIn user) {
+        return todoService.findAll(false, "HIGH", "createdAt", "DESC");
+    }
+
+    @Benchmark
+    public TodoPageDTO findPage(SignedIn user) {
+        return todoService.findPage(false, "HIGH", "createdAt", "DESC", null, 50);
+    }
+
+    @Benchmark
+    public TodoDTO findById(SignedIn user) {
+        return todoService.findById(randomId());
+    }
+
+    @Benchmark
+    public TodoDTO update(SignedIn user) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        TodoDTO todo = new TodoDTO();
+        todo.setTitle("Updated todo " + random.nextInt());
+        todo.setDescription("Updated by the benchmark");
+        todo.setCompleted(random.nextBoolean());
+        todo.setPriority(PRIORITIES[random.nextInt(PRIORITIES.length)]);
+        todo.setCategoryId(1L + random.nextInt(CATEGORIES));
+        return todoService.update(randomId(), todo);
+    }
+
+    @Benchmark
+    public TodoSearchResultDTO search(SignedIn user) {
+        return todoSearchService.search("seeded todo", false, "HIGH", null, 0, 20);
+    }
+
+    // The signed-in tenant's rows come first, with ids 1 to todos and categories 1 to CATEGORIES
+    private long randomId() {
+        return 1 + ThreadLocalRandom.current().nextInt(todos);
+    }
+
+    private static String tenant(int index) {
+        return "tenant-" + index;
+    }
+
+    /**
+     * Inserts straight through JDBC, which is far quicker than the service for a million rows, with a fixed seed
+     * so that runs compare like with like.
+     */
+    private static void seed(JdbcTemplate jdbc, TenantPartitions partitions, int count, int tenants) {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int index = 0; index < tenants; index++) {
+            String tenant = tenant(index);
+            String schema = partitions.schemaOf(tenant);
+            int firstCategory = index * CATEGORIES;
+            for (int id = firstCategory + 1; id <= firstCategory + CATEGORIES; id++) {
+                jdbc.update("insert into " + schema + ".category (id, tenant, owner, name, description) "
+                        + "values (?, ?, ?, ?, ?)", id, tenant, OWNER, "Category " + id, "Seeded category");
+            }
+            int firstTodo = index * count;
+            for (int id = firstTodo + 1; id <= firstTodo + count; id++) {
+                LocalDateTime createdAt = now.minusMinutes(random.nextInt(525_600));
+                batch.add(new Object[]{
+                        id,
+                        tenant,
+                        OWNER,
+                        "Todo " + id,
+                        "Seeded todo number " + id,
+                        random.nextInt(10) < 3,
+                        Timestamp.valueOf(createdAt),
+                        random.nextBoolean() ? Timestamp.valueOf(createdAt.plusDays(random.nextInt(60))) : null,
+                        PRIORITIES[random.nextInt(PRIORITIES.length)],
+                        random.nextInt(5) == 0 ? null : firstCategory + 1 + random.nextInt(CATEGORIES)});
+                if (batch.size() == INSERT_BATCH_SIZE || id == firstTodo + count) {
+                    jdbc.batchUpdate("insert into " + schema + ".todo (id, tenant, owner, title, description, "
+                            + "completed, created_at, due_date, priority, category_id) "
+                            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                    batch.clear();
+                }
+            }
+        }
+        jdbc.execute("alter sequence " + TenantPartitions.SHARED_SCHEMA + ".todo_seq restart with "
+                + (tenants * count + 1));
+        for (int index = 0; index < tenants; index++) {
+            jdbc.execute("alter table " + partitions.schemaOf(tenant(index)) + ".category alter column id restart with "
+                    + (tenants * CATEGORIES + 1));
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.todoapi.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Token and account settings shared by the servlet and reactive security chains.
+ */
+@Configuration
+@EnableConfigurationProperties({JwtProperties.class, AuthProperties.class})
+public class AuthConfig {
+
+    /**
+     * Matches passwords by the encoding named in their prefix, such as {@code {bcrypt}}.
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.todoapi.config;
+
+import com.example.todoapi.service.CurrentUser;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accounts that can sign in at {@code /api/auth/token}, keyed by username.
+ */
+@Data
+@ConfigurationProperties("todos.auth")
+public class AuthProperties {
+    private Map<String, Account> users = new LinkedHashMap<>();
+
+    @Data
+    public static class Account {
+        // Encoded with its id prefix, e.g. {bcrypt}$2a$10$... ({noop}secret for local runs only)
+        private String password;
+        // Without the ROLE_ prefix; ADMIN may read the application logs
+        private List<String> roles = new ArrayList<>();
+        // Team whose partition of the data the user works in
+        private String tenant = CurrentUser.DEFAULT_TENANT;
+    }
+
+    /**
+     * The tenant of a user who has just signed in, and is therefore configured.
+     */
+    public String tenantOf(String username) {
+        return users.get(username).getTenant();
+    }
+
+    public List<UserDetails> userDetails() {
+        return users.entrySet().stream()
+                .map(user -> User.withUsername(user.getKey())
+                        .password(user.getValue().getPassword())
+                        .roles(user.getValue().getRoles().toArray(String[]::new))
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.todoapi.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Caps the requests doing database work at once, with a limit that adapts to how the database copes
+ * (additive increase, multiplicative decrease): every request that finishes within the target latency while the
+ * limit is in use raises it by about one per limit's worth of requests, and a slower request, or one shed for
+ * want of a connection, cuts it by {@code backoff-ratio}, at most once per {@code target-latency}: requests that
+ * were slow together report one overload, not one each. Past the limit requests are turned away at once instead
+ * of queueing for a connection, so the work already admitted keeps its latency.
+ */
+public class ConcurrencyLimiter {
+    private final boolean enabled;
+    private final List<PathPattern> paths;
+    private final List<PathPattern> excludes;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // Double bits, so that the limit can move by fractions and still be updated lock-free
+    private final AtomicLong limit;
+    private final AtomicLong lastDecrease;
+    private final LongSupplier nanoClock;
+    private final Counter rejected;
+
+    public ConcurrencyLimiter(RateLimitProperties.Concurrency properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    ConcurrencyLimiter(RateLimitProperties.Concurrency properties, MeterRegistry meterRegistry,
+                       LongSupplier nanoClock) {
+        if (properties.getMinLimit() < 1 || properties.getMinLimit() > properties.getMaxLimit()) {
+            throw new IllegalArgumentException("Concurrency limit needs 1 <= min-limit <= max-limit");
+        }
+        this.enabled = properties.isEnabled();
+        this.paths = properties.getPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        this.excludes = properties.getExcludes().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.targetLatencyNanos = properties.getTargetLatency().toNanos();
+        this.backoffRatio = properties.getBackoffRatio();
+        int initial = Math.max(minLimit, Math.min(maxLimit, properties.getInitialLimit()));
+        this.limit = new AtomicLong(Double.doubleToLongBits(initial));
+        this.nanoClock = nanoClock;
+        this.lastDecrease = new AtomicLong(nanoClock.getAsLong() - targetLatencyNanos);
+        this.rejected = Counter.builder("todos.concurrency.rejected")
+                .description("Requests shed because the concurrency limit was reached")
+                .register(meterRegistry);
+        Gauge.builder("todos.concurrency.limit", this, ConcurrencyLimiter::limit)
+                .description("Current adaptive limit of concurrent database requests")
+                .register(meterRegistry);
+        Gauge.builder("todos.concurrency.in-flight", inFlight, AtomicInteger::get)
+                .description("Requests currently holding a concurrency slot")
+                .register(meterRegistry);
+    }
+
+    public boolean appliesTo(PathContainer path) {
+        return enabled && matchesAny(paths, path) && !matchesAny(excludes, path);
+    }
+
+    /**
+     * Takes a slot, which the caller must hand back with {@link #release}, or returns false when all are taken.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit()) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Hands back a slot and adjusts the limit by how the request went.
+     *
+     * @param latencyNanos time the request held its slot
+     * @param overloaded   whether it failed because the database was saturated
+     */
+    public void release(long latencyNanos, boolean overloaded) {
+        int current = inFlight.getAndDecrement();
+        boolean slow = overloaded || latencyNanos > targetLatencyNanos;
+        if (slow) {
+            long now = nanoClock.getAsLong();
+            long last = lastDecrease.get();
+            if (now - last < targetLatencyNanos || !lastDecrease.compareAndSet(last, now)) {
+                return;
+            }
+        }
+        while (true) {
+            long bits = limit.get();
+            double value = Double.longBitsToDouble(bits);
+            double next;
+            if (slow) {
+                next = Math.max(minLimit, value * backoffRatio);
+            } else if (current * 2 >= value) {
+                // Only grow while the limit is actually being used, not during quiet periods
+                next = Math.min(maxLimit, value + 1 / value);
+            } else {
+                return;
+            }
+            if (next == value || limit.compareAndSet(bits, Double.doubleToLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Hands back a slot without adjusting the limit, for work whose duration is set by the client rather than the
+     * database, such as a stream that lasts as long as the client keeps reading.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public double limit() {
+        return Double.longBitsToDouble(limit.get());
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private static boolean matchesAny(List<PathPattern> patterns, PathContainer path) {
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.todoapi.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Error bodies written by the security chain, which runs before GlobalExceptionHandler could, in the same
+ * shape as the ones it returns.
+ */
+final class JsonErrors {
+
+    private JsonErrors() {
+    }
+
+    static void write(HttpServletResponse response, ObjectMapper objectMapper, HttpStatus status, String message)
+            throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", message);
+        body.put("status", status.value());
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.todoapi.config;
+
+import com.example.todoapi.service.JwtService;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Signs in requests that carry {@code Authorization: Bearer <token>} as the token's subject and tenant, through
+ * {@link JwtService} and its cache of verified tokens. Nothing is stored between requests. A request without a
+ * token, or with an invalid one, carries on unauthenticated: the authorization rules then turn it away where a
+ * user is required, after {@link RateLimitFilter} has counted it against its address.
+ */
+@Slf4j
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    // Set when a token was sent but rejected, so that the 401 can say so
+    static final String INVALID_TOKEN = JwtAuthenticationFilter.class.getName() + ".INVALID_TOKEN";
+    private static final String BEARER = "Bearer ";
+
+    private final JwtService jwtService;
+
+    public JwtAuthenticationFilter(JwtService jwtService) {
+        this.jwtService = jwtService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            try {
+                JwtService.VerifiedToken token = jwtService.verify(header.substring(BEARER.length()).trim());
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(
+                        UsernamePasswordAuthenticationToken.authenticated(token.user(), null, token.authorities()));
+                SecurityContextHolder.setContext(context);
+            } catch (JwtException | IllegalArgumentException e) {
+                log.debug("Token recusado em {} {}: {}", request.getMethod(), request.getRequestURI(), e.getMessage());
+                request.setAttribute(INVALID_TOKEN, Boolean.TRUE);
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
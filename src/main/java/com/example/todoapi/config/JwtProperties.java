@@ -0,0 +1,20 @@
+package com.example.todoapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Signing and verification of the bearer tokens issued by {@code /api/auth/token}.
+ */
+@Data
+@ConfigurationProperties("jwt")
+public class JwtProperties {
+    // HMAC-SHA256 key; at least 32 bytes, and the same on every instance that accepts the tokens
+    private String secret;
+    // A plain number is milliseconds
+    private Duration expiration = Duration.ofHours(24);
+    // Verified tokens remembered at most; each is also dropped once it expires
+    private long cacheSize = 10_000;
+}
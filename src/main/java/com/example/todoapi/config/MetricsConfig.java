@@ -0,0 +1,20 @@
+package com.example.todoapi.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Endpoint latency comes from Spring's own {@code http.server.requests} observation; this adds the aspect behind
+ * {@code @Timed} on the services, so a slow request can be traced to the service method that spent the time.
+ * Histogram buckets for both are switched on in {@code management.metrics.distribution}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
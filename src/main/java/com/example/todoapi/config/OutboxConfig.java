@@ -0,0 +1,12 @@
+package com.example.todoapi.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings of the change-event stream; see {@code OutboxService} and {@code OutboxPublisher}.
+ */
+@Configuration
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxConfig {
+}
@@ -0,0 +1,47 @@
+package com.example.todoapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Publishing of the change-event stream by {@code OutboxPublisher}.
+ */
+@Data
+@ConfigurationProperties("todos.outbox")
+public class OutboxProperties {
+    // Events numbered per transaction, and sent per webhook request
+    private int batchSize = 500;
+    // With no write reported by OutboxService, the outbox is still read this often, e.g. for rows added by hand
+    private Duration idlePollInterval = Duration.ofSeconds(30);
+    // Published events are kept this long, or until the slowest webhook has received them if that is later;
+    // /api/events clients asking to resume from before that get 410
+    private Duration retention = Duration.ofDays(7);
+    private Stream stream = new Stream();
+    // By name, e.g. todos.outbox.webhooks.audit.url=http://localhost:9000/events; none by default
+    private Map<String, Webhook> webhooks = new LinkedHashMap<>();
+
+    @Data
+    public static class Stream {
+        // Events queued per /api/events client; a client that falls behind is caught up from the database
+        private int bufferSize = 1000;
+        private int maxSubscribers = 1000;
+        // Platform threads sending to the clients and the webhooks when virtual threads are off
+        private int senderThreads = 32;
+        // A plain number is milliseconds
+        private Duration timeout = Duration.ofHours(1);
+    }
+
+    @Data
+    public static class Webhook {
+        private String url;
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        private Duration readTimeout = Duration.ofSeconds(10);
+        // Wait after a failed delivery, doubled on each further failure up to maxRetryDelay
+        private Duration retryDelay = Duration.ofSeconds(1);
+        private Duration maxRetryDelay = Duration.ofMinutes(1);
+    }
+}
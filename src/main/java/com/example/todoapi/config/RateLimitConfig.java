@@ -0,0 +1,27 @@
+package com.example.todoapi.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Limiters behind {@link RateLimitFilter}, configured from {@code todos.rate-limit}. The filter itself is created
+ * by {@link SecurityConfig}, not as a bean, so that it only runs inside the security chain.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimiter rateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        return new RateLimiter(properties, meterRegistry);
+    }
+
+    @Bean
+    public ConcurrencyLimiter concurrencyLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        return new ConcurrencyLimiter(properties.getConcurrency(), meterRegistry);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.todoapi.config;
+
+import com.example.todoapi.service.CurrentUser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs in the security chain, after authentication: first the client's {@link RateLimiter} budget for the
+ * endpoint (429 when spent), then a {@link ConcurrencyLimiter} slot for database work (503 when the database is
+ * at its limit). Both answers carry {@code Retry-After}. Clients are told apart by signed-in user, by tenant and
+ * name, and otherwise by remote address; behind a proxy, {@code server.forward-headers-strategy} makes that the
+ * client's. Nothing the client sends unverified picks its bucket, or it could start afresh on every request.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+    private final RateLimiter rateLimiter;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final ObjectMapper objectMapper;
+    private final boolean rateLimitEnabled;
+    private final long retryAfterSeconds;
+
+    public RateLimitFilter(RateLimiter rateLimiter, ConcurrencyLimiter concurrencyLimiter,
+                           RateLimitProperties properties, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.objectMapper = objectMapper;
+        this.rateLimitEnabled = properties.isEnabled();
+        this.retryAfterSeconds = seconds(properties.getConcurrency().getRetryAfter().toNanos());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String uri = request.getRequestURI();
+        PathContainer path = PathContainer.parsePath(uri.substring(request.getContextPath().length()));
+        if (rateLimitEnabled) {
+            RateLimiter.Budget budget = rateLimiter.budgetFor(request.getMethod(), path);
+            long wait = rateLimiter.tryAcquire(budget, client(request));
+            if (wait > 0) {
+                log.debug("{} {} recusada: limite '{}' esgotado", request.getMethod(), uri, budget.getName());
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, "Too many requests, please retry later", seconds(wait));
+                return;
+            }
+        }
+        if (!concurrencyLimiter.appliesTo(path)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            log.debug("{} {} recusada: {} requisições em andamento", request.getMethod(), uri,
+                      concurrencyLimiter.inFlight());
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, "The service is busy, please retry", retryAfterSeconds);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            // A streamed response, such as NDJSON, keeps reading from the database until its async work completes
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete());
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                release(start, response);
+            }
+        }
+    }
+
+    private void release(long start, HttpServletResponse response) {
+        // GlobalExceptionHandler answers 503 when no pooled connection became free
+        boolean overloaded = response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value();
+        concurrencyLimiter.release(System.nanoTime() - start, overloaded);
+    }
+
+    private String client(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String tenant = CurrentUser.tenantOf(authentication);
+        if (tenant != null) {
+            return "user:" + CurrentUser.userKey(tenant, authentication.getName());
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message, long retryAfter)
+            throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        JsonErrors.write(response, objectMapper, status, message);
+    }
+
+    /**
+     * Hands the slot back once async processing ends; the container calls {@code onComplete} after a timeout or
+     * error too. No latency sample is taken: a stream lasts as long as the client reads it, and counting that
+     * time would shrink the limit for everyone else.
+     */
+    private final class ReleaseOnComplete implements AsyncListener {
+        @Override
+        public void onComplete(AsyncEvent event) {
+            concurrencyLimiter.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Started again by a later dispatch; stay registered for its completion
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    private static long seconds(long nanos) {
+        long second = TimeUnit.SECONDS.toNanos(1);
+        return Math.max(1, (nanos + second - 1) / second);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.todoapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-client request budgets and the adaptive concurrency limit applied by {@link RateLimitFilter}.
+ */
+@Data
+@ConfigurationProperties("todos.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    // Buckets kept at most; the least recently used client starts over with a full budget
+    private long maxClients = 100_000;
+    private Duration idleExpiry = Duration.ofMinutes(10);
+    private Budget defaultBudget = new Budget();
+    // Tighter budgets for expensive endpoints; the first one listing the request's endpoint applies
+    private Map<String, Budget> budgets = new LinkedHashMap<>();
+    private Concurrency concurrency = new Concurrency();
+
+    @Data
+    public static class Budget {
+        // "GET /api/todos", with path patterns as in @RequestMapping
+        private List<String> endpoints = new ArrayList<>();
+        // Requests a client can send at once after being idle
+        private int capacity = 200;
+        private double perSecond = 100;
+    }
+
+    @Data
+    public static class Concurrency {
+        private boolean enabled = true;
+        private List<String> paths = new ArrayList<>(List.of("/api/**"));
+        // Long-lived streams, which would hold a slot for their whole lifetime, and the log reads and token issue,
+        // which wait on disk and bcrypt rather than the database
+        private List<String> excludes = new ArrayList<>(List.of("/api/logs/**", "/api/auth/**",
+                "/api/todos/due-events", "/api/events"));
+        private int initialLimit = 20;
+        private int minLimit = 4;
+        private int maxLimit = 200;
+        // Requests slower than this, or shed for want of a connection, shrink the limit
+        private Duration targetLatency = Duration.ofMillis(500);
+        private double backoffRatio = 0.9;
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+}
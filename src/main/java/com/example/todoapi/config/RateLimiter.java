@@ -0,0 +1,146 @@
+package com.example.todoapi.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client token buckets, one per budget and client. Each bucket is a single {@link AtomicLong} holding the time
+ * at which it would be full again (the generic cell rate algorithm): a request is allowed when adding one
+ * request's worth of refill time keeps that within {@code capacity} requests of now, and is recorded with one
+ * compare-and-set, so clients never wait on each other. Buckets live in a bounded Caffeine cache and are dropped
+ * once idle, by which time they would have refilled anyway.
+ */
+public class RateLimiter {
+    private final List<Budget> budgets = new ArrayList<>();
+    private final Budget defaultBudget;
+    private final Cache<String, AtomicLong> buckets;
+    private final LongSupplier nanoClock;
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .expireAfterAccess(properties.getIdleExpiry())
+                .build();
+        for (Map.Entry<String, RateLimitProperties.Budget> entry : properties.getBudgets().entrySet()) {
+            budgets.add(new Budget(entry.getKey(), entry.getValue(), meterRegistry));
+        }
+        this.defaultBudget = new Budget("default", properties.getDefaultBudget(), meterRegistry);
+        Gauge.builder("todos.ratelimit.clients", buckets, cache -> cache.estimatedSize())
+                .description("Client buckets currently tracked")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The budget that covers a request: the first listing its endpoint, or the default one.
+     */
+    public Budget budgetFor(String method, PathContainer path) {
+        for (Budget budget : budgets) {
+            if (budget.matches(method, path)) {
+                return budget;
+            }
+        }
+        return defaultBudget;
+    }
+
+    /**
+     * Takes one request from the client's bucket of {@code budget}.
+     *
+     * @return 0 when allowed, otherwise the nanoseconds until the bucket has room again
+     */
+    public long tryAcquire(Budget budget, String client) {
+        long now = nanoClock.getAsLong();
+        AtomicLong fullAt = buckets.get(budget.name + ' ' + client, key -> new AtomicLong(now));
+        while (true) {
+            long current = fullAt.get();
+            long next = (current - now > 0 ? current : now) + budget.intervalNanos;
+            long wait = next - now - budget.toleranceNanos;
+            if (wait > 0) {
+                budget.rejected.increment();
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                budget.allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    public static final class Budget {
+        private final String name;
+        private final List<Endpoint> endpoints = new ArrayList<>();
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private final Counter allowed;
+        private final Counter rejected;
+
+        Budget(String name, RateLimitProperties.Budget properties, MeterRegistry meterRegistry) {
+            if (properties.getCapacity() < 1 || properties.getPerSecond() <= 0) {
+                throw new IllegalArgumentException("Rate limit budget " + name
+                        + " needs a capacity of at least 1 and a positive per-second rate");
+            }
+            this.name = name;
+            for (String endpoint : properties.getEndpoints()) {
+                endpoints.add(Endpoint.parse(endpoint));
+            }
+            this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / properties.getPerSecond()));
+            this.toleranceNanos = intervalNanos * properties.getCapacity();
+            this.allowed = requests(meterRegistry, name, "allowed");
+            this.rejected = requests(meterRegistry, name, "rejected");
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        private boolean matches(String method, PathContainer path) {
+            for (Endpoint endpoint : endpoints) {
+                if (endpoint.matches(method, path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static Counter requests(MeterRegistry meterRegistry, String budget, String outcome) {
+            return Counter.builder("todos.ratelimit.requests")
+                    .description("Requests checked against a rate limit budget")
+                    .tag("budget", budget)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+
+    private record Endpoint(HttpMethod method, PathPattern pattern) {
+
+        static Endpoint parse(String endpoint) {
+            String[] parts = endpoint.trim().split("\\s+");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Rate limit endpoint must be \"METHOD /path\": " + endpoint);
+            }
+            return new Endpoint(HttpMethod.valueOf(parts[0]), PathPatternParser.defaultInstance.parse(parts[1]));
+        }
+
+        boolean matches(String requestMethod, PathContainer path) {
+            return method.matches(requestMethod) && pattern.matches(path);
+        }
+    }
+}
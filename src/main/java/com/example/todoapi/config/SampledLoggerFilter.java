@@ -0,0 +1,53 @@
+package com.example.todoapi.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback turbo filter that keeps one event in {@code rate} from {@code logger} and its children, and denies the
+ * rest before they are formatted or queued. The prod profile in {@code logback-spring.xml} uses it to sample
+ * {@code org.hibernate.SQL}, which otherwise writes every statement. Bare level checks such as
+ * {@code isDebugEnabled()} pass through without being counted.
+ */
+public class SampledLoggerFilter extends TurboFilter {
+    private final AtomicLong events = new AtomicLong();
+    private String logger;
+    private int rate = 1;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        if (!isStarted() || format == null || !matches(logger.getName())
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        return events.getAndIncrement() % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    @Override
+    public void start() {
+        if (logger == null || rate < 1) {
+            addError("SampledLoggerFilter needs a logger and a rate of at least 1");
+            return;
+        }
+        super.start();
+    }
+
+    public void setLogger(String logger) {
+        this.logger = logger;
+    }
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+
+    private boolean matches(String name) {
+        // Not a plain prefix match: org.hibernate.SQL_SLOW must keep every slow query
+        return name.equals(logger) || (name.startsWith(logger) && name.charAt(logger.length()) == '.');
+    }
+}
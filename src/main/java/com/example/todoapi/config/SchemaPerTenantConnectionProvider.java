@@ -0,0 +1,71 @@
+package com.example.todoapi.config;
+
+import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Hands Hibernate pooled connections switched to the schema of the session's tenant, for the schema layout. Root
+ * sessions, and Hibernate's own schema management, get the shared schema.
+ */
+class SchemaPerTenantConnectionProvider implements MultiTenantConnectionProvider<String> {
+    private final DataSource dataSource;
+    private final TenantPartitions tenantPartitions;
+
+    SchemaPerTenantConnectionProvider(DataSource dataSource, TenantPartitions tenantPartitions) {
+        this.dataSource = dataSource;
+        this.tenantPartitions = tenantPartitions;
+    }
+
+    @Override
+    public Connection getAnyConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    @Override
+    public void releaseAnyConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public Connection getConnection(String tenant) throws SQLException {
+        Connection connection = dataSource.getConnection();
+        try {
+            connection.setSchema(tenantPartitions.schemaOf(tenant));
+        } catch (SQLException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+        return connection;
+    }
+
+    @Override
+    public void releaseConnection(String tenant, Connection connection) throws SQLException {
+        try {
+            // Back in the pool, the connection may next serve getAnyConnection
+            connection.setSchema(TenantPartitions.SHARED_SCHEMA);
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> type) {
+        return type.isInstance(this);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> type) {
+        if (!isUnwrappableAs(type)) {
+            throw new IllegalArgumentException("Cannot unwrap " + getClass().getName() + " as " + type.getName());
+        }
+        return type.cast(this);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.todoapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Regions of the Hibernate second-level cache, by name. Hibernate is set to fail on a region that is not listed
+ * here, so every cache it uses is bounded.
+ */
+@Data
+@ConfigurationProperties("todos.second-level-cache")
+public class SecondLevelCacheProperties {
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Data
+    public static class Region {
+        private long maximumSize = 1000;
+        // No expiry when unset
+        private Duration expireAfterWrite;
+    }
+}
@@ -1,26 +1,75 @@
 package com.example.todoapi.config;
 
+import com.example.todoapi.service.JwtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.DispatcherType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
 
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @EnableWebSecurity
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtService jwtService, RateLimiter rateLimiter,
+                                           ConcurrencyLimiter concurrencyLimiter, RateLimitProperties properties,
+                                           ObjectMapper objectMapper) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/**").permitAll()
+                // Streamed responses finish in an async dispatch, which no longer carries the token; the
+                // request itself was authorized on the way in
+                .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+                .requestMatchers("/api/auth/**").permitAll()
+                .requestMatchers("/api/logs/**").hasRole("ADMIN")
+                .requestMatchers("/api/**").authenticated()
+                // Probes stay open; metrics and cache contents are for operators
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
+                .anyRequest().permitAll()
             )
-            .headers(headers -> headers.frameOptions().disable());
+            .exceptionHandling(exceptions -> exceptions
+                .authenticationEntryPoint((request, response, e) -> {
+                    response.setHeader(HttpHeaders.WWW_AUTHENTICATE,
+                            request.getAttribute(JwtAuthenticationFilter.INVALID_TOKEN) != null
+                                    ? "Bearer error=\"invalid_token\"" : "Bearer");
+                    JsonErrors.write(response, objectMapper, HttpStatus.UNAUTHORIZED, "Authentication required");
+                })
+                .accessDeniedHandler((request, response, e) ->
+                    JsonErrors.write(response, objectMapper, HttpStatus.FORBIDDEN, "Access denied"))
+            )
+            .headers(headers -> headers.frameOptions().disable())
+            .addFilterBefore(new JwtAuthenticationFilter(jwtService), AnonymousAuthenticationFilter.class)
+            .addFilterBefore(new RateLimitFilter(rateLimiter, concurrencyLimiter, properties, objectMapper),
+                             AuthorizationFilter.class);
 
         return http.build();
     }
-} 
\ No newline at end of file
+
+    /**
+     * Checks the credentials posted to {@code /api/auth/token} against {@code todos.auth.users}.
+     */
+    @Bean
+    public AuthenticationManager authenticationManager(AuthProperties authProperties, PasswordEncoder passwordEncoder) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(new InMemoryUserDetailsManager(authProperties.userDetails()));
+        provider.setPasswordEncoder(passwordEncoder);
+        return new ProviderManager(provider);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.todoapi.config;
+
+import com.example.todoapi.controller.LogController;
+import com.example.todoapi.service.LogIndexService;
+import com.example.todoapi.service.LogService;
+import com.example.todoapi.service.LogTailService;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * With {@code todos.startup.lazy-init}, the log endpoints are left out of startup: {@link LogController} and the
+ * services behind it are created by the first request to {@code /api/logs}, and the log indexing and stream
+ * polling jobs start then. The todo and category path, Hibernate and the connection pool stay eager, so the first
+ * API request does not pay for them either. The H2 console servlet needs nothing here, it is only initialized by
+ * its first request.
+ */
+@Configuration
+public class StartupConfig {
+    private static final List<Class<?>> DEFERRED = List.of(
+            LogController.class, LogService.class, LogIndexService.class, LogTailService.class);
+
+    @Bean
+    public static BeanFactoryPostProcessor lazyLogBeans(Environment environment) {
+        return beanFactory -> {
+            if (!environment.getProperty("todos.startup.lazy-init", Boolean.class, false)) {
+                return;
+            }
+            for (Class<?> type : DEFERRED) {
+                for (String name : beanFactory.getBeanNamesForType(type, true, false)) {
+                    beanFactory.getBeanDefinition(name).setLazyInit(true);
+                }
+            }
+        };
+    }
+}
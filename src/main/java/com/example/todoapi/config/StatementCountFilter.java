@@ -0,0 +1,45 @@
+package com.example.todoapi.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Logs how many SQL statements each request issued on its own thread, with a warning above
+ * {@code todos.sql.statement-warn-threshold}: a count that grows with the data is the signature of an N+1.
+ * Work handed to other threads, such as NDJSON streaming, is not included.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class StatementCountFilter extends OncePerRequestFilter {
+    private final long warnThreshold;
+
+    public StatementCountFilter(@Value("${todos.sql.statement-warn-threshold:50}") long warnThreshold) {
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        StatementCounter.reset();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long count = StatementCounter.count();
+            if (count > warnThreshold) {
+                log.warn("{} {} executou {} comandos SQL", request.getMethod(), request.getRequestURI(), count);
+            } else {
+                log.debug("{} {} executou {} comandos SQL", request.getMethod(), request.getRequestURI(), count);
+            }
+        }
+    }
+}
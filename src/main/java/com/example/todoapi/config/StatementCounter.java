@@ -0,0 +1,26 @@
+package com.example.todoapi.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread, native queries included. Registered through
+ * {@code hibernate.session_factory.statement_inspector}; {@link StatementCountFilter} reads it per request and the
+ * tests use it to pin the statement count of data access paths, so an N+1 regression fails the build.
+ */
+public class StatementCounter implements StatementInspector {
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public static long count() {
+        return COUNT.get()[0];
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.todoapi.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.hibernate.cfg.MultiTenancySettings;
+import org.hibernate.cfg.SchemaToolingSettings;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Where each tenant's rows live ({@code todos.tenancy.layout}). With the default {@code column} layout every tenant
+ * shares the tables and {@link TenantIdentifierResolver} narrows each query to one tenant, over indexes that lead
+ * with the tenant column. With {@code schema}, each configured tenant's todos, categories and tombstones get tables
+ * of their own in a schema named after it, and Hibernate connects each session to its tenant's schema, so a large
+ * tenant's tables never enter a small tenant's queries. Every schema is then created at startup by the Flyway
+ * migrations, whatever the profile. The outbox and the id sequences stay in the shared schema, so ids remain unique
+ * across tenants and one publisher sees every event; the copies the migrations also create in the tenant schemas
+ * stay unused.
+ */
+@Configuration
+@EnableConfigurationProperties(TenancyProperties.class)
+public class TenancyConfig {
+
+    @Bean
+    public TenantPartitions tenantPartitions(TenancyProperties tenancyProperties, AuthProperties authProperties) {
+        return new TenantPartitions(tenancyProperties, authProperties);
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "todos.tenancy.layout", havingValue = "schema")
+    static class SchemaLayout {
+
+        @Bean
+        public TenantSchemaMigrator tenantSchemaMigrator(DataSource dataSource, TenantPartitions tenantPartitions,
+                                                         Environment environment) {
+            return new TenantSchemaMigrator(dataSource, tenantPartitions, environment);
+        }
+
+        /**
+         * Services read the tenant schemas as they start, e.g. {@code TodoChangeService}, so they are migrated
+         * before JPA is up.
+         */
+        @Bean
+        public static EntityManagerFactoryDependsOnPostProcessor tenantSchemasBeforeJpa() {
+            return new EntityManagerFactoryDependsOnPostProcessor(TenantSchemaMigrator.class);
+        }
+
+        /**
+         * Hibernate only validates the schema: generating it would find the tenant schemas' tables when looking for
+         * the shared ones, and leave the shared schema without them.
+         */
+        @Bean
+        public HibernatePropertiesCustomizer schemaPerTenantConnections(DataSource dataSource,
+                                                                        TenantPartitions tenantPartitions) {
+            return properties -> {
+                properties.put(MultiTenancySettings.MULTI_TENANT_CONNECTION_PROVIDER,
+                        new SchemaPerTenantConnectionProvider(dataSource, tenantPartitions));
+                properties.put(SchemaToolingSettings.HBM2DDL_AUTO, "validate");
+            };
+        }
+    }
+
+    /**
+     * Brings the shared schema and every tenant schema up to the latest migration, whether or not
+     * {@code spring.flyway.enabled} is set.
+     */
+    @Slf4j
+    static class TenantSchemaMigrator implements InitializingBean {
+        private final DataSource dataSource;
+        private final TenantPartitions tenantPartitions;
+        private final Environment environment;
+
+        TenantSchemaMigrator(DataSource dataSource, TenantPartitions tenantPartitions, Environment environment) {
+            this.dataSource = dataSource;
+            this.tenantPartitions = tenantPartitions;
+            this.environment = environment;
+        }
+
+        @Override
+        public void afterPropertiesSet() {
+            Map<String, String> placeholders = Binder.get(environment)
+                    .bind("spring.flyway.placeholders", Bindable.mapOf(String.class, String.class))
+                    .orElse(Map.of());
+            List<String> schemas = new ArrayList<>();
+            schemas.add(TenantPartitions.SHARED_SCHEMA);
+            schemas.addAll(tenantPartitions.schemas());
+            for (String schema : schemas) {
+                Flyway.configure()
+                        .dataSource(dataSource)
+                        .schemas(schema)
+                        .placeholders(placeholders)
+                        .load()
+                        .migrate();
+            }
+            log.info("Schemas de {} tenant(s) migrados", tenantPartitions.schemas().size());
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.todoapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Where each tenant's rows live; see {@link TenancyConfig}.
+ */
+@Data
+@ConfigurationProperties("todos.tenancy")
+public class TenancyProperties {
+    private Layout layout = Layout.COLUMN;
+
+    public enum Layout {
+        // Every tenant in the same tables, told apart by their tenant column
+        COLUMN,
+        // Todos, categories and tombstones in a schema per tenant, created at startup for the configured users' tenants
+        SCHEMA
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.todoapi.config;
+
+import com.example.todoapi.service.CurrentUser;
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Tells Hibernate which tenant a session works for: the signed-in user's, see {@link CurrentUser#tenantOf}.
+ * Hibernate then fills in the {@code @TenantId} column of new rows and adds {@code tenant = ?} to the HQL,
+ * criteria and derived queries on Todo, Category, TodoTombstone and OutboxEvent, so those need not remember it.
+ * Loads by id ({@code findById}, {@code getReferenceById}) and second-level cache hits are not restricted: the
+ * services check the tenant of what they load that way, see {@code TodoService.findOwned}. Sessions opened with
+ * nobody signed in, such as the startup loads and scheduled jobs, work across all tenants, or, with the schema
+ * layout, for the tenant of the enclosing {@link #scope}. Registered by class name in {@code application.yml}, so
+ * that the JPA test slices pick it up too.
+ */
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver<String> {
+    static final String ALL_TENANTS = "*";
+    private static final ThreadLocal<String> SCOPED = new ThreadLocal<>();
+
+    /**
+     * Opens the sessions of the current thread for {@code tenant} until closed, whoever is signed in; see
+     * {@link TenantPartitions}. Sessions already open keep their tenant.
+     */
+    public static Scope scope(String tenant) {
+        String previous = SCOPED.get();
+        SCOPED.set(tenant);
+        return () -> {
+            if (previous != null) {
+                SCOPED.set(previous);
+            } else {
+                SCOPED.remove();
+            }
+        };
+    }
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        String scoped = SCOPED.get();
+        if (scoped != null) {
+            return scoped;
+        }
+        String tenant = CurrentUser.tenantOf(SecurityContextHolder.getContext().getAuthentication());
+        return tenant != null ? tenant : ALL_TENANTS;
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        // Sessions are bound to one request's thread, which keeps its user throughout
+        return false;
+    }
+
+    @Override
+    public boolean isRoot(String tenant) {
+        return ALL_TENANTS.equals(tenant);
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
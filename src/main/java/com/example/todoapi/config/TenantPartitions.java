@@ -0,0 +1,93 @@
+package com.example.todoapi.config;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * What work spanning every tenant, such as the startup loads and the scheduled jobs, has to run once for. With the
+ * column layout that is a single root session, which sees every tenant's rows; with the schema layout a session
+ * only reaches one tenant's schema, so the work runs once per configured tenant, each in its
+ * {@link TenantIdentifierResolver#scope scope}.
+ */
+public class TenantPartitions {
+    // Holds the outbox and the id sequences in either layout, and every table with the column layout
+    public static final String SHARED_SCHEMA = "PUBLIC";
+
+    private final boolean schemaLayout;
+    private final List<String> partitions;
+    // Tenant to schema name; empty with the column layout
+    private final Map<String, String> schemas;
+
+    public TenantPartitions(TenancyProperties tenancyProperties, AuthProperties authProperties) {
+        schemaLayout = tenancyProperties.getLayout() == TenancyProperties.Layout.SCHEMA;
+        if (!schemaLayout) {
+            partitions = List.of(TenantIdentifierResolver.ALL_TENANTS);
+            schemas = Map.of();
+            return;
+        }
+        Map<String, String> byTenant = new TreeMap<>();
+        Map<String, String> bySchema = new HashMap<>();
+        for (AuthProperties.Account account : authProperties.getUsers().values()) {
+            String tenant = account.getTenant();
+            String schema = "TENANT_" + tenant.toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]", "_");
+            String other = bySchema.putIfAbsent(schema, tenant);
+            if (other != null && !other.equals(tenant)) {
+                throw new IllegalStateException("Tenants " + other + " and " + tenant + " would share schema "
+                        + schema);
+            }
+            byTenant.put(tenant, schema);
+        }
+        partitions = List.copyOf(byTenant.keySet());
+        schemas = Map.copyOf(byTenant);
+    }
+
+    public boolean isSchemaLayout() {
+        return schemaLayout;
+    }
+
+    /**
+     * The tenant identifiers to open sessions for: {@code *} alone with the column layout, every configured tenant
+     * with the schema layout.
+     */
+    public List<String> all() {
+        return partitions;
+    }
+
+    /**
+     * The schema holding a tenant's tables; root sessions get the shared one.
+     */
+    public String schemaOf(String tenant) {
+        if (TenantIdentifierResolver.ALL_TENANTS.equals(tenant) || !schemaLayout) {
+            return SHARED_SCHEMA;
+        }
+        String schema = schemas.get(tenant);
+        if (schema == null) {
+            throw new IllegalStateException("No schema for tenant " + tenant);
+        }
+        return schema;
+    }
+
+    Collection<String> schemas() {
+        return schemas.values();
+    }
+
+    /**
+     * Runs {@code query} once per partition, each in a session of its own, and concatenates the results. Must be
+     * called outside a transaction, whose session would already be bound to one tenant.
+     */
+    public <T> List<T> collect(Supplier<? extends Collection<T>> query) {
+        List<T> all = new ArrayList<>();
+        for (String partition : partitions) {
+            try (TenantIdentifierResolver.Scope ignored = TenantIdentifierResolver.scope(partition)) {
+                all.addAll(query.get());
+            }
+        }
+        return all;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.todoapi.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Execution mode switch. With {@code spring.threads.virtual.enabled} on a Java 21 runtime, Spring Boot already
+ * runs Tomcat requests and {@code @Scheduled} jobs on virtual threads; this adds the executors the application
+ * creates itself. On older runtimes the property has no effect and everything stays on platform threads.
+ */
+@Slf4j
+@Configuration
+public class ThreadingConfig {
+
+    /**
+     * Senders for {@code /api/logs/stream}: each blocks while writing to a slow client. In virtual mode each send
+     * simply gets its own virtual thread; in platform mode they share {@code sender-threads} threads, and a drain
+     * that finds those busy and its queue full is rejected, which drops that client (see {@code SseSubscriber}).
+     * Each client has at most one drain pending, so the queue holds one per allowed subscriber. Shutdown is left
+     * to {@code LogTailService}, which interrupts senders still blocked on a client.
+     */
+    @Bean(destroyMethod = "")
+    public Executor logStreamExecutor(Environment environment,
+                                      @Value("${logs.stream.sender-threads:16}") int threads,
+                                      @Value("${logs.stream.max-subscribers:100}") int maxSubscribers) {
+        return sseExecutor(environment, "log-stream-", threads, maxSubscribers);
+    }
+
+    /**
+     * Senders for {@code /api/todos/due-events}, chosen the same way; shut down by {@code DueDateScheduler}.
+     */
+    @Bean(destroyMethod = "")
+    public Executor dueEventExecutor(Environment environment,
+                                     @Value("${todos.due.stream.sender-threads:32}") int threads,
+                                     @Value("${todos.due.stream.max-subscribers:1000}") int maxSubscribers) {
+        return sseExecutor(environment, "due-events-", threads, maxSubscribers);
+    }
+
+    /**
+     * Senders for {@code /api/events} and the outbox webhook deliveries, chosen the same way; each webhook also
+     * has at most one delivery pending. Shut down by {@code OutboxPublisher}.
+     */
+    @Bean(destroyMethod = "")
+    public Executor outboxExecutor(Environment environment, OutboxProperties properties) {
+        OutboxProperties.Stream stream = properties.getStream();
+        return sseExecutor(environment, "outbox-", stream.getSenderThreads(),
+                stream.getMaxSubscribers() + properties.getWebhooks().size());
+    }
+
+    private static Executor sseExecutor(Environment environment, String prefix, int threads, int queueCapacity) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new VirtualThreadTaskExecutor(prefix);
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportMode(ApplicationReadyEvent event) {
+        Environment environment = event.getApplicationContext().getEnvironment();
+        boolean requested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Requisições executando em virtual threads");
+        } else if (requested) {
+            log.warn("spring.threads.virtual.enabled requer Java 21 ou superior (atual: {}); usando threads de plataforma",
+                     Runtime.version().feature());
+        } else {
+            log.info("Requisições executando em threads de plataforma");
+        }
+    }
+}
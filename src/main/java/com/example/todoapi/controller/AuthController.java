@@ -0,0 +1,34 @@
+package com.example.todoapi.controller;
+
+import com.example.todoapi.config.AuthProperties;
+import com.example.todoapi.dto.TokenDTO;
+import com.example.todoapi.dto.TokenRequestDTO;
+import com.example.todoapi.service.JwtService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RestController
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+public class AuthController {
+    private final AuthenticationManager authenticationManager;
+    private final JwtService jwtService;
+    private final AuthProperties authProperties;
+
+    @PostMapping("/token")
+    public ResponseEntity<TokenDTO> createToken(@Valid @RequestBody TokenRequestDTO tokenRequest) {
+        Authentication authentication = authenticationManager.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated(tokenRequest.getUsername(),
+                                                                    tokenRequest.getPassword()));
+        String username = authentication.getName();
+        return ResponseEntity.ok(jwtService.issue(username, authProperties.tenantOf(username),
+                                                  authentication.getAuthorities()));
+    }
+}
@@ -1,44 +1,74 @@
 package com.example.todoapi.controller;
 
 import com.example.todoapi.dto.CategoryDTO;
+import com.example.todoapi.dto.TodoPageDTO;
 import com.example.todoapi.service.CategoryService;
+import com.example.todoapi.service.CollectionVersionService;
+import com.example.todoapi.service.TodoService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RestController
 @RequestMapping("/api/categories")
 @RequiredArgsConstructor
 public class CategoryController {
     private final CategoryService categoryService;
+    private final TodoService todoService;
 
     @GetMapping
-    public ResponseEntity<List<CategoryDTO>> getAllCategories() {
+    public ResponseEntity<List<CategoryDTO>> getAllCategories(WebRequest request) {
+        CollectionVersionService.CollectionVersion version = categoryService.collectionVersion();
+        if (request.checkNotModified(version.eTag())) {
+            return null;
+        }
         return ResponseEntity.ok(categoryService.findAll());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<CategoryDTO> getCategoryById(@PathVariable Long id) {
-        return ResponseEntity.ok(categoryService.findById(id));
+    public ResponseEntity<CategoryDTO> getCategoryById(@PathVariable Long id, WebRequest request) {
+        CategoryDTO category = categoryService.findById(id);
+        if (request.checkNotModified(EntityTags.of(category.getVersion()))) {
+            return null;
+        }
+        return ResponseEntity.ok(category);
+    }
+
+    @GetMapping("/{id}/todos")
+    public ResponseEntity<TodoPageDTO> getCategoryTodos(
+            @PathVariable Long id,
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) String priority,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDirection,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String next) {
+        return ResponseEntity.ok(todoService.findCategoryPage(id, completed, priority, sortBy, sortDirection, next, limit));
     }
 
     @PostMapping
     public ResponseEntity<CategoryDTO> createCategory(@Valid @RequestBody CategoryDTO categoryDTO) {
-        return new ResponseEntity<>(categoryService.create(categoryDTO), HttpStatus.CREATED);
+        CategoryDTO created = categoryService.create(categoryDTO);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(EntityTags.of(created.getVersion())).body(created);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<CategoryDTO> updateCategory(@PathVariable Long id, @Valid @RequestBody CategoryDTO categoryDTO) {
-        return ResponseEntity.ok(categoryService.update(id, categoryDTO));
+    public ResponseEntity<CategoryDTO> updateCategory(@PathVariable Long id, @Valid @RequestBody CategoryDTO categoryDTO,
+                                                      @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        CategoryDTO updated = categoryService.update(id, categoryDTO, EntityTags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(EntityTags.of(updated.getVersion())).body(updated);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteCategory(@PathVariable Long id) {
-        categoryService.delete(id);
+    public ResponseEntity<Void> deleteCategory(@PathVariable Long id, @RequestParam(required = false) Long reassignTo) {
+        categoryService.delete(id, reassignTo);
         return ResponseEntity.noContent().build();
     }
 } 
\ No newline at end of file
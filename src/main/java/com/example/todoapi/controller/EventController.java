@@ -0,0 +1,30 @@
+package com.example.todoapi.controller;
+
+import com.example.todoapi.service.OutboxPublisher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+public class EventController {
+    private final OutboxPublisher outboxPublisher;
+
+    /**
+     * Change events of the signed-in user's todos and categories. A reconnecting EventSource sends the id of the
+     * last event it received as {@code Last-Event-ID}; other clients can pass {@code after}.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId,
+                                   @RequestParam(required = false) Long after) {
+        return outboxPublisher.subscribe(lastEventId != null ? lastEventId : after);
+    }
+}
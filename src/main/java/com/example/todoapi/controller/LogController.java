@@ -1,55 +1,85 @@
 package com.example.todoapi.controller;
 
+import com.example.todoapi.dto.LogPageDTO;
+import com.example.todoapi.service.LogIndexService;
+import com.example.todoapi.service.LogService;
+import com.example.todoapi.service.LogTailService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RestController
 @RequestMapping("/api/logs")
+@RequiredArgsConstructor
 public class LogController {
-
-    private static final String LOG_FILE = "logs/application.log";
+    private final LogService logService;
+    private final LogIndexService logIndexService;
+    private final LogTailService logTailService;
 
     @GetMapping
     public ResponseEntity<List<String>> getLogs(@RequestParam(defaultValue = "100") int lines) {
         try {
-            Path logPath = Paths.get(LOG_FILE);
-            if (!Files.exists(logPath)) {
+            if (!logService.exists()) {
                 return ResponseEntity.ok(Collections.singletonList("Arquivo de log ainda não existe"));
             }
 
-            List<String> logLines = Files.readAllLines(logPath);
-            int startIndex = Math.max(0, logLines.size() - lines);
-            return ResponseEntity.ok(logLines.subList(startIndex, logLines.size()));
+            return ResponseEntity.ok(logService.tail(lines, null).getLines());
         } catch (IOException e) {
             return ResponseEntity.ok(Collections.singletonList("Erro ao ler arquivo de log: " + e.getMessage()));
         }
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<LogPageDTO> getLogPage(
+            @RequestParam(defaultValue = "100") int lines,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Long after) throws IOException {
+        if (before != null && after != null) {
+            throw new IllegalArgumentException("Use either before or after, not both");
+        }
+        if (after != null) {
+            return ResponseEntity.ok(logService.readForward(after, lines));
+        }
+        return ResponseEntity.ok(logService.tail(lines, before));
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<List<String>> searchLogs(@RequestParam String term) {
+    public ResponseEntity<List<String>> searchLogs(
+            @RequestParam(required = false) String term,
+            @RequestParam(required = false) List<String> level,
+            @RequestParam(required = false) String logger,
+            @RequestParam(required = false) String thread,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "1000") int limit) {
         try {
-            Path logPath = Paths.get(LOG_FILE);
-            if (!Files.exists(logPath)) {
+            if (!logService.exists()) {
                 return ResponseEntity.ok(Collections.singletonList("Arquivo de log ainda não existe"));
             }
 
-            List<String> matchingLines = Files.lines(logPath)
-                    .filter(line -> line.toLowerCase().contains(term.toLowerCase()))
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(matchingLines);
+            return ResponseEntity.ok(logIndexService.search(term, level, logger, thread, from, to, limit));
         } catch (IOException e) {
             return ResponseEntity.ok(Collections.singletonList("Erro ao ler arquivo de log: " + e.getMessage()));
         }
     }
-} 
\ No newline at end of file
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLogs(
+            @RequestParam(required = false) List<String> level,
+            @RequestParam(required = false) String term) {
+        return logTailService.subscribe(level, term);
+    }
+}
@@ -1,43 +1,163 @@
 package com.example.todoapi.controller;
 
+import com.example.todoapi.dto.BatchResultDTO;
+import com.example.todoapi.dto.TodoChangesDTO;
 import com.example.todoapi.dto.TodoDTO;
+import com.example.todoapi.dto.TodoPageDTO;
+import com.example.todoapi.dto.TodoSearchResultDTO;
+import com.example.todoapi.dto.TodoStatsDTO;
+import com.example.todoapi.service.CollectionVersionService;
+import com.example.todoapi.service.DueDateScheduler;
+import com.example.todoapi.service.TodoChangeService;
+import com.example.todoapi.service.TodoSearchService;
 import com.example.todoapi.service.TodoService;
+import com.example.todoapi.service.TodoStatsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RestController
 @RequestMapping("/api/todos")
 @RequiredArgsConstructor
 public class TodoController {
     private final TodoService todoService;
+    private final TodoStatsService todoStatsService;
+    private final TodoSearchService todoSearchService;
+    private final TodoChangeService todoChangeService;
+    private final DueDateScheduler dueDateScheduler;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
     public ResponseEntity<List<TodoDTO>> getAllTodos(
             @RequestParam(required = false) Boolean completed,
             @RequestParam(required = false) String priority,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "DESC") String sortDirection) {
+            @RequestParam(defaultValue = "DESC") String sortDirection,
+            WebRequest request) {
+        // Answered from the collection version alone when the client's copy is current
+        if (notModified(request)) {
+            return null;
+        }
         return ResponseEntity.ok(todoService.findAll(completed, priority, sortBy, sortDirection));
     }
 
+    @GetMapping(params = "limit")
+    public ResponseEntity<TodoPageDTO> getTodoPage(
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) String priority,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDirection,
+            @RequestParam int limit,
+            @RequestParam(required = false) String next,
+            WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
+        return ResponseEntity.ok(todoService.findPage(completed, priority, sortBy, sortDirection, next, limit));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTodos(
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) String priority,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDirection) {
+        // Once the body starts the status is already sent, so a bad sort has to fail here with its 400
+        Sort sort = todoService.streamSort(sortBy, sortDirection);
+        StreamingResponseBody body = out -> {
+            try {
+                todoService.streamAll(completed, priority, sort, todo -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(todo));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<TodoSearchResultDTO> searchTodos(
+            @RequestParam String q,
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(todoSearchService.search(q, completed, priority, categoryId, offset, limit));
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<TodoChangesDTO> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(todoChangeService.changes(since, limit));
+    }
+
+    @GetMapping(path = "/due-events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDueEvents() {
+        return dueDateScheduler.subscribe();
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<TodoStatsDTO> getStats() {
+        return ResponseEntity.ok(todoStatsService.getStats());
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<TodoDTO> getTodoById(@PathVariable Long id) {
-        return ResponseEntity.ok(todoService.findById(id));
+    public ResponseEntity<TodoDTO> getTodoById(@PathVariable Long id, WebRequest request) {
+        TodoDTO todo = todoService.findById(id);
+        if (request.checkNotModified(EntityTags.of(todo.getVersion()))) {
+            return null;
+        }
+        return ResponseEntity.ok(todo);
     }
 
     @PostMapping
     public ResponseEntity<TodoDTO> createTodo(@Valid @RequestBody TodoDTO todoDTO) {
-        return new ResponseEntity<>(todoService.create(todoDTO), HttpStatus.CREATED);
+        TodoDTO created = todoService.create(todoDTO);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(EntityTags.of(created.getVersion())).body(created);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResultDTO> createTodos(@RequestBody List<TodoDTO> todoDTOs) {
+        return ResponseEntity.ok(todoService.createAll(todoDTOs));
+    }
+
+    @PutMapping("/batch")
+    public ResponseEntity<BatchResultDTO> updateTodos(@RequestBody List<TodoDTO> todoDTOs) {
+        return ResponseEntity.ok(todoService.updateAll(todoDTOs));
+    }
+
+    @DeleteMapping("/batch")
+    public ResponseEntity<BatchResultDTO> deleteTodos(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(todoService.deleteAll(ids));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<TodoDTO> updateTodo(@PathVariable Long id, @Valid @RequestBody TodoDTO todoDTO) {
-        return ResponseEntity.ok(todoService.update(id, todoDTO));
+    public ResponseEntity<TodoDTO> updateTodo(@PathVariable Long id, @Valid @RequestBody TodoDTO todoDTO,
+                                              @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        TodoDTO updated = todoService.update(id, todoDTO, EntityTags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(EntityTags.of(updated.getVersion())).body(updated);
     }
 
     @DeleteMapping("/{id}")
@@ -45,4 +165,13 @@ public class TodoController {
         todoService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Sets the ETag of the todo collection and reports whether the request's {@code If-None-Match} already
+     * matches it, in which case the response has become a 304.
+     */
+    private boolean notModified(WebRequest request) {
+        CollectionVersionService.CollectionVersion version = todoService.collectionVersion();
+        return request.checkNotModified(version.eTag());
+    }
 } 
\ No newline at end of file
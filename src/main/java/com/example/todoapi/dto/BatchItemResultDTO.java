@@ -0,0 +1,18 @@
+package com.example.todoapi.dto;
+
+import lombok.Data;
+
+@Data
+public class BatchItemResultDTO {
+    /**
+     * Position of the item in the request array.
+     */
+    private int index;
+    private Long id;
+
+    /**
+     * CREATED, UPDATED, DELETED or FAILED.
+     */
+    private String status;
+    private String error;
+}
@@ -0,0 +1,12 @@
+package com.example.todoapi.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchResultDTO {
+    private int succeeded;
+    private int failed;
+    private List<BatchItemResultDTO> results;
+}
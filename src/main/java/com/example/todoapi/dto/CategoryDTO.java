@@ -1,5 +1,6 @@
 package com.example.todoapi.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import jakarta.validation.constraints.NotBlank;
 
@@ -11,4 +12,7 @@ public class CategoryDTO {
     private String name;
     
     private String description;
+
+    @JsonIgnore
+    private Long version;
 } 
\ No newline at end of file
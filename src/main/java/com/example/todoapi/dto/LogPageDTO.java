@@ -0,0 +1,21 @@
+package com.example.todoapi.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class LogPageDTO {
+    private List<String> lines;
+
+    /**
+     * Byte offset where the first returned line starts; pass it as {@code before} to page further back.
+     * Zero means the start of the oldest retained log file was reached.
+     */
+    private long before;
+
+    /**
+     * Byte offset just past the last returned line; pass it as {@code after} to read newer lines.
+     */
+    private long after;
+}
@@ -0,0 +1,23 @@
+package com.example.todoapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class OutboxEventDTO {
+    /**
+     * Place in the stream, sent as the SSE event id; consumers resume after the last position they received.
+     */
+    private long position;
+    private String tenant;
+    private String owner;
+    private String aggregateType;
+    private Long aggregateId;
+    private String type;
+    // Stored as JSON already
+    @JsonRawValue
+    private String payload;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,17 @@
+package com.example.todoapi.dto;
+
+import lombok.Data;
+
+@Data
+public class TodoChangeDTO {
+    /**
+     * UPSERT or DELETE.
+     */
+    private String type;
+    private Long id;
+
+    /**
+     * Current state of the todo for an UPSERT, {@code null} for a DELETE.
+     */
+    private TodoDTO todo;
+}
@@ -0,0 +1,17 @@
+package com.example.todoapi.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TodoChangesDTO {
+    private List<TodoChangeDTO> changes;
+
+    /**
+     * Opaque token to pass as {@code since} on the next call. Always present: once {@code hasMore} is false it
+     * marks the point the client is in sync with.
+     */
+    private String next;
+    private boolean hasMore;
+}
@@ -1,5 +1,6 @@
 package com.example.todoapi.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import jakarta.validation.constraints.NotBlank;
 import java.time.LocalDateTime;
@@ -7,6 +8,13 @@ import java.time.LocalDateTime;
 @Data
 public class TodoDTO {
     private Long id;
+
+    // Set from the signed-in user; kept with the tenant for the search index, which filters by both
+    @JsonIgnore
+    private String owner;
+
+    @JsonIgnore
+    private String tenant;
     
     @NotBlank(message = "Title is required")
     private String title;
@@ -15,6 +23,15 @@ public class TodoDTO {
     private boolean completed;
     private LocalDateTime createdAt;
     private LocalDateTime dueDate;
+    private LocalDateTime updatedAt;
     private Long categoryId;
     private String priority;
+
+    // Sent as the ETag header rather than in the body
+    @JsonIgnore
+    private Long version;
+
+    // Only exposed through sync tokens
+    @JsonIgnore
+    private long changeSeq;
 } 
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.example.todoapi.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class TodoDueEventDTO {
+    /**
+     * REMINDER, sent {@code todos.due.reminder-lead} before the due date, or OVERDUE, sent when it passes.
+     */
+    private String type;
+    private Long id;
+    private String title;
+    private Long categoryId;
+    private LocalDateTime dueDate;
+    private LocalDateTime firedAt;
+}
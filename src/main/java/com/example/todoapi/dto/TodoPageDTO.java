@@ -0,0 +1,15 @@
+package com.example.todoapi.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TodoPageDTO {
+    private List<TodoDTO> items;
+
+    /**
+     * Opaque cursor for the next page, or {@code null} when this is the last page.
+     */
+    private String next;
+}
@@ -0,0 +1,23 @@
+package com.example.todoapi.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TodoSearchResultDTO {
+    /**
+     * Matching todos, best match first.
+     */
+    private List<TodoDTO> items;
+
+    /**
+     * Number of matches; exact up to 1000, and past that possibly a lower bound, since counting stops early.
+     */
+    private long total;
+
+    /**
+     * Offset of the following page, or {@code null} on the last one.
+     */
+    private Integer nextOffset;
+}
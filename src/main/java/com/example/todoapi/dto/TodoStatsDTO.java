@@ -0,0 +1,24 @@
+package com.example.todoapi.dto;
+
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+public class TodoStatsDTO {
+    private long total;
+    private long completed;
+    private long open;
+
+    /**
+     * Open todos whose due date has passed.
+     */
+    private long overdue;
+    private long uncategorized;
+
+    /**
+     * Todo count per priority; todos without one are counted under {@code NONE}.
+     */
+    private Map<String, Long> byPriority;
+    private Map<Long, Long> byCategory;
+}
@@ -0,0 +1,11 @@
+package com.example.todoapi.dto;
+
+import lombok.Data;
+
+@Data
+public class TokenDTO {
+    private String accessToken;
+    private String tokenType;
+    // Seconds until the token expires
+    private long expiresIn;
+}
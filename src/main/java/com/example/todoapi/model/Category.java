@@ -3,10 +3,14 @@ package com.example.todoapi.model;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import java.util.ArrayList;
-import java.util.List;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
 
 @Entity
+@Table(indexes = @Index(name = "idx_category_tenant_owner", columnList = "tenant, owner"))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category")
 @Data
 @NoArgsConstructor
 public class Category {
@@ -14,11 +18,21 @@ public class Category {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Filled in and filtered on by Hibernate, see TenantIdentifierResolver
+    @TenantId
+    @Column(nullable = false, updatable = false)
+    private String tenant;
+
+    // Username of the user the category belongs to; its todos are that user's too
+    @Column(nullable = false, updatable = false)
+    private String owner;
+
     @Column(nullable = false)
     private String name;
 
     private String description;
 
-    @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<Todo> todos = new ArrayList<>();
+    @Version
+    @ColumnDefault("0")
+    private Long version;
 } 
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.example.todoapi.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.TenantId;
+import java.time.LocalDateTime;
+
+/**
+ * A change to a todo or category, written by the transaction that made it and published afterwards by
+ * {@code OutboxPublisher}. {@code position} stays null until the publisher picks the event up; from then on it is
+ * the event's place in the stream, which consumers resume from.
+ */
+@Entity
+// (position, id) serves both the publisher, which looks for null positions in id order, and the webhooks reading
+// ahead from their offset; the tenant/owner one serves the per-user SSE catch-up. Shared by every tenant even with
+// the schema layout (see TenancyConfig), so that one publisher sees all events.
+@Table(schema = "PUBLIC", indexes = {
+        @Index(name = "idx_outbox_event_position", columnList = "position, id"),
+        @Index(name = "idx_outbox_event_tenant_owner_position", columnList = "tenant, owner, position")
+})
+@Data
+@NoArgsConstructor
+public class OutboxEvent {
+    // Pooled like Todo's, so that the events of a batch write go out in JDBC batches along with it
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", schema = "PUBLIC", sequenceName = "outbox_event_seq",
+            allocationSize = 50)
+    private Long id;
+
+    @TenantId
+    @Column(nullable = false, updatable = false)
+    private String tenant;
+
+    // Owner of the changed todo or category, whose SSE stream carries the event
+    @Column(nullable = false, updatable = false)
+    private String owner;
+
+    // TODO or CATEGORY
+    @Column(nullable = false, updatable = false)
+    private String aggregateType;
+
+    @Column(nullable = false, updatable = false)
+    private Long aggregateId;
+
+    // CREATED, UPDATED, MOVED or DELETED
+    @Column(nullable = false, updatable = false)
+    private String type;
+
+    // JSON of the state after the change: the TodoDTO or CategoryDTO, only the new categoryId for MOVED, none for
+    // DELETED
+    @Column(length = 4000, updatable = false)
+    private String payload;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private Long position;
+}
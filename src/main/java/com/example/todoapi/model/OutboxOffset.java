@@ -0,0 +1,22 @@
+package com.example.todoapi.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How far a consumer of the outbox stream has got: every event up to and including {@code position}. One row per
+ * webhook, plus the publisher's own, which records the last position handed out.
+ */
+@Entity
+// Shared by every tenant, like the events
+@Table(schema = "PUBLIC")
+@Data
+@NoArgsConstructor
+public class OutboxOffset {
+    @Id
+    private String consumer;
+
+    @Column(nullable = false)
+    private long position;
+}
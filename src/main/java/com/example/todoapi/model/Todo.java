@@ -3,16 +3,59 @@ package com.example.todoapi.model;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
 import java.time.LocalDateTime;
 
 @Entity
+// Every listing is one user's within one tenant, so each index leads with (tenant, owner), or (tenant, category_id):
+// a tenant's rows sit in ranges of their own, and its queries cost the same however large the other tenants grow.
+// Past that, one index per supported filter (none, completed, priority, both) and sort column (created_at,
+// due_date), so a filtered listing is read in order from an index range instead of scanned and sorted; id sorts use
+// the owner index alone. The category indexes serve /api/categories/{id}/todos; the change_seq one /api/todos/changes.
+// The one index across tenants, on (completed, due_date), serves the startup load of DueDateScheduler.
+@Table(indexes = {
+        @Index(name = "idx_todo_tenant_owner_created_at", columnList = "tenant, owner, created_at"),
+        @Index(name = "idx_todo_tenant_owner_due_date", columnList = "tenant, owner, due_date"),
+        @Index(name = "idx_todo_tenant_owner_completed_created_at",
+               columnList = "tenant, owner, completed, created_at"),
+        @Index(name = "idx_todo_tenant_owner_completed_due_date", columnList = "tenant, owner, completed, due_date"),
+        @Index(name = "idx_todo_tenant_owner_priority_created_at", columnList = "tenant, owner, priority, created_at"),
+        @Index(name = "idx_todo_tenant_owner_priority_due_date", columnList = "tenant, owner, priority, due_date"),
+        @Index(name = "idx_todo_tenant_owner_completed_priority_created_at",
+               columnList = "tenant, owner, completed, priority, created_at"),
+        @Index(name = "idx_todo_tenant_owner_completed_priority_due_date",
+               columnList = "tenant, owner, completed, priority, due_date"),
+        @Index(name = "idx_todo_tenant_owner_completed_priority_category",
+               columnList = "tenant, owner, completed, priority, category_id"),
+        @Index(name = "idx_todo_tenant_category_created_at", columnList = "tenant, category_id, created_at"),
+        @Index(name = "idx_todo_tenant_category_due_date", columnList = "tenant, category_id, due_date"),
+        @Index(name = "idx_todo_tenant_owner_change_seq", columnList = "tenant, owner, change_seq, id"),
+        @Index(name = "idx_todo_completed_due_date", columnList = "completed, due_date")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "todo")
 @Data
 @NoArgsConstructor
 public class Todo {
+    // A pooled sequence hands out ids in blocks, which lets Hibernate batch inserts (IDENTITY cannot). It stays in
+    // the shared schema with the schema layout too, so that ids, which the search index and the due-date schedule
+    // are keyed by, never repeat across tenants.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todo_seq")
+    @SequenceGenerator(name = "todo_seq", schema = "PUBLIC", sequenceName = "todo_seq", allocationSize = 50)
     private Long id;
 
+    // Filled in and filtered on by Hibernate, see TenantIdentifierResolver
+    @TenantId
+    @Column(nullable = false, updatable = false)
+    private String tenant;
+
+    // Username of the user the todo belongs to; set on creation and never changed
+    @Column(nullable = false, updatable = false)
+    private String owner;
+
     @Column(nullable = false)
     private String title;
 
@@ -31,4 +74,16 @@ public class Todo {
     private Category category;
 
     private String priority = "MEDIUM";
+
+    private LocalDateTime updatedAt;
+
+    // Position of the latest write in the change feed; rows inserted outside the application start at 0
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long changeSeq;
+
+    // Backs the ETag of the single todo and rejects lost updates; the default covers rows inserted outside JPA
+    @Version
+    @ColumnDefault("0")
+    private Long version;
 } 
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.example.todoapi.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.TenantId;
+import java.time.LocalDateTime;
+
+/**
+ * Marks a deleted todo in the change feed, so that syncing clients learn to drop it. Kept for
+ * {@code todos.changes.tombstone-retention}.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_todo_tombstone_tenant_owner_change_seq",
+                         columnList = "tenant, owner, change_seq, todo_id"))
+@Data
+@NoArgsConstructor
+public class TodoTombstone {
+    @Id
+    private Long todoId;
+
+    // Tenant of the deleted todo; written by the native inserts in TodoTombstoneRepository, filtered by Hibernate
+    @TenantId
+    @Column(nullable = false, updatable = false)
+    private String tenant;
+
+    // Owner of the deleted todo, whose change feed reports it
+    @Column(nullable = false)
+    private String owner;
+
+    @Column(nullable = false)
+    private long changeSeq;
+
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -3,6 +3,12 @@ package com.example.todoapi.repository;
 import com.example.todoapi.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     boolean existsByName(String name);
+
+    List<Category> findByOwner(String owner);
+
+    boolean existsByIdAndOwner(Long id, String owner);
 } 
\ No newline at end of file
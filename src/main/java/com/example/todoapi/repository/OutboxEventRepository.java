@@ -0,0 +1,42 @@
+package com.example.todoapi.repository;
+
+import com.example.todoapi.model.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Committed events not yet published, oldest first.
+     */
+    @Query("select e from OutboxEvent e where e.position is null order by e.id")
+    List<OutboxEvent> findUnpublished(Limit limit);
+
+    @Query("select e from OutboxEvent e where e.position > :position order by e.position")
+    List<OutboxEvent> findPublishedAfter(@Param("position") long position, Limit limit);
+
+    @Query("select e from OutboxEvent e where e.tenant = :tenant and e.owner = :owner "
+            + "and e.position > :position and e.position <= :upTo order by e.position")
+    List<OutboxEvent> findPublishedForUserAfter(@Param("tenant") String tenant, @Param("owner") String owner,
+                                                @Param("position") long position, @Param("upTo") long upTo,
+                                                Limit limit);
+
+    @Query("select min(e.position) from OutboxEvent e")
+    Long findMinPosition();
+
+    @Query("select max(e.position) from OutboxEvent e where e.createdAt < :before")
+    Long findMaxPositionCreatedBefore(@Param("before") LocalDateTime before);
+
+    /**
+     * Deletes a prefix of the stream, so that the positions left stay contiguous.
+     */
+    @Modifying
+    @Query("delete from OutboxEvent e where e.position <= :position")
+    int deleteThrough(@Param("position") long position);
+}
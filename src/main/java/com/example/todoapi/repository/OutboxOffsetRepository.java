@@ -0,0 +1,7 @@
+package com.example.todoapi.repository;
+
+import com.example.todoapi.model.OutboxOffset;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface OutboxOffsetRepository extends JpaRepository<OutboxOffset, String> {
+}
@@ -1,10 +1,90 @@
 package com.example.todoapi.repository;
 
+import com.example.todoapi.model.Category;
 import com.example.todoapi.model.Todo;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
-public interface TodoRepository extends JpaRepository<Todo, Long>, JpaSpecificationExecutor<Todo> {
+public interface TodoRepository extends JpaRepository<Todo, Long>, JpaSpecificationExecutor<Todo>, TodoRepositoryCustom {
     List<Todo> findByCategoryId(Long categoryId);
+
+    /**
+     * Deletes a category's todos in one statement, without loading them.
+     */
+    @Modifying
+    @Query("delete from Todo t where t.category.id = :categoryId")
+    int deleteAllByCategoryIdInBatch(@Param("categoryId") Long categoryId);
+
+    /**
+     * Moves a category's todos to {@code target} in one statement, bumping their version and change sequence as
+     * an update through the entity would.
+     */
+    @Modifying
+    @Query("update Todo t set t.category = :target, t.version = t.version + 1, t.changeSeq = :changeSeq, "
+            + "t.updatedAt = :updatedAt where t.category.id = :categoryId")
+    int reassignCategory(@Param("categoryId") Long categoryId, @Param("target") Category target,
+                         @Param("changeSeq") long changeSeq, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Query("select coalesce(max(t.changeSeq), 0) from Todo t")
+    long findMaxChangeSeq();
+
+    @Query("select t.id from Todo t where t.owner = :owner and t.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids, @Param("owner") String owner);
+
+    @Query("select t.id from Todo t where t.category.id = :categoryId order by t.id")
+    List<Long> findIdsByCategoryId(@Param("categoryId") Long categoryId);
+
+    /**
+     * The owner's rows of (completed, priority, categoryId, count); one range of the
+     * owner/completed/priority/category index.
+     */
+    @Query("select t.completed, t.priority, t.category.id, count(t) from Todo t where t.owner = :owner "
+            + "group by t.completed, t.priority, t.category.id")
+    List<Object[]> countGrouped(@Param("owner") String owner);
+
+    @Query("select count(t) from Todo t where t.owner = :owner and t.completed = false and t.dueDate < :now")
+    long countOverdue(@Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    /**
+     * The owner's rows of (dueDate, count) for open todos that are not yet overdue.
+     */
+    @Query("select t.dueDate, count(t) from Todo t where t.owner = :owner and t.completed = false "
+            + "and t.dueDate >= :now group by t.dueDate")
+    List<Object[]> countUpcomingByDueDate(@Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    /**
+     * Rows of (tenant, owner, completed, priority, categoryId, count) across all owners, for seeding counters.
+     */
+    @Query("select t.tenant, t.owner, t.completed, t.priority, t.category.id, count(t) from Todo t "
+            + "group by t.tenant, t.owner, t.completed, t.priority, t.category.id")
+    List<Object[]> countGroupedByOwner();
+
+    /**
+     * Rows of (tenant, owner, count) of overdue todos.
+     */
+    @Query("select t.tenant, t.owner, count(t) from Todo t where t.completed = false and t.dueDate < :now "
+            + "group by t.tenant, t.owner")
+    List<Object[]> countOverdueByOwner(@Param("now") LocalDateTime now);
+
+    /**
+     * Rows of (tenant, owner, dueDate, count) for open todos that are not yet overdue.
+     */
+    @Query("select t.tenant, t.owner, t.dueDate, count(t) from Todo t where t.completed = false "
+            + "and t.dueDate >= :now group by t.tenant, t.owner, t.dueDate")
+    List<Object[]> countUpcomingByOwnerAndDueDate(@Param("now") LocalDateTime now);
+
+    /**
+     * Rows of (id, tenant, owner, title, categoryId, dueDate) of the open todos due after {@code after}, over the
+     * completed/due_date index.
+     */
+    @Query("select t.id, t.tenant, t.owner, t.title, t.category.id, t.dueDate from Todo t "
+            + "where t.completed = false and t.dueDate > :after")
+    List<Object[]> findOpenDueAfter(@Param("after") LocalDateTime after);
 } 
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.example.todoapi.repository;
+
+import com.example.todoapi.dto.TodoDTO;
+import com.example.todoapi.model.Todo;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface TodoRepositoryCustom {
+
+    /**
+     * Filtered, sorted listing read straight into DTOs: only the columns a {@link TodoDTO} carries are selected,
+     * the category id comes from the foreign key column, and no entities enter the persistence context. Not
+     * cached.
+     */
+    List<TodoDTO> findDTOs(Specification<Todo> spec, Sort sort);
+
+    /**
+     * As {@link #findDTOs(Specification, Sort)}, returning at most {@code limit} rows.
+     */
+    List<TodoDTO> findDTOs(Specification<Todo> spec, Sort sort, int limit);
+
+    /**
+     * As {@link #findDTOs(Specification, Sort, int)}, optionally through the query cache, so that a repeated
+     * listing is answered without SQL until the next todo write. Only for bounded pages: the cache holds every
+     * row of the result.
+     */
+    List<TodoDTO> findDTOs(Specification<Todo> spec, Sort sort, int limit, boolean cacheable);
+}
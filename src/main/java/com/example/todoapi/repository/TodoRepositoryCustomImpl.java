@@ -0,0 +1,94 @@
+package com.example.todoapi.repository;
+
+import com.example.todoapi.dto.TodoDTO;
+import com.example.todoapi.model.Todo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class TodoRepositoryCustomImpl implements TodoRepositoryCustom {
+    // Query cache region for the listings; any write to the todo table invalidates it
+    static final String LISTING_REGION = "todo-listings";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TodoDTO> findDTOs(Specification<Todo> spec, Sort sort) {
+        return findDTOs(spec, sort, 0);
+    }
+
+    @Override
+    public List<TodoDTO> findDTOs(Specification<Todo> spec, Sort sort, int limit) {
+        return findDTOs(spec, sort, limit, false);
+    }
+
+    @Override
+    public List<TodoDTO> findDTOs(Specification<Todo> spec, Sort sort, int limit, boolean cacheable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Todo> root = query.from(Todo.class);
+        query.multiselect(
+                root.get("id").alias("id"),
+                root.get("tenant").alias("tenant"),
+                root.get("owner").alias("owner"),
+                root.get("title").alias("title"),
+                root.get("description").alias("description"),
+                root.get("completed").alias("completed"),
+                root.get("createdAt").alias("createdAt"),
+                root.get("dueDate").alias("dueDate"),
+                root.get("priority").alias("priority"),
+                root.get("updatedAt").alias("updatedAt"),
+                root.get("changeSeq").alias("changeSeq"),
+                // The id of a to-one path resolves to the foreign key column; no join to category is issued
+                root.get("category").get("id").alias("categoryId"));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (cacheable) {
+            typedQuery.setHint(HibernateHints.HINT_CACHEABLE, true)
+                    .setHint(HibernateHints.HINT_CACHE_REGION, LISTING_REGION);
+        }
+        if (limit > 0) {
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultList().stream()
+                .map(TodoRepositoryCustomImpl::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    private static TodoDTO toDTO(Tuple tuple) {
+        TodoDTO dto = new TodoDTO();
+        dto.setId(tuple.get("id", Long.class));
+        dto.setTenant(tuple.get("tenant", String.class));
+        dto.setOwner(tuple.get("owner", String.class));
+        dto.setTitle(tuple.get("title", String.class));
+        dto.setDescription(tuple.get("description", String.class));
+        dto.setCompleted(tuple.get("completed", Boolean.class));
+        dto.setCreatedAt(tuple.get("createdAt", LocalDateTime.class));
+        dto.setDueDate(tuple.get("dueDate", LocalDateTime.class));
+        dto.setPriority(tuple.get("priority", String.class));
+        dto.setCategoryId(tuple.get("categoryId", Long.class));
+        dto.setUpdatedAt(tuple.get("updatedAt", LocalDateTime.class));
+        dto.setChangeSeq(tuple.get("changeSeq", Long.class));
+        return dto;
+    }
+}
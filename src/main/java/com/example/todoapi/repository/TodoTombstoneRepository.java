@@ -0,0 +1,51 @@
+package com.example.todoapi.repository;
+
+import com.example.todoapi.model.TodoTombstone;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface TodoTombstoneRepository extends JpaRepository<TodoTombstone, Long> {
+
+    /**
+     * Tombstones for those of {@code ids} that still exist, written in one statement; must run before the delete.
+     * Like the statement below, it names the table it writes: a native statement that does not would clear the
+     * whole second-level cache.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "todo_tombstone"))
+    @Query(value = "insert into todo_tombstone (todo_id, tenant, owner, change_seq, deleted_at) "
+            + "select id, tenant, owner, :changeSeq, :deletedAt from todo where id in :ids", nativeQuery = true)
+    int insertForTodos(@Param("ids") Collection<Long> ids, @Param("changeSeq") long changeSeq,
+                       @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "todo_tombstone"))
+    @Query(value = "insert into todo_tombstone (todo_id, tenant, owner, change_seq, deleted_at) "
+            + "select id, tenant, owner, :changeSeq, :deletedAt from todo where category_id = :categoryId",
+            nativeQuery = true)
+    int insertForCategory(@Param("categoryId") Long categoryId, @Param("changeSeq") long changeSeq,
+                          @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Query("select t from TodoTombstone t where t.owner = :owner "
+            + "and (t.changeSeq > :changeSeq or (t.changeSeq = :changeSeq and t.todoId > :todoId)) "
+            + "and t.changeSeq <= :upTo order by t.changeSeq, t.todoId")
+    List<TodoTombstone> findChangesAfter(@Param("owner") String owner, @Param("changeSeq") long changeSeq,
+                                         @Param("todoId") long todoId, @Param("upTo") long upTo, Limit limit);
+
+    @Query("select coalesce(max(t.changeSeq), 0) from TodoTombstone t")
+    long findMaxChangeSeq();
+
+    @Modifying
+    @Query("delete from TodoTombstone t where t.deletedAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
@@ -3,58 +3,183 @@ package com.example.todoapi.service;
 import com.example.todoapi.dto.CategoryDTO;
 import com.example.todoapi.model.Category;
 import com.example.todoapi.repository.CategoryRepository;
+import com.example.todoapi.repository.TodoRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
+/**
+ * The signed-in user's categories. A category of someone else's is reported as not found, and the caches are
+ * keyed by user (see {@link CurrentUser#key}) so that entries never cross users.
+ */
 @Service
 @RequiredArgsConstructor
+@Timed("categories.service")
 public class CategoryService {
     private final CategoryRepository categoryRepository;
+    private final TodoRepository todoRepository;
+    private final TodoStatsService todoStatsService;
+    private final TodoSearchService todoSearchService;
+    private final CollectionVersionService collectionVersionService;
+    private final TodoChangeService todoChangeService;
+    private final DueDateScheduler dueDateScheduler;
+    private final OutboxService outboxService;
+    private final CurrentUser currentUser;
 
+    public CollectionVersionService.CollectionVersion collectionVersion() {
+        return collectionVersionService.categories();
+    }
+
+    @Cacheable(cacheNames = "categoryList", key = "@currentUser.userKey()")
     @Transactional(readOnly = true)
     public List<CategoryDTO> findAll() {
-        return categoryRepository.findAll().stream()
+        return categoryRepository.findByOwner(currentUser.id()).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    @Cacheable(cacheNames = "categories", key = "@currentUser.key(#id)")
     @Transactional(readOnly = true)
     public CategoryDTO findById(Long id) {
-        return categoryRepository.findById(id)
+        return findOwned(id)
                 .map(this::convertToDTO)
                 .orElseThrow(() -> new EntityNotFoundException("Category not found with id: " + id));
     }
 
+    /**
+     * Existence check used when todos reference a category. Only positive answers are cached, so a category
+     * created after a miss is seen straight away; deletion evicts the entry.
+     */
+    @Cacheable(cacheNames = "categoryIds", key = "@currentUser.key(#id)", unless = "!#result")
+    @Transactional(readOnly = true)
+    public boolean exists(Long id) {
+        return categoryRepository.existsByIdAndOwner(id, currentUser.id());
+    }
+
+    @Caching(
+            put = @CachePut(cacheNames = "categories", key = "@currentUser.key(#result.id)"),
+            evict = @CacheEvict(cacheNames = "categoryList", key = "@currentUser.userKey()"))
     @Transactional
     public CategoryDTO create(CategoryDTO categoryDTO) {
         Category category = new Category();
+        category.setOwner(currentUser.id());
         category.setName(categoryDTO.getName());
         category.setDescription(categoryDTO.getDescription());
-        return convertToDTO(categoryRepository.save(category));
+        CategoryDTO created = convertToDTO(categoryRepository.save(category));
+        outboxService.record(OutboxService.CATEGORY, OutboxService.CREATED, created.getId(), created);
+        collectionVersionService.categoriesChanged();
+        return created;
     }
 
+    @Caching(
+            put = @CachePut(cacheNames = "categories", key = "@currentUser.key(#id)"),
+            evict = @CacheEvict(cacheNames = "categoryList", key = "@currentUser.userKey()"))
     @Transactional
     public CategoryDTO update(Long id, CategoryDTO categoryDTO) {
-        Category category = categoryRepository.findById(id)
+        return update(id, categoryDTO, null);
+    }
+
+    @Caching(
+            put = @CachePut(cacheNames = "categories", key = "@currentUser.key(#id)"),
+            evict = @CacheEvict(cacheNames = "categoryList", key = "@currentUser.userKey()"))
+    @Transactional
+    public CategoryDTO update(Long id, CategoryDTO categoryDTO, Long expectedVersion) {
+        Category category = findOwned(id)
                 .orElseThrow(() -> new EntityNotFoundException("Category not found with id: " + id));
+        if (expectedVersion != null && !expectedVersion.equals(category.getVersion())) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                    "Category " + id + " has been modified since version " + expectedVersion);
+        }
         
         category.setName(categoryDTO.getName());
         category.setDescription(categoryDTO.getDescription());
         
-        return convertToDTO(categoryRepository.save(category));
+        Category updated = categoryRepository.save(category);
+        // The cached DTO must carry the version this update produces
+        categoryRepository.flush();
+        CategoryDTO dto = convertToDTO(updated);
+        outboxService.record(OutboxService.CATEGORY, OutboxService.UPDATED, id, dto);
+        collectionVersionService.categoriesChanged();
+        return dto;
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "categories", key = "@currentUser.key(#id)"),
+            @CacheEvict(cacheNames = "categoryIds", key = "@currentUser.key(#id)"),
+            @CacheEvict(cacheNames = "categoryList", key = "@currentUser.userKey()")})
     @Transactional
     public void delete(Long id) {
-        if (!categoryRepository.existsById(id)) {
+        delete(id, null);
+    }
+
+    /**
+     * Deletes the category together with its todos or, with {@code reassignTo}, after moving them to that
+     * category. Either way the todos are handled by one set-based statement; only their outbox events, one per
+     * todo, grow with their number, and those go out in JDBC batches.
+     */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "categories", key = "@currentUser.key(#id)"),
+            @CacheEvict(cacheNames = "categoryIds", key = "@currentUser.key(#id)"),
+            @CacheEvict(cacheNames = "categoryList", key = "@currentUser.userKey()")})
+    @Transactional
+    public void delete(Long id, Long reassignTo) {
+        String owner = currentUser.id();
+        if (!categoryRepository.existsByIdAndOwner(id, owner)) {
             throw new EntityNotFoundException("Category not found with id: " + id);
         }
-        categoryRepository.deleteById(id);
+        if (reassignTo != null) {
+            if (reassignTo.equals(id)) {
+                throw new IllegalArgumentException("Cannot reassign todos to the category being deleted");
+            }
+            if (!categoryRepository.existsByIdAndOwner(reassignTo, owner)) {
+                throw new EntityNotFoundException("Category not found with id: " + reassignTo);
+            }
+            // Ids only, read from the category index, for the search index and one outbox event per todo
+            List<Long> moved = todoRepository.findIdsByCategoryId(id);
+            todoRepository.reassignCategory(id, categoryRepository.getReferenceById(reassignTo),
+                    todoChangeService.recordBulkChange(), LocalDateTime.now());
+            todoSearchService.reindexAll(moved);
+            dueDateScheduler.reassignCategory(id, reassignTo);
+            outboxService.recordAll(OutboxService.TODO, OutboxService.MOVED, moved,
+                    Map.of("categoryId", reassignTo));
+        } else {
+            List<Long> deleted = todoRepository.findIdsByCategoryId(id);
+            todoChangeService.recordCategoryDeleted(id);
+            todoRepository.deleteAllByCategoryIdInBatch(id);
+            todoSearchService.removeCategory(id);
+            dueDateScheduler.cancelCategory(id);
+            outboxService.recordAll(OutboxService.TODO, OutboxService.DELETED, deleted, null);
+        }
+        categoryRepository.deleteAllByIdInBatch(List.of(id));
+        outboxService.record(OutboxService.CATEGORY, OutboxService.DELETED, id, null);
+        todoStatsService.recordBulkChange();
+        collectionVersionService.categoriesChanged();
+        collectionVersionService.todosChanged();
+    }
+
+    /**
+     * Loads through the second-level cache by id, then drops a category of another user's. Loads by id are not
+     * restricted to the session's tenant, so the tenant is checked here along with the owner.
+     */
+    private Optional<Category> findOwned(Long id) {
+        String owner = currentUser.id();
+        String tenant = currentUser.tenant();
+        return categoryRepository.findById(id)
+                .filter(category -> owner.equals(category.getOwner()) && tenant.equals(category.getTenant()));
     }
 
     private CategoryDTO convertToDTO(Category category) {
@@ -62,6 +187,7 @@ public class CategoryService {
         dto.setId(category.getId());
         dto.setName(category.getName());
         dto.setDescription(category.getDescription());
+        dto.setVersion(category.getVersion());
         return dto;
     }
 } 
\ No newline at end of file
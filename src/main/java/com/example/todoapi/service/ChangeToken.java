@@ -0,0 +1,53 @@
+package com.example.todoapi.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in the todo change feed: the change sequence and id of the last change handed out, plus the time the
+ * client's sync began, which decides whether the tombstones it still needs can have been pruned. Encoded as an
+ * opaque, URL-safe token like {@link TodoCursor}.
+ */
+final class ChangeToken {
+    private static final char SEPARATOR = '\n';
+
+    private final long changeSeq;
+    private final long id;
+    private final long syncedAt;
+
+    ChangeToken(long changeSeq, long id, long syncedAt) {
+        this.changeSeq = changeSeq;
+        this.id = id;
+        this.syncedAt = syncedAt;
+    }
+
+    long getChangeSeq() {
+        return changeSeq;
+    }
+
+    long getId() {
+        return id;
+    }
+
+    long getSyncedAt() {
+        return syncedAt;
+    }
+
+    String encode() {
+        String raw = String.valueOf(changeSeq) + SEPARATOR + id + SEPARATOR + syncedAt;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ChangeToken decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+                    .split(String.valueOf(SEPARATOR), -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid sync token");
+            }
+            return new ChangeToken(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid sync token");
+        }
+    }
+}
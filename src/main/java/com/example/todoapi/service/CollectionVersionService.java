@@ -0,0 +1,81 @@
+package com.example.todoapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change counters for each user's todo and category collections, from which their listings derive ETags. Reading
+ * one costs no query, so an unchanged listing can be answered with 304 before any work is done. Data is per user,
+ * so a write only moves the writer's counters and every other user keeps their 304s. A counter moves only once
+ * the write's transaction commits: moving earlier could pair the new tag with data read before the commit, which
+ * clients would then keep indefinitely.
+ *
+ * <p>Counters are kept for up to {@code todos.etag.max-users} users. All values come from one increasing sequence,
+ * so a user whose counter was dropped gets a value never handed out before: they lose one 304, never get a wrong
+ * one.
+ *
+ * <p>There is deliberately no {@code Last-Modified}: it only has whole seconds, so a write in the same second as
+ * a response would leave it unchanged and an {@code If-Modified-Since} client would get 304 for stale data.
+ */
+@Service
+public class CollectionVersionService {
+    // The counters restart with the application, so tags also carry the start time to stay unique across runs
+    private final String generation = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Cache<String, Long> todos;
+    private final Cache<String, Long> categories;
+    private final CurrentUser currentUser;
+
+    public CollectionVersionService(CurrentUser currentUser, @Value("${todos.etag.max-users:100000}") long maxUsers) {
+        this.currentUser = currentUser;
+        this.todos = Caffeine.newBuilder().maximumSize(maxUsers).build();
+        this.categories = Caffeine.newBuilder().maximumSize(maxUsers).build();
+    }
+
+    /**
+     * The signed-in user's todo collection version.
+     */
+    public CollectionVersion todos() {
+        return version(todos, currentUser.userKey());
+    }
+
+    public CollectionVersion categories() {
+        return version(categories, currentUser.userKey());
+    }
+
+    public void todosChanged() {
+        String user = currentUser.userKey();
+        AfterCommit.run(() -> advance(todos, user));
+    }
+
+    public void categoriesChanged() {
+        String user = currentUser.userKey();
+        AfterCommit.run(() -> advance(categories, user));
+    }
+
+    private CollectionVersion version(Cache<String, Long> counters, String user) {
+        return new CollectionVersion(generation, counters.get(user, key -> sequence.incrementAndGet()), user);
+    }
+
+    private void advance(Cache<String, Long> counters, String user) {
+        counters.asMap().merge(user, sequence.incrementAndGet(), Math::max);
+    }
+
+    /**
+     * @param user whose listing it is; part of the tag, so that a client shared by several users never
+     *             revalidates one user's copy on behalf of another
+     */
+    public record CollectionVersion(String generation, long counter, String user) {
+        public String eTag() {
+            byte[] name = user.getBytes(StandardCharsets.UTF_8);
+            String scope = Base64.getUrlEncoder().withoutPadding().encodeToString(name);
+            return "\"" + generation + "-" + counter + "-" + scope + "\"";
+        }
+    }
+}
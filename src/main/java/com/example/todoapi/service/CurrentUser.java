@@ -0,0 +1,79 @@
+package com.example.todoapi.service;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * The signed-in user a request acts for: the subject of its bearer token, and the tenant (team) it belongs to.
+ * Todos and categories belong to the user who created them, and every read and write is scoped to this one; the
+ * tenant also partitions the tables, see {@code TenantIdentifierResolver}. Also referenced from cache keys as
+ * {@code @currentUser}, so cached entries never cross users. User names are only unique within a tenant, so
+ * state kept per user outside the database is keyed by {@link #userKey()}.
+ */
+@Component
+public class CurrentUser {
+    public static final String DEFAULT_TENANT = "default";
+
+    /**
+     * The principal of a bearer-token authentication.
+     */
+    public record SignedIn(String name, String tenant) implements AuthenticatedPrincipal {
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    public String id() {
+        return signedIn(SecurityContextHolder.getContext().getAuthentication()).getName();
+    }
+
+    public String tenant() {
+        return tenantOf(signedIn(SecurityContextHolder.getContext().getAuthentication()));
+    }
+
+    /**
+     * The current user's tenant and name, e.g. {@code acme:alice}.
+     */
+    public String userKey() {
+        return userKey(tenant(), id());
+    }
+
+    public static String userKey(String tenant, String name) {
+        return tenant + ':' + name;
+    }
+
+    /**
+     * Key for a cache entry of the current user's, e.g. {@code acme:alice:42}.
+     */
+    public String key(Object id) {
+        return userKey() + ':' + id;
+    }
+
+    /**
+     * The tenant of a signed-in user, or null when there is none. Users authenticated some other way than by
+     * bearer token, such as in tests, belong to {@link #DEFAULT_TENANT}.
+     */
+    public static String tenantOf(Authentication authentication) {
+        if (!isSignedIn(authentication)) {
+            return null;
+        }
+        return authentication.getPrincipal() instanceof SignedIn user ? user.tenant() : DEFAULT_TENANT;
+    }
+
+    private static Authentication signedIn(Authentication authentication) {
+        if (!isSignedIn(authentication)) {
+            throw new AuthenticationCredentialsNotFoundException("No signed-in user");
+        }
+        return authentication;
+    }
+
+    private static boolean isSignedIn(Authentication authentication) {
+        return authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+    }
+}
@@ -0,0 +1,433 @@
+package com.example.todoapi.service;
+
+import com.example.todoapi.config.TenantPartitions;
+import com.example.todoapi.dto.TodoDueEventDTO;
+import com.example.todoapi.model.Todo;
+import com.example.todoapi.repository.TodoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Due-date events for {@code /api/todos/due-events}: a REMINDER {@code todos.due.reminder-lead} before an open todo
+ * is due and an OVERDUE when its due date passes. Pending events are kept in memory in firing order, loaded once at
+ * startup with one query over the completed/due_date index and then kept current by {@link TodoService} and
+ * {@link CategoryService}, which report every committed write here. A single thread sleeps until the earliest
+ * event is due, so nothing polls the database, and hands each event to the owner's subscribers. Like the other
+ * derived state of the application, the schedule lives in this instance only. Todos that fell due while the
+ * application was down, within {@code todos.due.catch-up}, get their OVERDUE at startup; as nobody is connected at
+ * that point, it is held for that long and sent to each of the owner's clients as it connects. An application
+ * restarted twice within the window sends these again.
+ */
+@Slf4j
+@Service
+public class DueDateScheduler {
+    static final String REMINDER = "REMINDER";
+    static final String OVERDUE = "OVERDUE";
+    private static final Comparator<Alarm> FIRING_ORDER = Comparator.comparing(Alarm::fireAt)
+            .thenComparingLong(Alarm::todoId)
+            .thenComparing(Alarm::type);
+
+    private final TodoRepository todoRepository;
+    private final CurrentUser currentUser;
+    private final TenantPartitions tenantPartitions;
+    private final Duration reminderLead;
+    private final Duration catchUp;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final Executor senders;
+    private final Timer lag;
+    private final Counter reminders;
+    private final Counter overdue;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    // Guarded by lock
+    private final NavigableSet<Alarm> alarms = new TreeSet<>(FIRING_ORDER);
+    private final Map<Long, DueTodo> todos = new HashMap<>();
+    // OVERDUE events missed while the application was down, by todo id in due order; held until missedUntil
+    private final Map<Long, Fired> missed = new LinkedHashMap<>();
+    private LocalDateTime missedUntil = LocalDateTime.MIN;
+    // Writes reported before the startup load has finished, replayed on top of it; null afterwards
+    private List<Runnable> beforeLoad = new ArrayList<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    // By tenant and owner, see CurrentUser.userKey
+    private final Map<String, Set<SseSubscriber<TodoDueEventDTO>>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private volatile Thread firing;
+
+    public DueDateScheduler(TodoRepository todoRepository, CurrentUser currentUser, TenantPartitions tenantPartitions,
+                            @Value("${todos.due.reminder-lead:15m}") Duration reminderLead,
+                            @Value("${todos.due.catch-up:1h}") Duration catchUp,
+                            @Value("${todos.due.stream.buffer-size:100}") int bufferSize,
+                            @Value("${todos.due.stream.max-subscribers:1000}") int maxSubscribers,
+                            @Value("${todos.due.stream.timeout:3600000}") long timeoutMillis,
+                            @Qualifier("dueEventExecutor") Executor senders, MeterRegistry meterRegistry) {
+        this.todoRepository = todoRepository;
+        this.currentUser = currentUser;
+        this.tenantPartitions = tenantPartitions;
+        this.reminderLead = reminderLead;
+        this.catchUp = catchUp;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeoutMillis;
+        this.senders = senders;
+        this.lag = Timer.builder("todos.due.lag")
+                .description("Delay between the time a due-date event was scheduled for and the time it fired")
+                .register(meterRegistry);
+        this.reminders = events(meterRegistry, REMINDER);
+        this.overdue = events(meterRegistry, OVERDUE);
+        Gauge.builder("todos.due.pending", pending, AtomicInteger::get)
+                .description("Due-date events scheduled and not yet fired")
+                .register(meterRegistry);
+        Gauge.builder("todos.due.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open /api/todos/due-events connections")
+                .register(meterRegistry);
+    }
+
+    /**
+     * (Re)schedules the events of todos just created or updated, replacing whatever they had before; completed
+     * todos and todos without a due date ahead simply lose theirs.
+     */
+    public void schedule(Collection<Todo> saved) {
+        // Read after commit, by which point Hibernate has filled in the ids and tenants of new todos
+        AfterCommit.run(() -> {
+            List<DueTodo> fresh = saved.stream().map(DueTodo::of).toList();
+            update(() -> {
+                LocalDateTime now = LocalDateTime.now();
+                fresh.forEach(todo -> {
+                    remove(todo.id());
+                    add(todo, now);
+                });
+            });
+        });
+    }
+
+    public void cancel(Collection<Long> ids) {
+        List<Long> removed = List.copyOf(ids);
+        AfterCommit.run(() -> update(() -> removed.forEach(this::remove)));
+    }
+
+    /**
+     * For a category of the signed-in user's deleted together with its todos. Category ids only identify a category
+     * within its tenant: with the schema layout each tenant numbers its own.
+     */
+    public void cancelCategory(Long categoryId) {
+        String user = currentUser.userKey();
+        AfterCommit.run(() -> update(() -> todos.values().stream()
+                .filter(todo -> categoryId.equals(todo.categoryId()) && user.equals(todo.user()))
+                .map(DueTodo::id)
+                .toList()
+                .forEach(this::remove)));
+    }
+
+    /**
+     * For a category deleted after moving its todos to {@code target}, which only changes what the events carry.
+     */
+    public void reassignCategory(Long categoryId, Long target) {
+        String user = currentUser.userKey();
+        AfterCommit.run(() -> update(() -> todos.replaceAll((id, todo) ->
+                categoryId.equals(todo.categoryId()) && user.equals(todo.user()) ? todo.withCategoryId(target) : todo)));
+    }
+
+    /**
+     * Due-date events of the signed-in user's todos, from now on.
+     */
+    public SseEmitter subscribe() {
+        SseSubscriber<TodoDueEventDTO> subscriber = new SseSubscriber<>(new SseEmitter(timeoutMillis),
+                event -> event.getType().toLowerCase(Locale.ROOT), event -> true, bufferSize, senders);
+        register(currentUser.userKey(), subscriber);
+        return subscriber.getEmitter();
+    }
+
+    void register(String user, SseSubscriber<TodoDueEventDTO> subscriber) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many due event subscribers");
+        }
+        subscribers.compute(user, (key, owned) -> {
+            Set<SseSubscriber<TodoDueEventDTO>> added = owned != null ? owned : ConcurrentHashMap.newKeySet();
+            added.add(subscriber);
+            return added;
+        });
+        Runnable remove = () -> unregister(user, subscriber);
+        SseEmitter emitter = subscriber.getEmitter();
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+        log.debug("Novo cliente no stream de vencimentos. Total: {}", subscriberCount.get());
+        List<TodoDueEventDTO> caughtUp = new ArrayList<>();
+        lock.lock();
+        try {
+            missed.values().stream()
+                    .filter(fired -> user.equals(fired.user()))
+                    .forEach(fired -> caughtUp.add(fired.event()));
+        } finally {
+            lock.unlock();
+        }
+        caughtUp.forEach(subscriber::offer);
+    }
+
+    /**
+     * Loads the events still ahead, and the OVERDUE events missed within the catch-up window, and starts the thread
+     * that fires them. Runs with nobody signed in, so the query covers every tenant, once per tenant with the schema
+     * layout.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = tenantPartitions.collect(() -> todoRepository.findOpenDueAfter(now.minus(catchUp)));
+        int missedCount;
+        lock.lock();
+        try {
+            rows.stream()
+                    .map(row -> new DueTodo((Long) row[0], CurrentUser.userKey((String) row[1], (String) row[2]),
+                            (String) row[3], (Long) row[4], (LocalDateTime) row[5]))
+                    .sorted(Comparator.comparing(DueTodo::dueDate))
+                    .forEach(todo -> {
+                        if (todo.dueDate().isAfter(now)) {
+                            add(todo, now);
+                        } else {
+                            missed.put(todo.id(), new Fired(todo.user(), todo.toEvent(OVERDUE, now)));
+                            overdue.increment();
+                        }
+                    });
+            missedUntil = now.plus(catchUp);
+            beforeLoad.forEach(Runnable::run);
+            beforeLoad = null;
+            pending.set(alarms.size());
+            missedCount = missed.size();
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+        Thread thread = new Thread(this::fire, "due-date-scheduler");
+        thread.setDaemon(true);
+        thread.start();
+        firing = thread;
+        log.info("Agendador de vencimentos iniciado: {} evento(s) pendente(s), {} vencimento(s) perdido(s) "
+                 + "durante a parada", pending.get(), missedCount);
+    }
+
+    /**
+     * Sends an SSE comment so that connections that went away are noticed even when no events flow.
+     */
+    @Scheduled(fixedDelayString = "${todos.due.stream.heartbeat-interval:15000}")
+    public void heartbeat() {
+        lock.lock();
+        try {
+            if (!missed.isEmpty() && LocalDateTime.now().isAfter(missedUntil)) {
+                missed.clear();
+            }
+        } finally {
+            lock.unlock();
+        }
+        subscribers.forEach((user, owned) -> owned.forEach(subscriber -> {
+            if (subscriber.isClosed()) {
+                unregister(user, subscriber);
+            } else {
+                subscriber.heartbeat();
+            }
+        }));
+    }
+
+    int pendingCount() {
+        return pending.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        Thread thread = firing;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        subscribers.values().forEach(owned -> owned.forEach(subscriber -> {
+            subscriber.close();
+            subscriber.getEmitter().complete();
+        }));
+        subscribers.clear();
+        if (senders instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void unregister(String user, SseSubscriber<TodoDueEventDTO> subscriber) {
+        subscriber.close();
+        subscribers.computeIfPresent(user, (key, owned) -> {
+            if (owned.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return owned.isEmpty() ? null : owned;
+        });
+    }
+
+    private void fire() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                // Offered from this one thread, so each subscriber receives events in firing order
+                for (Fired fired : awaitDue()) {
+                    Set<SseSubscriber<TodoDueEventDTO>> owned = subscribers.get(fired.user());
+                    if (owned != null) {
+                        owned.forEach(subscriber -> subscriber.offer(fired.event()));
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Blocks until at least one event is due and takes every event due by then. Writes that bring a todo's events
+     * forward signal {@code changed}, which restarts the wait.
+     */
+    private List<Fired> awaitDue() throws InterruptedException {
+        lock.lock();
+        try {
+            while (true) {
+                if (alarms.isEmpty()) {
+                    changed.await();
+                    continue;
+                }
+                LocalDateTime now = LocalDateTime.now();
+                long wait = Duration.between(now, alarms.first().fireAt()).toNanos();
+                if (wait > 0) {
+                    changed.awaitNanos(wait);
+                    continue;
+                }
+                List<Fired> fired = new ArrayList<>();
+                while (!alarms.isEmpty() && !alarms.first().fireAt().isAfter(now)) {
+                    Alarm alarm = alarms.pollFirst();
+                    DueTodo todo = OVERDUE.equals(alarm.type()) ? todos.remove(alarm.todoId())
+                            : todos.get(alarm.todoId());
+                    lag.record(Duration.between(alarm.fireAt(), now));
+                    (OVERDUE.equals(alarm.type()) ? overdue : reminders).increment();
+                    fired.add(new Fired(todo.user(), todo.toEvent(alarm.type(), now)));
+                }
+                pending.set(alarms.size());
+                return fired;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies a change to the schedule, or holds it back until the startup load has been applied.
+     */
+    private void update(Runnable change) {
+        lock.lock();
+        try {
+            if (beforeLoad != null) {
+                beforeLoad.add(change);
+                return;
+            }
+            change.run();
+            pending.set(alarms.size());
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Guarded by lock.
+     */
+    private void add(DueTodo todo, LocalDateTime now) {
+        if (todo.dueDate() == null || !todo.dueDate().isAfter(now)) {
+            return;
+        }
+        todos.put(todo.id(), todo);
+        LocalDateTime reminderAt = todo.dueDate().minus(reminderLead);
+        if (!reminderLead.isZero() && reminderAt.isAfter(now)) {
+            alarms.add(new Alarm(reminderAt, todo.id(), REMINDER));
+        }
+        alarms.add(new Alarm(todo.dueDate(), todo.id(), OVERDUE));
+    }
+
+    /**
+     * Guarded by lock.
+     */
+    private void remove(Long id) {
+        // A todo written since it was missed is dropped rather than announced with what it was before
+        missed.remove(id);
+        DueTodo todo = todos.remove(id);
+        if (todo != null) {
+            alarms.remove(new Alarm(todo.dueDate().minus(reminderLead), id, REMINDER));
+            alarms.remove(new Alarm(todo.dueDate(), id, OVERDUE));
+        }
+    }
+
+    private static Counter events(MeterRegistry meterRegistry, String type) {
+        return Counter.builder("todos.due.events")
+                .description("Due-date events fired, by type")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private record Alarm(LocalDateTime fireAt, long todoId, String type) {
+    }
+
+    private record Fired(String user, TodoDueEventDTO event) {
+    }
+
+    /**
+     * What the events of one todo carry; {@code dueDate} is left out for a completed todo, which has none.
+     */
+    private record DueTodo(Long id, String user, String title, Long categoryId, LocalDateTime dueDate) {
+        static DueTodo of(Todo todo) {
+            return new DueTodo(todo.getId(), CurrentUser.userKey(todo.getTenant(), todo.getOwner()), todo.getTitle(),
+                    todo.getCategory() != null ? todo.getCategory().getId() : null,
+                    todo.isCompleted() ? null : todo.getDueDate());
+        }
+
+        DueTodo withCategoryId(Long target) {
+            return new DueTodo(id, user, title, target, dueDate);
+        }
+
+        TodoDueEventDTO toEvent(String type, LocalDateTime firedAt) {
+            TodoDueEventDTO event = new TodoDueEventDTO();
+            event.setType(type);
+            event.setId(id);
+            event.setTitle(title);
+            event.setCategoryId(categoryId);
+            event.setDueDate(dueDate);
+            event.setFiredAt(firedAt);
+            return event;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.todoapi.service;
+
+import com.example.todoapi.config.AuthProperties;
+import com.example.todoapi.config.JwtProperties;
+import com.example.todoapi.dto.TokenDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.IncorrectClaimException;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Issues and verifies the HS256 bearer tokens. A verified token is remembered in a bounded Caffeine cache,
+ * keyed by the SHA-256 of the token and expiring together with it, so the requests that follow with the same
+ * token cost one hash and a lookup instead of decoding, checking the signature and parsing the claims again.
+ * Only valid tokens are cached; a rejected one is verified, and rejected, every time. A valid signature is not
+ * enough: the subject must be one of {@code todos.auth.users}, in that account's tenant and with roles it has.
+ */
+@Service
+public class JwtService {
+    private static final String ROLES_CLAIM = "roles";
+    private static final String TENANT_CLAIM = "tenant";
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final AuthProperties authProperties;
+    private final SecretKey key;
+    private final Duration expiration;
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verified;
+    private final Counter cached;
+    private final Counter parsed;
+    private final Counter rejected;
+
+    public JwtService(JwtProperties properties, AuthProperties authProperties, MeterRegistry meterRegistry) {
+        if (!StringUtils.hasText(properties.getSecret())) {
+            throw new IllegalArgumentException("jwt.secret must be set, e.g. from the JWT_SECRET environment variable");
+        }
+        this.authProperties = authProperties;
+        // Rejects keys shorter than the 256 bits HS256 requires
+        this.key = Keys.hmacShaKeyFor(properties.getSecret().getBytes(StandardCharsets.UTF_8));
+        this.expiration = properties.getExpiration();
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheSize())
+                .expireAfter(new UntilTokenExpiry())
+                .build();
+        this.cached = tokens(meterRegistry, "cached");
+        this.parsed = tokens(meterRegistry, "verified");
+        this.rejected = tokens(meterRegistry, "rejected");
+        Gauge.builder("todos.auth.token-cache.size", verified, cache -> cache.estimatedSize())
+                .description("Verified tokens currently cached")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The principal and roles a token stands for, with the authorities already built so that a cached token
+     * allocates nothing per request.
+     */
+    public record VerifiedToken(CurrentUser.SignedIn user, List<GrantedAuthority> authorities, Instant expiresAt) {
+    }
+
+    public TokenDTO issue(String subject, String tenant, Collection<? extends GrantedAuthority> authorities) {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(expiration);
+        List<String> roles = authorities.stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith(ROLE_PREFIX))
+                .map(authority -> authority.substring(ROLE_PREFIX.length()))
+                .toList();
+        String token = Jwts.builder()
+                .setSubject(subject)
+                .claim(ROLES_CLAIM, roles)
+                .claim(TENANT_CLAIM, tenant)
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(expiresAt))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+
+        TokenDTO dto = new TokenDTO();
+        dto.setAccessToken(token);
+        dto.setTokenType("Bearer");
+        dto.setExpiresIn(expiration.toSeconds());
+        return dto;
+    }
+
+    /**
+     * @throws JwtException when the token is malformed, not signed with our key, expired, or for a user, tenant or
+     *                      role that is not configured
+     */
+    public VerifiedToken verify(String token) {
+        String hash = hash(token);
+        VerifiedToken hit = verified.getIfPresent(hash);
+        if (hit != null) {
+            cached.increment();
+            return hit;
+        }
+        VerifiedToken result;
+        try {
+            result = parse(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            rejected.increment();
+            throw e;
+        }
+        parsed.increment();
+        verified.put(hash, result);
+        return result;
+    }
+
+    private VerifiedToken parse(String token) {
+        Jws<Claims> jws = parser.parseClaimsJws(token);
+        Claims claims = jws.getBody();
+        // Without an expiry a token would be valid, and cached, forever
+        if (claims.getSubject() == null || claims.getExpiration() == null) {
+            throw new MalformedJwtException("Token must carry a subject and an expiry");
+        }
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        List<GrantedAuthority> authorities = roles == null ? List.of() : roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(ROLE_PREFIX + role))
+                .toList();
+        // Tokens issued before there were tenants belong to the tenant existing data was moved to
+        String tenant = claims.get(TENANT_CLAIM, String.class);
+        CurrentUser.SignedIn user = new CurrentUser.SignedIn(claims.getSubject(),
+                tenant != null ? tenant : CurrentUser.DEFAULT_TENANT);
+        checkAccount(jws, user, roles);
+        return new VerifiedToken(user, authorities, claims.getExpiration().toInstant());
+    }
+
+    /**
+     * Holds a token to the account it claims: the key alone would otherwise let a token name any user, tenant or
+     * role. Tokens of a removed account, or issued before its tenant or roles changed, stop working.
+     */
+    private void checkAccount(Jws<Claims> jws, CurrentUser.SignedIn user, List<?> roles) {
+        AuthProperties.Account account = authProperties.getUsers().get(user.name());
+        if (account == null) {
+            throw new IncorrectClaimException(jws.getHeader(), jws.getBody(), "Token subject is not a known user");
+        }
+        if (!account.getTenant().equals(user.tenant())) {
+            throw new IncorrectClaimException(jws.getHeader(), jws.getBody(), "Token tenant is not the user's");
+        }
+        if (roles != null && !account.getRoles().containsAll(roles)) {
+            throw new IncorrectClaimException(jws.getHeader(), jws.getBody(), "Token roles are not the user's");
+        }
+    }
+
+    /**
+     * Cache key: a fixed-size digest instead of the token itself, so the cache holds no usable credentials.
+     */
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Counter tokens(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("todos.auth.tokens")
+                .description("Bearer tokens checked, by whether the verification came from the cache")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Keeps each entry until its token's {@code exp}; past that the token has to go through {@link #parse},
+     * which rejects it.
+     */
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String hash, VerifiedToken token, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), token.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String hash, VerifiedToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(hash, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String hash, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
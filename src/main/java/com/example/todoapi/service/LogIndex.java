@@ -0,0 +1,395 @@
+package com.example.todoapi.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+/**
+ * In-memory index over log entries parsed from {@code logging.pattern.file}
+ * ({@code %d{yyyy-MM-dd HH:mm:ss} [%thread] %-5level %logger{36} - %msg%n}). Entries are numbered in file
+ * order and stored column-wise in primitive arrays; terms, levels, loggers and threads map to sorted posting
+ * lists of entry numbers. Lines that do not start with a timestamp, such as stack trace frames, belong to the
+ * entry before them. The prod profile writes JSON lines instead ({@code logback-spring.xml}); those are read
+ * field by field, with the stack trace indexed as part of the message.
+ *
+ * <p>Not thread-safe; {@link LogIndexService} serialises writers and readers.
+ */
+final class LogIndex {
+    static final String[] LEVELS = {"TRACE", "DEBUG", "INFO", "WARN", "ERROR"};
+    private static final int MIN_TOKEN_LENGTH = 2;
+    private static final int MAX_TOKEN_LENGTH = 64;
+    private static final int MAX_PREFIX_EXPANSION = 256;
+    private static final JsonFactory JSON = new JsonFactory();
+
+    // File key of the oldest file when the index was started; every offset is relative to its first byte
+    private final Object firstSegment;
+    private long indexedUpTo;
+    private int size;
+    private long[] offsets = new long[1024];
+    private long[] times = new long[1024];
+    private final NavigableMap<String, IntList> terms = new TreeMap<>();
+    private final IntList[] levels = new IntList[LEVELS.length];
+    private final NavigableMap<String, IntList> loggers = new TreeMap<>();
+    private final Map<String, IntList> threads = new HashMap<>();
+
+    LogIndex(Object firstSegment) {
+        this.firstSegment = firstSegment;
+        for (int i = 0; i < levels.length; i++) {
+            levels[i] = new IntList();
+        }
+    }
+
+    /**
+     * One raw log line; {@code time} is {@code null} for continuation lines.
+     */
+    record ParsedLine(long offset, Long time, String thread, int level, String logger, String message) {
+    }
+
+    Object firstSegment() {
+        return firstSegment;
+    }
+
+    long indexedUpTo() {
+        return indexedUpTo;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void add(List<ParsedLine> lines, long upTo) {
+        for (ParsedLine line : lines) {
+            if (line.time() != null || size == 0) {
+                addEntry(line);
+            }
+            tokenize(line.message(), size - 1);
+        }
+        indexedUpTo = upTo;
+    }
+
+    /**
+     * Byte range {@code [start, end)} of entry {@code id}.
+     */
+    long[] range(int id) {
+        return new long[]{offsets[id], id + 1 < size ? offsets[id + 1] : indexedUpTo};
+    }
+
+    /**
+     * Entry numbers matching every given criterion, newest first. Each term matches indexed words starting with
+     * it; {@code from}/{@code to} are inclusive epoch seconds of the wall-clock log timestamps.
+     */
+    List<Integer> query(List<String> queryTerms, Collection<Integer> queryLevels, String loggerPrefix,
+                        String thread, Long from, Long to, int limit) {
+        int lo = from == null ? 0 : firstAtOrAfter(from);
+        int hi = to == null ? size : firstAtOrAfter(to + 1);
+
+        List<Postings> filters = new ArrayList<>();
+        for (String term : queryTerms) {
+            filters.add(prefixed(terms, term, "term"));
+        }
+        if (queryLevels != null && !queryLevels.isEmpty()) {
+            List<IntList> selected = new ArrayList<>();
+            queryLevels.forEach(level -> selected.add(levels[level]));
+            filters.add(union(selected));
+        }
+        if (loggerPrefix != null) {
+            filters.add(prefixed(loggers, loggerPrefix, "logger"));
+        }
+        if (thread != null) {
+            IntList postings = threads.get(thread);
+            filters.add(postings == null ? Postings.EMPTY : postings.view());
+        }
+        filters.sort(Comparator.comparingInt(Postings::size));
+
+        List<Integer> result = new ArrayList<>();
+        if (filters.isEmpty()) {
+            for (int id = hi - 1; id >= lo && result.size() < limit; id--) {
+                result.add(id);
+            }
+            return result;
+        }
+        Postings driver = filters.get(0);
+        for (int i = driver.size() - 1; i >= 0 && result.size() < limit; i--) {
+            int id = driver.ids()[i];
+            if (id < lo) {
+                break;
+            }
+            if (id < hi && containedInAll(filters, id)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    static int levelOf(String level) {
+        for (int i = 0; i < LEVELS.length; i++) {
+            if (LEVELS[i].equalsIgnoreCase(level)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Parses one line of the file pattern. Anything that does not start with a timestamp is a continuation line.
+     */
+    static ParsedLine parse(String line, long offset) {
+        if (line.startsWith("{")) {
+            return parseJson(line, offset);
+        }
+        if (line.length() < 22 || line.charAt(4) != '-' || line.charAt(10) != ' ' || line.charAt(13) != ':'
+                || line.charAt(20) != '[') {
+            return new ParsedLine(offset, null, null, -1, null, line);
+        }
+        try {
+            LocalDateTime timestamp = LocalDateTime.of(digits(line, 0, 4), digits(line, 5, 7), digits(line, 8, 10),
+                    digits(line, 11, 13), digits(line, 14, 16), digits(line, 17, 19));
+            int threadEnd = line.indexOf("] ", 21);
+            int levelStart = threadEnd + 2;
+            int levelEnd = line.indexOf(' ', levelStart);
+            int loggerStart = levelEnd;
+            while (loggerStart < line.length() && line.charAt(loggerStart) == ' ') {
+                loggerStart++;
+            }
+            int loggerEnd = line.indexOf(" - ", loggerStart);
+            if (threadEnd < 0 || levelEnd < 0 || loggerEnd < 0) {
+                return new ParsedLine(offset, null, null, -1, null, line);
+            }
+            return new ParsedLine(offset, timestamp.toEpochSecond(ZoneOffset.UTC), line.substring(21, threadEnd),
+                    levelOf(line.substring(levelStart, levelEnd)), line.substring(loggerStart, loggerEnd),
+                    line.substring(loggerEnd + 3));
+        } catch (RuntimeException e) {
+            return new ParsedLine(offset, null, null, -1, null, line);
+        }
+    }
+
+    /**
+     * Parses one event written by the JSON encoder. A line that is not such an event is kept as a continuation
+     * line, like any other unparseable text.
+     */
+    static ParsedLine parseJson(String line, long offset) {
+        String timestamp = null;
+        String thread = null;
+        String level = null;
+        String logger = null;
+        String message = null;
+        String stackTrace = null;
+        try (JsonParser parser = JSON.createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return new ParsedLine(offset, null, null, -1, null, line);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                switch (field) {
+                    case "@timestamp" -> timestamp = parser.getValueAsString();
+                    case "thread_name" -> thread = parser.getValueAsString();
+                    case "level" -> level = parser.getValueAsString();
+                    case "logger_name" -> logger = parser.getValueAsString();
+                    case "message" -> message = parser.getValueAsString();
+                    case "stack_trace" -> stackTrace = parser.getValueAsString();
+                    default -> {
+                    }
+                }
+            }
+            if (timestamp == null || timestamp.length() < 19 || timestamp.charAt(10) != 'T') {
+                return new ParsedLine(offset, null, null, -1, null, line);
+            }
+            LocalDateTime time = LocalDateTime.of(digits(timestamp, 0, 4), digits(timestamp, 5, 7),
+                    digits(timestamp, 8, 10), digits(timestamp, 11, 13), digits(timestamp, 14, 16),
+                    digits(timestamp, 17, 19));
+            String text = message == null ? "" : message;
+            return new ParsedLine(offset, time.toEpochSecond(ZoneOffset.UTC), thread,
+                    level == null ? -1 : levelOf(level), logger, stackTrace == null ? text : text + "\n" + stackTrace);
+        } catch (IOException | RuntimeException e) {
+            return new ParsedLine(offset, null, null, -1, null, line);
+        }
+    }
+
+    /**
+     * Lower-cased runs of letters and digits, the unit both indexing and querying work on.
+     */
+    static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (i - start >= MIN_TOKEN_LENGTH && i - start <= MAX_TOKEN_LENGTH) {
+                    tokens.add(text.substring(start, i).toLowerCase());
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Whether every query term starts some word of the line's message or logger: the test {@link #query} answers
+     * from the index, for callers that see lines one at a time, such as the log stream.
+     */
+    static boolean matches(List<String> queryTerms, ParsedLine line) {
+        List<String> words = tokens(line.message());
+        if (line.logger() != null) {
+            words.addAll(tokens(line.logger()));
+        }
+        for (String term : queryTerms) {
+            if (words.stream().noneMatch(word -> word.startsWith(term))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addEntry(ParsedLine line) {
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, size * 2);
+            times = Arrays.copyOf(times, size * 2);
+        }
+        int id = size++;
+        offsets[id] = line.offset();
+        // Threads can finish writing out of order within a second; keeping times monotonic lets range lookups
+        // binary search, at the cost of at most a second of skew on those few entries.
+        long time = line.time() == null ? 0 : line.time();
+        times[id] = id > 0 ? Math.max(time, times[id - 1]) : time;
+        if (line.level() >= 0) {
+            levels[line.level()].add(id);
+        }
+        if (line.logger() != null) {
+            loggers.computeIfAbsent(line.logger(), key -> new IntList()).add(id);
+            tokenize(line.logger(), id);
+        }
+        if (line.thread() != null) {
+            threads.computeIfAbsent(line.thread(), key -> new IntList()).add(id);
+        }
+    }
+
+    private void tokenize(String text, int id) {
+        for (String token : tokens(text)) {
+            terms.computeIfAbsent(token, key -> new IntList()).add(id);
+        }
+    }
+
+    private int firstAtOrAfter(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static boolean containedInAll(List<Postings> filters, int id) {
+        for (int i = 1; i < filters.size(); i++) {
+            Postings postings = filters.get(i);
+            if (Arrays.binarySearch(postings.ids(), 0, postings.size(), id) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Entries under every key starting with {@code prefix}. A prefix expanding to too many keys is rejected rather
+     * than cut short, which would silently leave out matches.
+     */
+    private static Postings prefixed(NavigableMap<String, IntList> map, String prefix, String what) {
+        Collection<IntList> matches = map.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+        int expanded = 0;
+        for (IntList ignored : matches) {
+            if (++expanded > MAX_PREFIX_EXPANSION) {
+                throw new IllegalArgumentException("The " + what + " '" + prefix + "' matches more than "
+                        + MAX_PREFIX_EXPANSION + " indexed values; use a longer prefix");
+            }
+        }
+        return union(matches);
+    }
+
+    private static Postings union(Collection<IntList> postings) {
+        if (postings.size() == 1) {
+            return postings.iterator().next().view();
+        }
+        BitSet ids = new BitSet();
+        for (IntList list : postings) {
+            list.forEach(ids::set);
+        }
+        int[] merged = ids.stream().toArray();
+        return new Postings(merged, merged.length);
+    }
+
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException(text.substring(from, to));
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * The first {@code size} entries of {@code ids}, ascending.
+     */
+    record Postings(int[] ids, int size) {
+        static final Postings EMPTY = new Postings(new int[0], 0);
+    }
+
+    /**
+     * Growable, ascending posting list; an id added twice in a row is stored once.
+     */
+    static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        /**
+         * Read-only view of the current contents; later appends never disturb the first {@code size} slots.
+         */
+        Postings view() {
+            return new Postings(values, size);
+        }
+
+        void forEach(IntConsumer consumer) {
+            for (int i = 0; i < size; i++) {
+                consumer.accept(values[i]);
+            }
+        }
+    }
+}
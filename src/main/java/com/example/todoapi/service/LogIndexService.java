@@ -0,0 +1,197 @@
+package com.example.todoapi.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps a {@link LogIndex} in step with the log files. A scheduled refresh parses only the bytes appended since
+ * the last run; the index is rebuilt from scratch when the oldest archive is pruned or the files shrink, since
+ * every offset shifts in that case. Searches only read the index as it stands, so they never parse log files on
+ * a request thread; lines show up within {@code logs.index.refresh-interval} of being written. A search that
+ * finds the files pruned since the last refresh is answered with 503 rather than with lines from the wrong
+ * offsets, and one that overlaps a rotation reads again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LogIndexService {
+    private static final int BATCH_LINES = 10_000;
+    private static final int MAX_RESULTS = 10_000;
+    private static final int MAX_READ_ATTEMPTS = 3;
+
+    private final LogService logService;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private LogIndex index = new LogIndex(null);
+
+    @Scheduled(fixedDelayString = "${logs.index.refresh-interval:1000}")
+    public void refresh() {
+        // Only one refresh at a time, should a caller outside the schedule overlap with it
+        if (!refreshLock.tryLock()) {
+            return;
+        }
+        try {
+            List<LogService.Segment> segments = logService.segments();
+            LogIndex current = current();
+
+            if (!covers(current.firstSegment(), current.indexedUpTo(), segments)) {
+                LogIndex rebuilt = new LogIndex(segments.isEmpty() ? null : segments.get(0).key());
+                append(rebuilt, false);
+                lock.writeLock().lock();
+                try {
+                    index = rebuilt;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                log.debug("Índice de logs reconstruído com {} entradas", rebuilt.size());
+            } else {
+                append(current, true);
+            }
+        } catch (IOException e) {
+            log.warn("Falha ao indexar arquivos de log: {}", e.getMessage());
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Newest {@code limit} entries matching all given filters, returned oldest first. Every word of {@code term}
+     * must start some word of the entry's message or logger; {@code logger} matches logger names by prefix.
+     */
+    public List<String> search(String term, List<String> levels, String logger, String thread,
+                               LocalDateTime from, LocalDateTime to, int limit) throws IOException {
+        if (limit < 1 || limit > MAX_RESULTS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_RESULTS);
+        }
+        List<String> terms = term == null ? Collections.emptyList() : LogIndex.tokens(term);
+        if (term != null && terms.isEmpty()) {
+            throw new IllegalArgumentException("term must contain a word of at least two letters or digits");
+        }
+        List<Integer> levelCodes = new ArrayList<>();
+        if (levels != null) {
+            for (String level : levels) {
+                int code = LogIndex.levelOf(level.trim());
+                if (code < 0) {
+                    throw new IllegalArgumentException("Unknown log level: " + level);
+                }
+                levelCodes.add(code);
+            }
+        }
+
+        for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++) {
+            List<long[]> ranges = new ArrayList<>();
+            Object firstSegment;
+            long indexedUpTo;
+            lock.readLock().lock();
+            try {
+                for (int id : index.query(terms, levelCodes, logger, thread, epochSecond(from), epochSecond(to),
+                        limit)) {
+                    ranges.add(index.range(id));
+                }
+                firstSegment = index.firstSegment();
+                indexedUpTo = index.indexedUpTo();
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            List<LogService.Segment> segments = logService.segments();
+            if (!covers(firstSegment, indexedUpTo, segments)) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "The log files have been rotated and the log index is being rebuilt, please retry");
+            }
+            List<String> entries = new ArrayList<>(ranges.size());
+            try {
+                for (int i = ranges.size() - 1; i >= 0; i--) {
+                    entries.add(logService.readRange(segments, ranges.get(i)[0], ranges.get(i)[1]));
+                }
+            } catch (IOException e) {
+                if (unchanged(segments, logService.segments())) {
+                    throw e;
+                }
+                continue;
+            }
+            // Files are opened by name, so a rotation during the read may have handed us bytes of another file
+            if (unchanged(segments, logService.segments())) {
+                return entries;
+            }
+            log.debug("Arquivos de log rotacionados durante a busca, lendo novamente");
+        }
+        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "The log files kept rotating during the search, please retry");
+    }
+
+    /**
+     * Whether offsets taken from an index started at {@code firstSegment} and filled up to {@code indexedUpTo}
+     * still point into {@code segments}: the oldest file is the same and nothing was truncated.
+     */
+    private static boolean covers(Object firstSegment, long indexedUpTo, List<LogService.Segment> segments) {
+        Object first = segments.isEmpty() ? null : segments.get(0).key();
+        long total = segments.isEmpty() ? 0 : segments.get(segments.size() - 1).end();
+        return Objects.equals(first, firstSegment) && total >= indexedUpTo;
+    }
+
+    private static boolean unchanged(List<LogService.Segment> before, List<LogService.Segment> after) {
+        if (after.size() < before.size()) {
+            return false;
+        }
+        for (int i = 0; i < before.size(); i++) {
+            if (!before.get(i).sameFile(after.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void append(LogIndex target, boolean published) throws IOException {
+        List<LogIndex.ParsedLine> batch = new ArrayList<>();
+        long position = target.indexedUpTo();
+        while (true) {
+            long next = logService.scan(position, (bytes, from, to, offset) -> {
+                batch.add(LogIndex.parse(LogService.decode(bytes, from, to), offset));
+                return batch.size() < BATCH_LINES;
+            });
+            if (batch.isEmpty()) {
+                return;
+            }
+            if (published) {
+                lock.writeLock().lock();
+            }
+            try {
+                target.add(batch, next);
+            } finally {
+                if (published) {
+                    lock.writeLock().unlock();
+                }
+            }
+            batch.clear();
+            position = next;
+        }
+    }
+
+    private LogIndex current() {
+        lock.readLock().lock();
+        try {
+            return index;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Long epochSecond(LocalDateTime time) {
+        return time == null ? null : time.toEpochSecond(ZoneOffset.UTC);
+    }
+}
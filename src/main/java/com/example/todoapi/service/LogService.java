@@ -0,0 +1,430 @@
+package com.example.todoapi.service;
+
+import com.example.todoapi.dto.LogPageDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Reads the application log and its rotated archives as one continuous byte sequence, oldest archive first.
+ * Offsets handed to clients are positions in that sequence, so they stay valid when the active file rolls
+ * over; they only shift when the oldest archive is pruned by {@code max-history}.
+ *
+ * <p>Files are read with positional {@link FileChannel} reads into a small reusable buffer rather than being
+ * memory-mapped, because the active file is appended to and truncated by rotation while we read it. Every byte
+ * read is counted in {@code logs.reader.bytes}.
+ */
+@Slf4j
+@Service
+public class LogService {
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int MAX_LINES = 10_000;
+    private static final byte[] EMPTY = new byte[0];
+    private static final Pattern ARCHIVE_SUFFIX = Pattern.compile("\\.(\\d{4}-\\d{2}-\\d{2})\\.(\\d+)\\.log$");
+
+    private final Path logFile;
+    private final int chunkSize;
+    private final Counter bytesRead;
+
+    @Autowired
+    public LogService(@Value("${logging.file.name:logs/application.log}") String logFile,
+                      MeterRegistry meterRegistry) {
+        this(Paths.get(logFile), CHUNK_SIZE, meterRegistry);
+    }
+
+    LogService(Path logFile, int chunkSize) {
+        this(logFile, chunkSize, new SimpleMeterRegistry());
+    }
+
+    LogService(Path logFile, int chunkSize, MeterRegistry meterRegistry) {
+        this.logFile = logFile;
+        this.chunkSize = chunkSize;
+        this.bytesRead = Counter.builder("logs.reader.bytes")
+                .description("Bytes read from the log files by tail, forward reads, scans and the indexer")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Receives raw lines without their terminator. Returning {@code false} stops the scan after this line.
+     */
+    @FunctionalInterface
+    public interface LineVisitor {
+        boolean visit(byte[] bytes, int from, int to, long offset);
+    }
+
+    /**
+     * One log file and where it starts in the combined byte sequence. {@code key} identifies the file itself, so
+     * it stays the same when rotation renames the active file into an archive.
+     */
+    record Segment(Path path, Object key, long base, long size, boolean active) {
+        long end() {
+            return base + size;
+        }
+
+        /**
+         * Whether {@code other} is this file under the same name at the same offset; the active file may have
+         * grown since.
+         */
+        boolean sameFile(Segment other) {
+            return path.equals(other.path) && key.equals(other.key) && base == other.base;
+        }
+    }
+
+    public boolean exists() throws IOException {
+        return !segments().isEmpty();
+    }
+
+    /**
+     * Offset just past the last byte currently written, i.e. where newly appended lines will start.
+     */
+    public long end() throws IOException {
+        List<Segment> segments = segments();
+        return segments.isEmpty() ? 0 : segments.get(segments.size() - 1).end();
+    }
+
+    /**
+     * Returns up to {@code lines} lines ending at offset {@code before}, or at the end of the log when it is
+     * {@code null}, reading backwards so the cost depends on the lines returned rather than on the file size.
+     * Like {@link #readForward}, it stops at the last complete line: one still being written at the end of the
+     * active file is left for the next call.
+     */
+    public LogPageDTO tail(int lines, Long before) throws IOException {
+        checkLines(lines);
+        List<Segment> segments = segments();
+        long total = segments.isEmpty() ? 0 : completeEnd(segments.get(segments.size() - 1));
+        long end = before == null ? total : Math.max(0, Math.min(before, total));
+
+        List<String> collected = new ArrayList<>();
+        long start = end;
+        for (int i = segments.size() - 1; i >= 0 && collected.size() < lines; i--) {
+            Segment segment = segments.get(i);
+            if (segment.base() >= end) {
+                continue;
+            }
+            long localEnd = Math.min(end, segment.end()) - segment.base();
+            try (FileChannel channel = open(segment)) {
+                start = segment.base() + readBackward(channel, localEnd, lines - collected.size(), collected);
+            } catch (NoSuchFileException e) {
+                log.debug("Arquivo de log removido durante a leitura: {}", segment.path());
+            }
+        }
+        Collections.reverse(collected);
+        return page(collected, start, end);
+    }
+
+    /**
+     * Returns up to {@code lines} complete lines starting at offset {@code after}. A line still being written
+     * at the end of the active file is left for the next call.
+     */
+    public LogPageDTO readForward(long after, int lines) throws IOException {
+        checkLines(lines);
+        List<String> collected = new ArrayList<>();
+        long position = scan(after, (bytes, from, to, offset) -> {
+            collected.add(decode(bytes, from, to));
+            return collected.size() < lines;
+        });
+        return page(collected, Math.min(after, position), position);
+    }
+
+    /**
+     * Visits every complete line from offset {@code from} onwards and returns the offset just past the last
+     * line visited, which is where the next scan should resume.
+     */
+    public long scan(long from, LineVisitor visitor) throws IOException {
+        long position = Math.max(0, from);
+        boolean[] stopped = new boolean[1];
+        LineVisitor tracking = (bytes, start, end, offset) -> {
+            boolean proceed = visitor.visit(bytes, start, end, offset);
+            stopped[0] = !proceed;
+            return proceed;
+        };
+        for (Segment segment : segments()) {
+            if (segment.end() <= position) {
+                continue;
+            }
+            long localStart = Math.max(0, position - segment.base());
+            try (FileChannel channel = open(segment)) {
+                position = segment.base() + scanForward(channel, localStart, segment.size(), !segment.active(),
+                        segment.base(), tracking);
+            } catch (NoSuchFileException e) {
+                log.debug("Arquivo de log removido durante a leitura: {}", segment.path());
+                position = segment.end();
+            }
+            if (stopped[0] || (segment.active() && position < segment.end())) {
+                break;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Decodes the bytes in {@code [start, end)}, which may span files, without the final line terminator. Offsets
+     * are resolved against {@code segments}, a listing from {@link #segments()}; the caller checks that it still
+     * holds once the read is done.
+     */
+    String readRange(List<Segment> segments, long start, long end) throws IOException {
+        byte[] bytes = new byte[(int) Math.max(0, end - start)];
+        int filled = 0;
+        for (Segment segment : segments) {
+            if (segment.end() <= start || segment.base() >= end) {
+                continue;
+            }
+            long from = Math.max(start, segment.base());
+            long to = Math.min(end, segment.end());
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, (int) (from - start), (int) (to - from));
+            try (FileChannel channel = open(segment)) {
+                readFully(channel, buffer, from - segment.base() - buffer.position());
+            }
+            filled = (int) (to - start);
+        }
+        int to = filled;
+        while (to > 0 && (bytes[to - 1] == '\n' || bytes[to - 1] == '\r')) {
+            to--;
+        }
+        return decode(bytes, 0, to);
+    }
+
+    /**
+     * Rotated archives oldest first, followed by the active file, with their offsets in the combined sequence.
+     * Compressed archives cannot be read positionally and are skipped.
+     */
+    List<Segment> segments() throws IOException {
+        Path directory = logFile.toAbsolutePath().getParent();
+        String prefix = logFile.getFileName().toString() + ".";
+        List<Path> archives = new ArrayList<>();
+        if (directory != null && Files.isDirectory(directory)) {
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(path -> path.getFileName().toString().startsWith(prefix))
+                        .filter(path -> ARCHIVE_SUFFIX.matcher(path.getFileName().toString()).find())
+                        .forEach(archives::add);
+            }
+        }
+        archives.sort(Comparator.comparing((Path path) -> archiveKey(path, 1))
+                .thenComparingLong(path -> Long.parseLong(archiveKey(path, 2))));
+
+        List<Segment> segments = new ArrayList<>();
+        long base = 0;
+        for (Path archive : archives) {
+            BasicFileAttributes attributes = attributesOf(archive);
+            if (attributes != null && attributes.size() > 0) {
+                segments.add(new Segment(archive, keyOf(archive, attributes), base, attributes.size(), false));
+                base += attributes.size();
+            }
+        }
+        BasicFileAttributes attributes = attributesOf(logFile);
+        if (attributes != null) {
+            segments.add(new Segment(logFile, keyOf(logFile, attributes), base, attributes.size(), true));
+        }
+        return segments;
+    }
+
+    /**
+     * Offset just past the last line break of {@code segment}; archives always end with a complete line.
+     */
+    private long completeEnd(Segment segment) throws IOException {
+        if (!segment.active()) {
+            return segment.end();
+        }
+        try (FileChannel channel = open(segment)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(chunkSize, Math.max(segment.size(), 1)));
+            byte[] bytes = buffer.array();
+            long position = segment.size();
+            while (position > 0) {
+                int length = (int) Math.min(bytes.length, position);
+                position -= length;
+                buffer.clear().limit(length);
+                readFully(channel, buffer, position);
+                for (int i = length - 1; i >= 0; i--) {
+                    if (bytes[i] == '\n') {
+                        return segment.base() + position + i + 1;
+                    }
+                }
+            }
+        } catch (NoSuchFileException e) {
+            log.debug("Arquivo de log removido durante a leitura: {}", segment.path());
+        }
+        return segment.base();
+    }
+
+    private long readBackward(FileChannel channel, long end, int max, List<String> out) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(chunkSize, Math.max(end, 1)));
+        byte[] bytes = buffer.array();
+        byte[] carry = EMPTY;
+        long position = end;
+        long lineStart = end;
+        int found = 0;
+
+        while (position > 0) {
+            int length = (int) Math.min(bytes.length, position);
+            long chunkStart = position - length;
+            buffer.clear().limit(length);
+            readFully(channel, buffer, chunkStart);
+
+            int segmentEnd = length;
+            for (int i = length - 1; i >= 0; i--) {
+                if (bytes[i] != '\n') {
+                    continue;
+                }
+                if (chunkStart + i == end - 1) {
+                    segmentEnd = i;
+                    continue;
+                }
+                out.add(decode(bytes, i + 1, segmentEnd, carry));
+                carry = EMPTY;
+                segmentEnd = i;
+                lineStart = chunkStart + i + 1;
+                if (++found == max) {
+                    return lineStart;
+                }
+            }
+            carry = concat(bytes, segmentEnd, carry);
+            position = chunkStart;
+        }
+        if (carry.length > 0) {
+            out.add(decode(carry, 0, carry.length, EMPTY));
+            lineStart = 0;
+        }
+        return lineStart;
+    }
+
+    private long scanForward(FileChannel channel, long start, long end, boolean endIsLineBreak, long base,
+                             LineVisitor visitor) throws IOException {
+        byte[] bytes = new byte[(int) Math.min(chunkSize, Math.max(end - start, 1))];
+        int filled = 0;
+        int scanned = 0;
+        long bufferStart = start;
+        long position = start;
+
+        while (position < end) {
+            if (filled == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, filled, (int) Math.min(bytes.length - filled, end - position));
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            bytesRead.increment(read);
+            position += read;
+            filled += read;
+
+            int lineFrom = 0;
+            for (int i = scanned; i < filled; i++) {
+                if (bytes[i] != '\n') {
+                    continue;
+                }
+                boolean proceed = visitor.visit(bytes, lineFrom, trimCarriageReturn(bytes, lineFrom, i),
+                        base + bufferStart + lineFrom);
+                lineFrom = i + 1;
+                if (!proceed) {
+                    return bufferStart + lineFrom;
+                }
+            }
+            System.arraycopy(bytes, lineFrom, bytes, 0, filled - lineFrom);
+            bufferStart += lineFrom;
+            filled -= lineFrom;
+            scanned = filled;
+        }
+        if (endIsLineBreak && filled > 0) {
+            visitor.visit(bytes, 0, trimCarriageReturn(bytes, 0, filled), base + bufferStart);
+            return bufferStart + filled;
+        }
+        return bufferStart;
+    }
+
+    private static LogPageDTO page(List<String> lines, long before, long after) {
+        LogPageDTO page = new LogPageDTO();
+        page.setLines(lines);
+        page.setBefore(before);
+        page.setAfter(after);
+        return page;
+    }
+
+    private static void checkLines(int lines) {
+        if (lines < 1 || lines > MAX_LINES) {
+            throw new IllegalArgumentException("lines must be between 1 and " + MAX_LINES);
+        }
+    }
+
+    private static FileChannel open(Segment segment) throws IOException {
+        return FileChannel.open(segment.path(), StandardOpenOption.READ);
+    }
+
+    private static BasicFileAttributes attributesOf(Path path) throws IOException {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    // File systems without file keys fall back to the name, which rotation changes
+    private static Object keyOf(Path path, BasicFileAttributes attributes) {
+        return attributes.fileKey() != null ? attributes.fileKey() : path.toAbsolutePath();
+    }
+
+    private static String archiveKey(Path path, int group) {
+        Matcher matcher = ARCHIVE_SUFFIX.matcher(path.getFileName().toString());
+        matcher.find();
+        return matcher.group(group);
+    }
+
+    private void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Arquivo de log truncado durante a leitura");
+            }
+            bytesRead.increment(read);
+        }
+    }
+
+    private static int trimCarriageReturn(byte[] bytes, int from, int to) {
+        return to > from && bytes[to - 1] == '\r' ? to - 1 : to;
+    }
+
+    private static byte[] concat(byte[] bytes, int length, byte[] tail) {
+        byte[] joined = new byte[length + tail.length];
+        System.arraycopy(bytes, 0, joined, 0, length);
+        System.arraycopy(tail, 0, joined, length, tail.length);
+        return joined;
+    }
+
+    private static String decode(byte[] bytes, int from, int to, byte[] tail) {
+        if (tail.length == 0) {
+            return decode(bytes, from, trimCarriageReturn(bytes, from, to));
+        }
+        byte[] joined = new byte[to - from + tail.length];
+        System.arraycopy(bytes, from, joined, 0, to - from);
+        System.arraycopy(tail, 0, joined, to - from, tail.length);
+        return decode(joined, 0, trimCarriageReturn(joined, 0, joined.length));
+    }
+
+    static String decode(byte[] bytes, int from, int to) {
+        return new String(bytes, from, to - from, StandardCharsets.UTF_8);
+    }
+}
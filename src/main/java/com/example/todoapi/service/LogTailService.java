@@ -0,0 +1,174 @@
+package com.example.todoapi.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Follows the end of the application log for every {@code /api/logs/stream} client at once. A single scheduled
+ * poll reads the newly appended lines through {@link LogService}, decodes each line once, and offers it to every
+ * {@link SseSubscriber}; each subscriber applies its own level/term filter and buffers at most
+ * {@code logs.stream.buffer-size} lines.
+ */
+@Slf4j
+@Service
+public class LogTailService {
+    private static final int MAX_LINES_PER_POLL = 5_000;
+    private static final long HEARTBEAT_INTERVAL_MILLIS = 15_000;
+
+    private final LogService logService;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final Executor senders;
+    private final Set<SseSubscriber<String>> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private long position = -1;
+    private long lastHeartbeat = System.currentTimeMillis();
+
+    public LogTailService(LogService logService,
+                          @Value("${logs.stream.buffer-size:1000}") int bufferSize,
+                          @Value("${logs.stream.max-subscribers:100}") int maxSubscribers,
+                          @Value("${logs.stream.timeout:3600000}") long timeoutMillis,
+                          @Qualifier("logStreamExecutor") Executor senders) {
+        this.logService = logService;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeoutMillis;
+        this.senders = senders;
+    }
+
+    public SseEmitter subscribe(List<String> levels, String term) {
+        SseSubscriber<String> subscriber = new SseSubscriber<>(new SseEmitter(timeoutMillis), "log",
+                lineFilter(levels, term), bufferSize, senders);
+        register(subscriber);
+        return subscriber.getEmitter();
+    }
+
+    void register(SseSubscriber<String> subscriber) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many log stream subscribers");
+        }
+        SseEmitter emitter = subscriber.getEmitter();
+        Runnable remove = () -> {
+            subscriber.close();
+            unregister(subscriber);
+        };
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+        subscribers.add(subscriber);
+        log.debug("Novo cliente no stream de logs. Total: {}", subscriberCount.get());
+    }
+
+    @Scheduled(fixedDelayString = "${logs.stream.poll-interval:500}")
+    public void poll() {
+        for (SseSubscriber<String> subscriber : subscribers) {
+            if (subscriber.isClosed()) {
+                unregister(subscriber);
+            }
+        }
+        if (subscribers.isEmpty()) {
+            position = -1;
+            return;
+        }
+        try {
+            long end = logService.end();
+            if (position < 0 || position > end) {
+                // First subscriber, or the oldest archive was pruned under us: start from what is written now.
+                position = end;
+            }
+            List<String> lines = new ArrayList<>();
+            position = logService.scan(position, (bytes, from, to, offset) -> {
+                lines.add(LogService.decode(bytes, from, to));
+                return lines.size() < MAX_LINES_PER_POLL;
+            });
+            for (String line : lines) {
+                subscribers.forEach(subscriber -> subscriber.offer(line));
+            }
+        } catch (IOException e) {
+            log.warn("Falha ao acompanhar arquivo de log: {}", e.getMessage());
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - lastHeartbeat >= HEARTBEAT_INTERVAL_MILLIS) {
+            lastHeartbeat = now;
+            subscribers.forEach(SseSubscriber::heartbeat);
+        }
+    }
+
+    int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> {
+            subscriber.close();
+            subscriber.getEmitter().complete();
+        });
+        subscribers.clear();
+        subscriberCount.set(0);
+        if (senders instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Removes a subscriber once, however many of its completion callbacks fire.
+     */
+    private void unregister(SseSubscriber<String> subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Level and term filter for one subscriber, with terms matched like {@code /api/logs/search} does.
+     * Continuation lines (stack traces) follow the decision made for the entry they belong to.
+     */
+    static Predicate<String> lineFilter(List<String> levels, String term) {
+        List<String> terms = term == null ? List.of() : LogIndex.tokens(term);
+        if (term != null && terms.isEmpty()) {
+            throw new IllegalArgumentException("term must contain a word of at least two letters or digits");
+        }
+        Set<Integer> levelCodes = new HashSet<>();
+        if (levels != null) {
+            for (String level : levels) {
+                int code = LogIndex.levelOf(level.trim());
+                if (code < 0) {
+                    throw new IllegalArgumentException("Unknown log level: " + level);
+                }
+                levelCodes.add(code);
+            }
+        }
+        boolean[] entryMatches = {true};
+        return line -> {
+            LogIndex.ParsedLine parsed = LogIndex.parse(line, 0);
+            if (parsed.time() == null) {
+                return entryMatches[0];
+            }
+            entryMatches[0] = (levelCodes.isEmpty() || levelCodes.contains(parsed.level()))
+                    && LogIndex.matches(terms, parsed);
+            return entryMatches[0];
+        };
+    }
+}
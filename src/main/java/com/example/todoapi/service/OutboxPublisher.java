@@ -0,0 +1,457 @@
+package com.example.todoapi.service;
+
+import com.example.todoapi.config.OutboxProperties;
+import com.example.todoapi.dto.OutboxEventDTO;
+import com.example.todoapi.model.OutboxEvent;
+import com.example.todoapi.model.OutboxOffset;
+import com.example.todoapi.repository.OutboxEventRepository;
+import com.example.todoapi.repository.OutboxOffsetRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes the change events that {@link OutboxService} writes. Every {@code todos.outbox.poll-interval} after a
+ * write has committed, and every {@code todos.outbox.idle-poll-interval} otherwise, it takes
+ * the committed events that have no position yet, in id order, and numbers them with consecutive positions in one
+ * transaction, which also records the last position handed out, so that numbering carries on across restarts and
+ * pruning. The numbered events then go to:
+ * <ul>
+ * <li>{@code /api/events} clients, each receiving its own user's events with the position as SSE id, so that a
+ * reconnecting client resumes with {@code Last-Event-ID}. A client is only offered what its queue has room for and
+ * is caught up from the database once it has fallen behind the batch in hand, so nothing is dropped.</li>
+ * <li>the webhooks in {@code todos.outbox.webhooks}, POSTed JSON arrays in position order. A webhook's offset only
+ * advances, in {@code outbox_offset}, after a 2xx response, so a failed or interrupted delivery is repeated.</li>
+ * </ul>
+ * Delivery is therefore at least once and, since event ids follow the order of the writes, in order for each
+ * todo and category. Positions are handed out by the one scheduling thread of this instance; like the rest of the
+ * derived state of the application, the publisher assumes a single instance.
+ */
+@Slf4j
+@Service
+public class OutboxPublisher {
+    // outbox_offset row of the last position handed out; webhook rows are "webhook:<name>"
+    static final String PUBLISHED = "published";
+
+    private final OutboxEventRepository eventRepository;
+    private final OutboxOffsetRepository offsetRepository;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactions;
+    private final CurrentUser currentUser;
+    private final ObjectMapper objectMapper;
+    private final Executor senders;
+    private final MeterRegistry meterRegistry;
+    private final Counter published;
+
+    // Written by the publishing thread only
+    private volatile long lastPosition;
+    private long nextIdlePoll;
+    private List<Webhook> webhooks = List.of();
+    // Set by OutboxService once a write commits; starts set, for events written before a restart
+    private final AtomicBoolean written = new AtomicBoolean(true);
+    private final Set<StreamClient> clients = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger clientCount = new AtomicInteger();
+
+    public OutboxPublisher(OutboxEventRepository eventRepository, OutboxOffsetRepository offsetRepository,
+                           OutboxProperties properties, PlatformTransactionManager transactionManager,
+                           CurrentUser currentUser, ObjectMapper objectMapper,
+                           @Qualifier("outboxExecutor") Executor senders, MeterRegistry meterRegistry) {
+        this.eventRepository = eventRepository;
+        this.offsetRepository = offsetRepository;
+        this.properties = properties;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.currentUser = currentUser;
+        this.objectMapper = objectMapper;
+        this.senders = senders;
+        this.meterRegistry = meterRegistry;
+        this.published = Counter.builder("todos.outbox.published")
+                .description("Change events numbered and handed to the stream and the webhooks")
+                .register(meterRegistry);
+        Gauge.builder("todos.outbox.subscribers", clientCount, AtomicInteger::get)
+                .description("Open /api/events connections")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Resumes numbering after the last published position. A webhook seen for the first time starts from there
+     * too, with the events written from now on.
+     */
+    @PostConstruct
+    void init() {
+        lastPosition = offsetRepository.findById(PUBLISHED).map(OutboxOffset::getPosition).orElse(0L);
+        webhooks = properties.getWebhooks().entrySet().stream()
+                .map(entry -> new Webhook(entry.getKey(), entry.getValue()))
+                .toList();
+        for (Webhook webhook : webhooks) {
+            webhook.position = offsetRepository.findById(webhook.consumer).map(OutboxOffset::getPosition)
+                    .orElseGet(() -> saveOffset(webhook.consumer, lastPosition));
+        }
+        log.info("Outbox retomado na posição {} com {} webhook(s)", lastPosition, webhooks.size());
+    }
+
+    /**
+     * The signed-in user's events after position {@code after}, or from now on when it is null.
+     */
+    public SseEmitter subscribe(Long after) {
+        long last = lastPosition;
+        // Behind the oldest event kept, or ahead of the stream, as after the database has been reset
+        if (after != null && (after > last || after < oldestAvailable())) {
+            throw new ResponseStatusException(HttpStatus.GONE,
+                    "Cannot resume after event " + after + "; reload and subscribe without a position");
+        }
+        SseSubscriber<OutboxEventDTO> subscriber = subscriber(
+                new SseEmitter(properties.getStream().getTimeout().toMillis()));
+        register(currentUser.tenant(), currentUser.id(), subscriber, after != null ? after : last);
+        return subscriber.getEmitter();
+    }
+
+    /**
+     * Events are named after what changed, e.g. {@code todo.updated}, and carry their position as id.
+     */
+    SseSubscriber<OutboxEventDTO> subscriber(SseEmitter emitter) {
+        return new SseSubscriber<>(emitter,
+                event -> (event.getAggregateType() + '.' + event.getType()).toLowerCase(Locale.ROOT),
+                event -> Long.toString(event.getPosition()), event -> true,
+                properties.getStream().getBufferSize(), senders);
+    }
+
+    void register(String tenant, String owner, SseSubscriber<OutboxEventDTO> subscriber, long position) {
+        if (clientCount.incrementAndGet() > properties.getStream().getMaxSubscribers()) {
+            clientCount.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many event subscribers");
+        }
+        StreamClient client = new StreamClient(tenant, owner, subscriber, position);
+        clients.add(client);
+        Runnable remove = () -> unregister(client);
+        SseEmitter emitter = subscriber.getEmitter();
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+        log.debug("Novo cliente no stream de eventos a partir da posição {}. Total: {}", position,
+                  clientCount.get());
+    }
+
+    /**
+     * Called once a transaction that recorded events has committed, so that the next pass picks them up.
+     */
+    public void recorded() {
+        written.set(true);
+    }
+
+    /**
+     * Numbers what has been committed since the last pass, feeds the stream clients and starts the webhook
+     * deliveries that have something to send. While nothing is written, passes skip the query, so an idle
+     * outbox is read only every {@code todos.outbox.idle-poll-interval}; clients behind are still caught up.
+     */
+    @Scheduled(fixedDelayString = "${todos.outbox.poll-interval:200}")
+    public void publish() {
+        long now = System.nanoTime();
+        if (!written.getAndSet(false) && now - nextIdlePoll < 0) {
+            feed(lastPosition, List.of());
+            webhooks.forEach(this::deliver);
+            return;
+        }
+        nextIdlePoll = now + properties.getIdlePollInterval().toNanos();
+        List<OutboxEventDTO> batch;
+        do {
+            long from = lastPosition;
+            batch = transactions.execute(status -> number(from));
+            if (!batch.isEmpty()) {
+                lastPosition = batch.get(batch.size() - 1).getPosition();
+                published.increment(batch.size());
+            }
+            feed(from, batch);
+        } while (batch.size() == properties.getBatchSize());
+        webhooks.forEach(this::deliver);
+    }
+
+    /**
+     * Sends an SSE comment so that connections that went away are noticed even when no events flow.
+     */
+    @Scheduled(fixedDelayString = "${todos.outbox.stream.heartbeat-interval:15000}")
+    public void heartbeat() {
+        clients.forEach(client -> {
+            if (client.subscriber.isClosed()) {
+                unregister(client);
+            } else {
+                client.subscriber.heartbeat();
+            }
+        });
+    }
+
+    /**
+     * Deletes the events older than {@code todos.outbox.retention} that every webhook has received, always a
+     * prefix of the stream.
+     */
+    @Scheduled(fixedDelayString = "${todos.outbox.prune-interval:3600000}")
+    public void prune() {
+        Long expired = eventRepository.findMaxPositionCreatedBefore(
+                LocalDateTime.now().minus(properties.getRetention()));
+        if (expired == null) {
+            return;
+        }
+        long through = webhooks.stream().mapToLong(webhook -> webhook.position).reduce(expired, Math::min);
+        Integer pruned = transactions.execute(status -> eventRepository.deleteThrough(through));
+        if (pruned != null && pruned > 0) {
+            log.info("Removidos {} eventos do outbox até a posição {}", pruned, through);
+        }
+    }
+
+    long lastPosition() {
+        return lastPosition;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clients.forEach(client -> {
+            client.subscriber.close();
+            client.subscriber.getEmitter().complete();
+        });
+        clients.clear();
+        if (senders instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs in the numbering transaction; with nobody signed in on this thread, it covers every tenant.
+     */
+    private List<OutboxEventDTO> number(long from) {
+        List<OutboxEvent> events = eventRepository.findUnpublished(Limit.of(properties.getBatchSize()));
+        if (events.isEmpty()) {
+            return List.of();
+        }
+        long position = from;
+        for (OutboxEvent event : events) {
+            event.setPosition(++position);
+        }
+        saveOffset(PUBLISHED, position);
+        return events.stream().map(OutboxPublisher::toDTO).toList();
+    }
+
+    /**
+     * Offers each client the events after its position, up to what its queue has room for. Clients that were
+     * caught up get them from {@code batch}, the events just numbered after {@code from}; the others from the
+     * database, through the tenant/owner/position index.
+     */
+    private void feed(long from, List<OutboxEventDTO> batch) {
+        long last = lastPosition;
+        for (StreamClient client : clients) {
+            int room = client.subscriber.remainingCapacity();
+            if (client.position >= last || room == 0 || client.subscriber.isClosed()) {
+                continue;
+            }
+            if (client.position >= from) {
+                boolean complete = true;
+                for (OutboxEventDTO event : batch) {
+                    if (event.getPosition() <= client.position || !client.owns(event)) {
+                        continue;
+                    }
+                    if (room-- == 0) {
+                        complete = false;
+                        break;
+                    }
+                    client.subscriber.offer(event);
+                    client.position = event.getPosition();
+                }
+                if (complete) {
+                    client.position = last;
+                }
+            } else {
+                List<OutboxEvent> missed = eventRepository.findPublishedForUserAfter(client.tenant, client.owner,
+                        client.position, last, Limit.of(room));
+                missed.forEach(event -> client.subscriber.offer(toDTO(event)));
+                client.position = missed.size() < room ? last : missed.get(missed.size() - 1).getPosition();
+            }
+        }
+    }
+
+    /**
+     * Starts a delivery to {@code webhook} on the sender executor unless it is up to date, waiting to retry or
+     * already being delivered to.
+     */
+    private void deliver(Webhook webhook) {
+        if (webhook.position >= lastPosition || System.nanoTime() - webhook.retryAt < 0
+                || !webhook.delivering.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            senders.execute(() -> {
+                try {
+                    drain(webhook);
+                } finally {
+                    webhook.delivering.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Every sender is busy; the next pass tries again
+            webhook.delivering.set(false);
+        }
+    }
+
+    private void drain(Webhook webhook) {
+        long upTo = lastPosition;
+        while (webhook.position < upTo) {
+            List<OutboxEventDTO> events = eventRepository.findPublishedAfter(webhook.position,
+                    Limit.of(properties.getBatchSize())).stream().map(OutboxPublisher::toDTO).toList();
+            if (events.isEmpty()) {
+                return;
+            }
+            try {
+                webhook.client.post()
+                        .uri(webhook.url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(objectMapper.writeValueAsString(events))
+                        .retrieve()
+                        .toBodilessEntity();
+            } catch (RestClientException | JsonProcessingException e) {
+                webhook.failures++;
+                Duration delay = webhook.settings.getRetryDelay()
+                        .multipliedBy(1L << Math.min(webhook.failures - 1, 20));
+                if (delay.compareTo(webhook.settings.getMaxRetryDelay()) > 0) {
+                    delay = webhook.settings.getMaxRetryDelay();
+                }
+                webhook.retryAt = System.nanoTime() + delay.toNanos();
+                webhook.failed.increment(events.size());
+                log.warn("Falha ao entregar {} evento(s) ao webhook {} ({} tentativa(s)); nova tentativa em {} ms: {}",
+                         events.size(), webhook.name, webhook.failures, delay.toMillis(), e.getMessage());
+                return;
+            }
+            long position = events.get(events.size() - 1).getPosition();
+            saveOffset(webhook.consumer, position);
+            webhook.position = position;
+            webhook.failures = 0;
+            webhook.delivered.increment(events.size());
+        }
+    }
+
+    private long saveOffset(String consumer, long position) {
+        OutboxOffset offset = new OutboxOffset();
+        offset.setConsumer(consumer);
+        offset.setPosition(position);
+        offsetRepository.save(offset);
+        return position;
+    }
+
+    /**
+     * Position the stream can still be resumed from: just before the oldest event kept.
+     */
+    private long oldestAvailable() {
+        Long oldest = eventRepository.findMinPosition();
+        return oldest != null ? oldest - 1 : lastPosition;
+    }
+
+    private void unregister(StreamClient client) {
+        client.subscriber.close();
+        if (clients.remove(client)) {
+            clientCount.decrementAndGet();
+        }
+    }
+
+    private static OutboxEventDTO toDTO(OutboxEvent event) {
+        OutboxEventDTO dto = new OutboxEventDTO();
+        dto.setPosition(event.getPosition());
+        dto.setTenant(event.getTenant());
+        dto.setOwner(event.getOwner());
+        dto.setAggregateType(event.getAggregateType());
+        dto.setAggregateId(event.getAggregateId());
+        dto.setType(event.getType());
+        dto.setPayload(event.getPayload());
+        dto.setCreatedAt(event.getCreatedAt());
+        return dto;
+    }
+
+    /**
+     * {@code position} is the last event offered to the client, read and written by the publishing thread only.
+     */
+    private static final class StreamClient {
+        final String tenant;
+        final String owner;
+        final SseSubscriber<OutboxEventDTO> subscriber;
+        long position;
+
+        StreamClient(String tenant, String owner, SseSubscriber<OutboxEventDTO> subscriber, long position) {
+            this.tenant = tenant;
+            this.owner = owner;
+            this.subscriber = subscriber;
+            this.position = position;
+        }
+
+        boolean owns(OutboxEventDTO event) {
+            return tenant.equals(event.getTenant()) && owner.equals(event.getOwner());
+        }
+    }
+
+    /**
+     * {@code failures} is only touched by the delivery in flight, of which there is at most one.
+     */
+    private final class Webhook {
+        final String name;
+        final String consumer;
+        final OutboxProperties.Webhook settings;
+        final URI url;
+        final RestClient client;
+        final Counter delivered;
+        final Counter failed;
+        final AtomicBoolean delivering = new AtomicBoolean();
+        volatile long position;
+        volatile long retryAt = System.nanoTime();
+        int failures;
+
+        Webhook(String name, OutboxProperties.Webhook settings) {
+            this.name = name;
+            this.consumer = "webhook:" + name;
+            this.settings = settings;
+            SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+            requestFactory.setConnectTimeout(settings.getConnectTimeout());
+            requestFactory.setReadTimeout(settings.getReadTimeout());
+            this.url = URI.create(settings.getUrl());
+            this.client = RestClient.builder().requestFactory(requestFactory).build();
+            this.delivered = deliveries(name, "success");
+            this.failed = deliveries(name, "failure");
+            Gauge.builder("todos.outbox.webhook.lag", this, webhook -> lastPosition - webhook.position)
+                    .description("Published events a webhook has not yet received")
+                    .tag("webhook", name)
+                    .register(meterRegistry);
+        }
+
+        private Counter deliveries(String webhook, String outcome) {
+            return Counter.builder("todos.outbox.webhook.deliveries")
+                    .description("Events POSTed to a webhook, by outcome")
+                    .tag("webhook", webhook)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+}
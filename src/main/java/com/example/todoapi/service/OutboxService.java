@@ -0,0 +1,77 @@
+package com.example.todoapi.service;
+
+import com.example.todoapi.model.OutboxEvent;
+import com.example.todoapi.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Write side of the change-event stream: {@link TodoService} and {@link CategoryService} add the events of every
+ * write to the outbox table in the transaction making it, so events commit and roll back together with the data
+ * and none is lost to a crash in between. {@link OutboxPublisher} publishes them from there.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+    public static final String TODO = "TODO";
+    public static final String CATEGORY = "CATEGORY";
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    // A todo moved to another category by a set-based statement; the payload only carries the new categoryId
+    public static final String MOVED = "MOVED";
+    public static final String DELETED = "DELETED";
+
+    private final OutboxEventRepository eventRepository;
+    private final CurrentUser currentUser;
+    private final ObjectMapper objectMapper;
+    private final OutboxPublisher publisher;
+
+    /**
+     * Records one event with {@code state}, serialized as JSON, as its payload; {@code null} for none.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String aggregateType, String type, Long aggregateId, Object state) {
+        recordAll(aggregateType, type, List.of(aggregateId), state);
+    }
+
+    /**
+     * Records the same event for each of {@code aggregateIds}, in id order; for todos deleted or moved together.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(String aggregateType, String type, Collection<Long> aggregateIds, Object state) {
+        String owner = currentUser.id();
+        String payload = toJson(state);
+        LocalDateTime now = LocalDateTime.now();
+        eventRepository.saveAll(aggregateIds.stream().sorted().map(id -> {
+            OutboxEvent event = new OutboxEvent();
+            event.setOwner(owner);
+            event.setAggregateType(aggregateType);
+            event.setAggregateId(id);
+            event.setType(type);
+            event.setPayload(payload);
+            event.setCreatedAt(now);
+            return event;
+        }).toList());
+        AfterCommit.run(publisher::recorded);
+    }
+
+    private String toJson(Object state) {
+        if (state == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(state);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
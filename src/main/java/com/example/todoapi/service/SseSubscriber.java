@@ -0,0 +1,152 @@
+package com.example.todoapi.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * One Server-Sent Events client behind a bounded queue. Producers call {@link #offer} and never block: when the
+ * queue is full the item is dropped and counted, and the client receives a {@code dropped} event with the count
+ * before its next regular event. Sending happens on {@code executor}, with at most one drain in flight per client,
+ * so a slow connection only ever ties up its own queue. Should the executor reject a drain, every sender being
+ * stuck on other clients, this client is dropped: its stream ends with an error and it may reconnect.
+ */
+@Slf4j
+public class SseSubscriber<T> {
+    private final SseEmitter emitter;
+    private final Function<T, String> eventName;
+    private final Function<T, String> eventId;
+    private final Predicate<T> filter;
+    private final BlockingQueue<T> queue;
+    private final Executor executor;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+    private volatile boolean closed;
+
+    public SseSubscriber(SseEmitter emitter, String eventName, Predicate<T> filter, int capacity, Executor executor) {
+        this(emitter, item -> eventName, filter, capacity, executor);
+    }
+
+    /**
+     * For streams that carry several kinds of event, named per item by {@code eventName}.
+     */
+    public SseSubscriber(SseEmitter emitter, Function<T, String> eventName, Predicate<T> filter, int capacity,
+                         Executor executor) {
+        this(emitter, eventName, item -> null, filter, capacity, executor);
+    }
+
+    /**
+     * For resumable streams: {@code eventId} gives each item the id a reconnecting client sends back as
+     * {@code Last-Event-ID}.
+     */
+    public SseSubscriber(SseEmitter emitter, Function<T, String> eventName, Function<T, String> eventId,
+                         Predicate<T> filter, int capacity, Executor executor) {
+        this.emitter = emitter;
+        this.eventName = eventName;
+        this.eventId = eventId;
+        this.filter = filter;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.executor = executor;
+    }
+
+    public SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Queues {@code item} if it passes this client's filter. Filters may keep state, so callers must offer items
+     * from a single thread and in order.
+     */
+    public void offer(T item) {
+        if (closed || !filter.test(item)) {
+            return;
+        }
+        if (!queue.offer(item)) {
+            dropped.incrementAndGet();
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * Sends an SSE comment so that connections that went away are noticed even when no events flow.
+     */
+    public void heartbeat() {
+        heartbeatDue.set(true);
+        scheduleDrain();
+    }
+
+    public void close() {
+        closed = true;
+        queue.clear();
+    }
+
+    /**
+     * Items that can still be offered without being dropped, for producers that would rather hold items back.
+     */
+    int remainingCapacity() {
+        return queue.remainingCapacity();
+    }
+
+    long getDropped() {
+        return dropped.get();
+    }
+
+    private void scheduleDrain() {
+        if (!closed && draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                log.warn("Cliente SSE descartado: nenhum thread de envio disponível");
+                draining.set(false);
+                close();
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            if (heartbeatDue.getAndSet(false)) {
+                emitter.send(SseEmitter.event().comment("keepalive"));
+            }
+            T item;
+            do {
+                long lost = dropped.getAndSet(0);
+                if (lost > 0) {
+                    emitter.send(SseEmitter.event().name("dropped").data(Map.of("count", lost)));
+                }
+                item = queue.poll();
+                if (item != null) {
+                    SseEmitter.SseEventBuilder event = SseEmitter.event().name(eventName.apply(item)).data(item);
+                    String id = eventId.apply(item);
+                    emitter.send(id != null ? event.id(id) : event);
+                }
+            } while (item != null && !closed);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Cliente SSE desconectado: {}", e.getMessage());
+            close();
+            emitter.completeWithError(e);
+        } finally {
+            draining.set(false);
+        }
+        // An offer may have landed between the last poll and releasing the flag.
+        if (!closed && (!queue.isEmpty() || dropped.get() > 0 || heartbeatDue.get())) {
+            scheduleDrain();
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.todoapi.service;
+
+import com.example.todoapi.config.TenantIdentifierResolver;
+import com.example.todoapi.config.TenantPartitions;
+import com.example.todoapi.dto.TodoChangeDTO;
+import com.example.todoapi.dto.TodoChangesDTO;
+import com.example.todoapi.dto.TodoDTO;
+import com.example.todoapi.model.Todo;
+import com.example.todoapi.model.TodoTombstone;
+import com.example.todoapi.repository.TodoRepository;
+import com.example.todoapi.repository.TodoTombstoneRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The todo change feed behind {@code /api/todos/changes}, each user reading the changes to their own todos from
+ * the owner/change_seq indexes. Every write stamps its rows with the next value of a
+ * change sequence ({@code Todo.changeSeq}, or a {@link TodoTombstone} for deletions), and a client asks for
+ * everything after the position in its token, read in sequence order.
+ * <p>
+ * Sequence values are handed out before their transaction commits, so a later value can become visible
+ * first. Reads therefore stop below the oldest value whose transaction is still open; once a client has passed
+ * a position, nothing can appear behind it. The counter lives in this instance, seeded from the database on
+ * startup, like the other derived state of the application.
+ */
+@Slf4j
+@Service
+public class TodoChangeService {
+    private static final int MAX_LIMIT = 1000;
+    private static final Sort FEED_ORDER = Sort.by("changeSeq").and(Sort.by("id"));
+
+    private final TodoRepository todoRepository;
+    private final TodoTombstoneRepository tombstoneRepository;
+    private final CurrentUser currentUser;
+    private final TenantPartitions tenantPartitions;
+    private final TransactionTemplate transactions;
+    private final Duration tombstoneRetention;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Guarded by lock
+    private long lastSequence;
+    private final NavigableSet<Long> inFlight = new TreeSet<>();
+
+    public TodoChangeService(TodoRepository todoRepository, TodoTombstoneRepository tombstoneRepository,
+                             CurrentUser currentUser, TenantPartitions tenantPartitions,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${todos.changes.tombstone-retention:30d}") Duration tombstoneRetention) {
+        this.todoRepository = todoRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.currentUser = currentUser;
+        this.tenantPartitions = tenantPartitions;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    @PostConstruct
+    void init() {
+        // One counter for every tenant, so it starts past the highest value of any
+        long last = tenantPartitions.collect(() -> List.of(todoRepository.findMaxChangeSeq(),
+                        tombstoneRepository.findMaxChangeSeq())).stream()
+                .mapToLong(Long::longValue)
+                .max()
+                .orElse(0);
+        lock.lock();
+        try {
+            lastSequence = last;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stamps {@code todos} as changed by the current transaction. Rows written together share one sequence
+     * value; the feed orders them by id within it.
+     */
+    public void recordChanged(Collection<Todo> todos) {
+        long changeSeq = nextSequence();
+        LocalDateTime now = LocalDateTime.now();
+        for (Todo todo : todos) {
+            todo.setChangeSeq(changeSeq);
+            todo.setUpdatedAt(now);
+        }
+    }
+
+    /**
+     * Sequence value for a set-based update that stamps the rows itself.
+     */
+    public long recordBulkChange() {
+        return nextSequence();
+    }
+
+    /**
+     * Writes tombstones for those of {@code ids} that exist. Must run before they are deleted.
+     */
+    public void recordDeleted(Collection<Long> ids) {
+        tombstoneRepository.insertForTodos(ids, nextSequence(), LocalDateTime.now());
+    }
+
+    /**
+     * Writes tombstones for every todo of the category, ahead of the cascade that deletes them with it.
+     */
+    public void recordCategoryDeleted(Long categoryId) {
+        tombstoneRepository.insertForCategory(categoryId, nextSequence(), LocalDateTime.now());
+    }
+
+    @Transactional(readOnly = true)
+    public TodoChangesDTO changes(String since, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        long now = System.currentTimeMillis();
+        ChangeToken from = since == null ? new ChangeToken(0, 0, now) : ChangeToken.decode(since);
+        if (from.getSyncedAt() < now - tombstoneRetention.toMillis()) {
+            // Deletions the client has not seen may already be pruned; only a full reload is safe
+            throw new ResponseStatusException(HttpStatus.GONE, "Sync token has expired; reload the todo list");
+        }
+        String owner = currentUser.id();
+        long upTo = stableSequence();
+
+        List<TodoDTO> upserts = todoRepository.findDTOs(after(owner, from, upTo), FEED_ORDER, limit + 1);
+        List<TodoTombstone> deletions = tombstoneRepository.findChangesAfter(
+                owner, from.getChangeSeq(), from.getId(), upTo, Limit.of(limit + 1));
+
+        // Merge the two ordered lists on (changeSeq, id)
+        List<TodoChangeDTO> changes = new ArrayList<>();
+        long lastSeq = from.getChangeSeq();
+        long lastId = from.getId();
+        int u = 0;
+        int d = 0;
+        while (changes.size() < limit && (u < upserts.size() || d < deletions.size())) {
+            boolean takeUpsert = d == deletions.size() || (u < upserts.size()
+                    && compare(upserts.get(u).getChangeSeq(), upserts.get(u).getId(),
+                               deletions.get(d).getChangeSeq(), deletions.get(d).getTodoId()) < 0);
+            if (takeUpsert) {
+                TodoDTO todo = upserts.get(u++);
+                changes.add(change("UPSERT", todo.getId(), todo));
+                lastSeq = todo.getChangeSeq();
+                lastId = todo.getId();
+            } else {
+                TodoTombstone tombstone = deletions.get(d++);
+                changes.add(change("DELETE", tombstone.getTodoId(), null));
+                lastSeq = tombstone.getChangeSeq();
+                lastId = tombstone.getTodoId();
+            }
+        }
+        boolean hasMore = u < upserts.size() || d < deletions.size();
+
+        TodoChangesDTO result = new TodoChangesDTO();
+        result.setChanges(changes);
+        result.setHasMore(hasMore);
+        // A client that has caught up is in sync as of this read; part-way through it still dates from its start.
+        // The position is always a delivered change, never upTo, which may belong to a rolled-back write whose
+        // sequence value a restart would hand out again.
+        result.setNext(new ChangeToken(lastSeq, lastId, hasMore ? from.getSyncedAt() : now).encode());
+        log.debug("Sincronização: {} alteração(ões), hasMore: {}", changes.size(), hasMore);
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${todos.changes.prune-interval:3600000}")
+    public void pruneTombstones() {
+        LocalDateTime before = LocalDateTime.now().minus(tombstoneRetention);
+        int pruned = 0;
+        for (String partition : tenantPartitions.all()) {
+            // The transaction opens inside the scope, so that its session is bound to the partition
+            try (TenantIdentifierResolver.Scope ignored = TenantIdentifierResolver.scope(partition)) {
+                pruned += transactions.execute(status -> tombstoneRepository.deleteOlderThan(before));
+            }
+        }
+        if (pruned > 0) {
+            log.info("Removidos {} registros de exclusão expirados", pruned);
+        }
+    }
+
+    /**
+     * Next sequence value for a write in the current transaction; it stays in flight, holding back readers, until
+     * that transaction completes either way.
+     */
+    private long nextSequence() {
+        long changeSeq;
+        lock.lock();
+        try {
+            changeSeq = ++lastSequence;
+            inFlight.add(changeSeq);
+        } finally {
+            lock.unlock();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    release(changeSeq);
+                }
+            });
+        } else {
+            release(changeSeq);
+        }
+        return changeSeq;
+    }
+
+    private void release(long changeSeq) {
+        lock.lock();
+        try {
+            inFlight.remove(changeSeq);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Highest sequence value below which every write has committed or rolled back.
+     */
+    long stableSequence() {
+        lock.lock();
+        try {
+            return inFlight.isEmpty() ? lastSequence : inFlight.first() - 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Specification<Todo> after(String owner, ChangeToken from, long upTo) {
+        return (root, query, cb) -> cb.and(
+                cb.equal(root.get("owner"), owner),
+                cb.or(cb.greaterThan(root.get("changeSeq"), from.getChangeSeq()),
+                      cb.and(cb.equal(root.get("changeSeq"), from.getChangeSeq()),
+                             cb.greaterThan(root.get("id"), from.getId()))),
+                cb.lessThanOrEqualTo(root.get("changeSeq"), upTo));
+    }
+
+    private static int compare(long seq, long id, long otherSeq, long otherId) {
+        int bySeq = Long.compare(seq, otherSeq);
+        return bySeq != 0 ? bySeq : Long.compare(id, otherId);
+    }
+
+    private static TodoChangeDTO change(String type, Long id, TodoDTO todo) {
+        TodoChangeDTO change = new TodoChangeDTO();
+        change.setType(type);
+        change.setId(id);
+        change.setTodo(todo);
+        return change;
+    }
+}
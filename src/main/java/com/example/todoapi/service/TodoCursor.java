@@ -0,0 +1,87 @@
+package com.example.todoapi.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Keyset position in a todo listing: the sort column value and id of the last row handed out.
+ * Encoded as an opaque, URL-safe token so clients cannot depend on its layout.
+ */
+final class TodoCursor {
+    private static final char SEPARATOR = '\n';
+    private static final String NULL_VALUE = "";
+    private static final String VALUE_PREFIX = "v";
+
+    private final String sortBy;
+    private final String sortDirection;
+    private final Object value;
+    private final long id;
+
+    TodoCursor(String sortBy, String sortDirection, Object value, long id) {
+        this.sortBy = sortBy;
+        this.sortDirection = sortDirection;
+        this.value = value;
+        this.id = id;
+    }
+
+    Object getValue() {
+        return value;
+    }
+
+    long getId() {
+        return id;
+    }
+
+    String encode() {
+        String raw = sortBy + SEPARATOR + sortDirection + SEPARATOR
+                + (value == null ? NULL_VALUE : VALUE_PREFIX + value) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}, converting the stored value back to {@code valueType}.
+     * Tokens issued for a different sort are rejected, since their position means nothing in this ordering.
+     */
+    static TodoCursor decode(String token, String sortBy, String sortDirection, Class<?> valueType) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(String.valueOf(SEPARATOR), -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!parts[0].equals(sortBy) || !parts[1].equalsIgnoreCase(sortDirection)) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+        try {
+            Object value = parts[2].isEmpty() ? null : parseValue(parts[2].substring(VALUE_PREFIX.length()), valueType);
+            return new TodoCursor(sortBy, sortDirection, value, Long.parseLong(parts[3]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    static boolean supports(Class<?> valueType) {
+        return valueType == String.class || valueType == LocalDateTime.class || valueType == Long.class
+                || valueType == Boolean.class || valueType == boolean.class;
+    }
+
+    private static Object parseValue(String raw, Class<?> valueType) {
+        if (valueType == String.class) {
+            return raw;
+        }
+        if (valueType == LocalDateTime.class) {
+            return LocalDateTime.parse(raw);
+        }
+        if (valueType == Long.class) {
+            return Long.valueOf(raw);
+        }
+        if (valueType == Boolean.class || valueType == boolean.class) {
+            return Boolean.valueOf(raw);
+        }
+        throw new IllegalArgumentException("Unsupported cursor value type: " + valueType.getSimpleName());
+    }
+}
@@ -0,0 +1,377 @@
+package com.example.todoapi.service;
+
+import com.example.todoapi.config.TenantIdentifierResolver;
+import com.example.todoapi.config.TenantPartitions;
+import com.example.todoapi.dto.TodoDTO;
+import com.example.todoapi.dto.TodoSearchResultDTO;
+import com.example.todoapi.model.Todo;
+import com.example.todoapi.repository.TodoRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.DelegatingAnalyzerWrapper;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Full-text search over todo titles and descriptions, backed by an in-memory Lucene index holding every user's
+ * todos, each search filtered to the signed-in user's. The index is rebuilt
+ * from the database at startup and then follows every committed write reported by {@link TodoService}; it only
+ * resolves ranked ids, and the matching rows are read back from the database so responses never show stale fields.
+ * The server takes requests before the rebuild is done: searches are answered with 503 until then, and writes
+ * reported meanwhile are held back and applied after it, so that rows it read earlier cannot overwrite them.
+ *
+ * <p>Searches never reopen the index: each write waits for a background thread to reopen it before returning,
+ * so a todo is findable as soon as the request that saved it has been answered. Title and description are
+ * indexed as one field, the title twice, so that each query term is a single posting list; with per-field
+ * clauses Lucene can only bound a term's score loosely and scores every match when many of them tie, which for
+ * a million matching todos takes several times longer.
+ */
+@Slf4j
+@Service
+public class TodoSearchService {
+    static final int MAX_LIMIT = 100;
+    static final int MAX_WINDOW = 10_000;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    // Keeps phrases from matching across the end of one title or description and the start of the next
+    private static final int VALUE_GAP = 100;
+
+    private final TodoRepository todoRepository;
+    private final CurrentUser currentUser;
+    private final TenantPartitions tenantPartitions;
+    private final Analyzer analyzer = new DelegatingAnalyzerWrapper(Analyzer.PER_FIELD_REUSE_STRATEGY) {
+        private final Analyzer standard = new StandardAnalyzer();
+
+        @Override
+        protected Analyzer getWrappedAnalyzer(String fieldName) {
+            return standard;
+        }
+
+        @Override
+        public int getPositionIncrementGap(String fieldName) {
+            return VALUE_GAP;
+        }
+    };
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Writes reported before the startup rebuild finished; null once it has
+    private List<Runnable> beforeLoad = new ArrayList<>();
+    private volatile boolean ready;
+
+    public TodoSearchService(TodoRepository todoRepository, CurrentUser currentUser,
+                             TenantPartitions tenantPartitions) {
+        this.todoRepository = todoRepository;
+        this.currentUser = currentUser;
+        this.tenantPartitions = tenantPartitions;
+        try {
+            this.writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+            this.searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // Reopens right away for a waiting write, and at least once a second otherwise
+        this.reopenThread = new ControlledRealTimeReopenThread<>(writer, searcherManager, 1.0, 0.0);
+        reopenThread.setName("todo-search-reopen");
+        reopenThread.setDaemon(true);
+        reopenThread.start();
+    }
+
+    public void index(TodoDTO todo) {
+        AfterCommit.run(() -> update("indexar todo " + todo.getId(),
+                () -> writer.updateDocument(idTerm(todo.getId()), toDocument(todo))));
+    }
+
+    public void remove(Long id) {
+        AfterCommit.run(() -> update("remover todo " + id,
+                () -> writer.deleteDocuments(idTerm(id))));
+    }
+
+    public void removeAll(Collection<Long> ids) {
+        Term[] terms = ids.stream().map(TodoSearchService::idTerm).toArray(Term[]::new);
+        AfterCommit.run(() -> update("remover " + terms.length + " todos", () -> writer.deleteDocuments(terms)));
+    }
+
+    /**
+     * For deletion of a category of the signed-in user's, whose todos are removed in bulk without passing through
+     * {@link TodoService}. Category ids only identify a category within its tenant.
+     */
+    public void removeCategory(Long categoryId) {
+        Query owned = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term("categoryId", categoryId.toString())), BooleanClause.Occur.FILTER)
+                .add(new TermQuery(new Term("user", currentUser.userKey())), BooleanClause.Occur.FILTER)
+                .build();
+        AfterCommit.run(() -> update("remover todos da categoria " + categoryId, () -> writer.deleteDocuments(owned)));
+    }
+
+    /**
+     * For todos moved to another category by a bulk update; re-reads just those todos, by id, once the move
+     * commits, so the cost follows the number moved rather than the size of the target category.
+     */
+    public void reindexAll(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Long> moved = List.copyOf(ids);
+        AfterCommit.run(() -> update("reindexar " + moved.size() + " todos", () -> {
+            for (int from = 0; from < moved.size(); from += REBUILD_BATCH_SIZE) {
+                List<Long> batch = moved.subList(from, Math.min(moved.size(), from + REBUILD_BATCH_SIZE));
+                indexAll((root, query, cb) -> root.get("id").in(batch));
+            }
+        }));
+    }
+
+    /**
+     * Reads every tenant's todos into a fresh index, then applies the writes reported while it ran and opens
+     * searches. Runs with nobody signed in, once per tenant with the schema layout.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        write("recriar índice", () -> {
+            writer.deleteAll();
+            long count = 0;
+            for (String partition : tenantPartitions.all()) {
+                try (TenantIdentifierResolver.Scope ignored = TenantIdentifierResolver.scope(partition)) {
+                    count += indexAll((root, query, cb) -> cb.conjunction());
+                }
+            }
+            List<Runnable> held;
+            lock.lock();
+            try {
+                held = beforeLoad == null ? List.of() : beforeLoad;
+                held.forEach(Runnable::run);
+                beforeLoad = null;
+                searcherManager.maybeRefreshBlocking();
+                ready = true;
+            } finally {
+                lock.unlock();
+            }
+            log.info("Índice de busca de todos recriado: {} todos, {} gravação(ões) aplicada(s) em seguida",
+                     count, held.size());
+        });
+    }
+
+    private long indexAll(Specification<Todo> spec) throws IOException {
+        long count = 0;
+        long lastId = Long.MIN_VALUE;
+        List<TodoDTO> batch;
+        do {
+            long after = lastId;
+            Specification<Todo> page = spec.and((root, query, cb) -> cb.greaterThan(root.get("id"), after));
+            batch = todoRepository.findDTOs(page, Sort.by("id"), REBUILD_BATCH_SIZE);
+            for (TodoDTO todo : batch) {
+                writer.updateDocument(idTerm(todo.getId()), toDocument(todo));
+                lastId = todo.getId();
+            }
+            count += batch.size();
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        return count;
+    }
+
+    /**
+     * Ranked matches for {@code q}, which accepts the simple query syntax: terms are ANDed, {@code |} ORs them,
+     * {@code -} excludes, {@code "..."} matches a phrase and a trailing {@code *} a prefix. The optional filters
+     * narrow the matches without affecting their scores.
+     */
+    public TodoSearchResultDTO search(String q, Boolean completed, String priority, Long categoryId,
+                                      int offset, int limit) {
+        if (log.isDebugEnabled()) {
+            log.debug("Buscando todos por texto - q: {}, completed: {}, priority: {}, categoryId: {}, offset: {}, "
+                      + "limit: {}", q, completed, priority, categoryId, offset, limit);
+        }
+        if (q == null || q.isBlank()) {
+            throw new IllegalArgumentException("q is required");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (offset < 0 || offset + limit > MAX_WINDOW) {
+            throw new IllegalArgumentException("offset + limit must be between 1 and " + MAX_WINDOW);
+        }
+        if (!ready) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "The search index is still being built, please retry");
+        }
+
+        String owner = currentUser.id();
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, "text");
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(parser.parse(q), BooleanClause.Occur.MUST)
+                .add(new TermQuery(new Term("user", currentUser.userKey())), BooleanClause.Occur.FILTER);
+        if (completed != null) {
+            query.add(new TermQuery(new Term("completed", completed.toString())), BooleanClause.Occur.FILTER);
+        }
+        if (priority != null) {
+            query.add(new TermQuery(new Term("priority", priority)), BooleanClause.Occur.FILTER);
+        }
+        if (categoryId != null) {
+            query.add(new TermQuery(new Term("categoryId", categoryId.toString())), BooleanClause.Occur.FILTER);
+        }
+
+        List<Long> ids = new ArrayList<>();
+        TopDocs top;
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                top = searcher.search(query.build(), offset + limit);
+                List<LeafReaderContext> leaves = searcher.getIndexReader().leaves();
+                ScoreDoc[] hits = top.scoreDocs;
+                for (int i = offset; i < hits.length; i++) {
+                    LeafReaderContext leaf = leaves.get(ReaderUtil.subIndex(hits[i].doc, leaves));
+                    NumericDocValues values = leaf.reader().getNumericDocValues("id");
+                    values.advanceExact(hits[i].doc - leaf.docBase);
+                    ids.add(values.longValue());
+                }
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        TodoSearchResultDTO result = new TodoSearchResultDTO();
+        result.setItems(load(owner, ids));
+        result.setTotal(top.totalHits.value);
+        // Past 1000 matches Lucene stops counting once the rest cannot make the page, so the total is a lower bound
+        boolean hasMore = top.scoreDocs.length == offset + limit && (top.totalHits.value > offset + limit
+                || top.totalHits.relation == TotalHits.Relation.GREATER_THAN_OR_EQUAL_TO);
+        result.setNextOffset(hasMore && offset + 2 * limit <= MAX_WINDOW ? offset + limit : null);
+        log.debug("Encontrados {} todos para a busca", result.getTotal());
+        return result;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        reopenThread.close();
+        searcherManager.close();
+        writer.close();
+    }
+
+    private List<TodoDTO> load(String owner, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, TodoDTO> rows = new HashMap<>();
+        Specification<Todo> owned = (root, query, cb) ->
+                cb.and(cb.equal(root.get("owner"), owner), root.get("id").in(ids));
+        todoRepository.findDTOs(owned, Sort.unsorted())
+                .forEach(todo -> rows.put(todo.getId(), todo));
+        List<TodoDTO> items = new ArrayList<>();
+        for (Long id : ids) {
+            // A todo deleted since the search ran simply drops out of the page
+            TodoDTO todo = rows.get(id);
+            if (todo != null) {
+                items.add(todo);
+            }
+        }
+        return items;
+    }
+
+    private static Term idTerm(Long id) {
+        return new Term("id", id.toString());
+    }
+
+    private static Document toDocument(TodoDTO todo) {
+        Document document = new Document();
+        document.add(new StringField("id", todo.getId().toString(), Field.Store.NO));
+        // Read back for each hit; cheaper than loading a stored document
+        document.add(new NumericDocValuesField("id", todo.getId()));
+        // Names are only unique within a tenant, and the rebuild at startup indexes every tenant's todos
+        document.add(new StringField("user", CurrentUser.userKey(todo.getTenant(), todo.getOwner()), Field.Store.NO));
+        // Twice, so that a match in the title counts as two occurrences and outranks one only in the description
+        document.add(new TextField("text", todo.getTitle(), Field.Store.NO));
+        document.add(new TextField("text", todo.getTitle(), Field.Store.NO));
+        if (todo.getDescription() != null) {
+            document.add(new TextField("text", todo.getDescription(), Field.Store.NO));
+        }
+        document.add(new StringField("completed", Boolean.toString(todo.isCompleted()), Field.Store.NO));
+        if (todo.getPriority() != null) {
+            document.add(new StringField("priority", todo.getPriority(), Field.Store.NO));
+        }
+        if (todo.getCategoryId() != null) {
+            document.add(new StringField("categoryId", todo.getCategoryId().toString(), Field.Store.NO));
+        }
+        return document;
+    }
+
+    private interface IndexWrite {
+        void run() throws IOException;
+    }
+
+    /**
+     * Applies a committed write to the index and waits until searches see it, or holds it back until the startup
+     * rebuild has finished, which reopens the index itself.
+     */
+    private void update(String description, IndexWrite write) {
+        lock.lock();
+        try {
+            if (beforeLoad != null) {
+                beforeLoad.add(() -> write(description, write));
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (write(description, write)) {
+            try {
+                reopenThread.waitForGeneration(writer.getMaxCompletedSequenceNumber());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Index writes run after the database commit, so a failure cannot roll anything back; it is logged and the
+     * next rebuild repairs the index.
+     */
+    private boolean write(String description, IndexWrite write) {
+        try {
+            write.run();
+            return true;
+        } catch (IOException e) {
+            log.error("Falha ao {} no índice de busca", description, e);
+            return false;
+        }
+    }
+}
@@ -1,63 +1,167 @@
 package com.example.todoapi.service;
 
+import com.example.todoapi.dto.BatchItemResultDTO;
+import com.example.todoapi.dto.BatchResultDTO;
 import com.example.todoapi.dto.TodoDTO;
+import com.example.todoapi.dto.TodoPageDTO;
 import com.example.todoapi.model.Category;
 import com.example.todoapi.model.Todo;
 import com.example.todoapi.repository.CategoryRepository;
 import com.example.todoapi.repository.TodoRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.beans.PropertyDescriptor;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+/**
+ * The signed-in user's todos. Every listing is filtered by owner, through the indexes that lead with it, and a
+ * todo of someone else's is reported as not found rather than forbidden, so ids reveal nothing.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Timed("todos.service")
 public class TodoService {
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_BATCH_SIZE = 500;
+    private static final int MAX_BATCH_SIZE = 1000;
+    // Sorts backed by the todo indexes; anything else would scan and sort the whole table
+    private static final Set<String> SORTABLE_FIELDS = Set.of("createdAt", "dueDate", "id");
+
     private final TodoRepository todoRepository;
     private final CategoryRepository categoryRepository;
+    private final CategoryService categoryService;
+    private final TodoStatsService todoStatsService;
+    private final TodoSearchService todoSearchService;
+    private final CollectionVersionService collectionVersionService;
+    private final TodoChangeService todoChangeService;
+    private final DueDateScheduler dueDateScheduler;
+    private final OutboxService outboxService;
+    private final Validator validator;
+    private final MeterRegistry meterRegistry;
+    private final CurrentUser currentUser;
+
+    /**
+     * Current version of the signed-in user's todos; changes after each of their committed writes.
+     */
+    public CollectionVersionService.CollectionVersion collectionVersion() {
+        return collectionVersionService.todos();
+    }
 
     @Transactional(readOnly = true)
     public List<TodoDTO> findAll(Boolean completed, String priority, String sortBy, String sortDirection) {
-        log.info("Buscando todos com filtros - completed: {}, priority: {}, sortBy: {}, sortDirection: {}", 
-                 completed, priority, sortBy, sortDirection);
+        if (log.isDebugEnabled()) {
+            log.debug("Buscando todos com filtros - completed: {}, priority: {}, sortBy: {}, sortDirection: {}",
+                      completed, priority, sortBy, sortDirection);
+        }
         
-        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
+        Sort sort = listingSort(sortBy, Sort.Direction.fromString(sortDirection));
         
-        Specification<Todo> spec = (root, query, cb) -> {
-            List<Predicate> predicates = new ArrayList<>();
-            
-            if (completed != null) {
-                predicates.add(cb.equal(root.get("completed"), completed));
-            }
-            
-            if (priority != null) {
-                predicates.add(cb.equal(root.get("priority"), priority));
-            }
-            
-            return cb.and(predicates.toArray(new Predicate[0]));
-        };
+        Specification<Todo> spec = filterSpec(currentUser.id(), completed, priority, null);
         
-        List<TodoDTO> todos = todoRepository.findAll(spec, sort).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        List<TodoDTO> todos = todoRepository.findDTOs(spec, sort);
                 
-        log.info("Encontrados {} todos", todos.size());
+        log.debug("Encontrados {} todos", todos.size());
+        recordResults("findAll", todos.size());
         return todos;
     }
 
+    @Transactional(readOnly = true)
+    public TodoPageDTO findPage(Boolean completed, String priority, String sortBy, String sortDirection,
+                                String next, int limit) {
+        if (log.isDebugEnabled()) {
+            log.debug("Buscando página de todos - completed: {}, priority: {}, sortBy: {}, sortDirection: {}, "
+                      + "limit: {}", completed, priority, sortBy, sortDirection, limit);
+        }
+        TodoPageDTO page = fetchPage(completed, priority, null, sortBy, sortDirection, next, limit, true);
+        log.debug("Encontrados {} todos na página", page.getItems().size());
+        recordResults("findPage", page.getItems().size());
+        return page;
+    }
+
+    /**
+     * A page of one category's todos, read through the category indexes and projected straight to DTOs.
+     */
+    @Transactional(readOnly = true)
+    public TodoPageDTO findCategoryPage(Long categoryId, Boolean completed, String priority, String sortBy,
+                                        String sortDirection, String next, int limit) {
+        if (log.isDebugEnabled()) {
+            log.debug("Buscando página de todos da categoria {} - completed: {}, priority: {}, sortBy: {}, limit: {}",
+                      categoryId, completed, priority, sortBy, limit);
+        }
+        if (!categoryService.exists(categoryId)) {
+            throw new EntityNotFoundException("Category not found with id: " + categoryId);
+        }
+        TodoPageDTO page = fetchPage(completed, priority, categoryId, sortBy, sortDirection, next, limit, true);
+        log.debug("Encontrados {} todos na página", page.getItems().size());
+        recordResults("findCategoryPage", page.getItems().size());
+        return page;
+    }
+
+    /**
+     * Checks a listing order for {@link #streamAll}, so that a bad value is rejected before the response starts.
+     */
+    public Sort streamSort(String sortBy, String sortDirection) {
+        Sort sort = listingSort(sortBy, Sort.Direction.fromString(sortDirection));
+        keysetType(sortBy);
+        return sort;
+    }
+
+    /**
+     * Walks the whole filtered listing in keyset batches, handing each row to {@code consumer} as soon as its
+     * batch arrives. Deliberately non-transactional: every batch runs in its own short read so that no
+     * persistence context accumulates the full result. May run on an async request thread, to which Spring
+     * Security carries the signed-in user.
+     *
+     * @param sort the order from {@link #streamSort}
+     */
+    public void streamAll(Boolean completed, String priority, Sort sort, Consumer<TodoDTO> consumer) {
+        Sort.Order order = sort.iterator().next();
+        String sortBy = order.getProperty();
+        String sortDirection = order.getDirection().name();
+        if (log.isDebugEnabled()) {
+            log.debug("Transmitindo todos - completed: {}, priority: {}, sortBy: {}, sortDirection: {}",
+                      completed, priority, sortBy, sortDirection);
+        }
+        String next = null;
+        do {
+            TodoPageDTO page = fetchPage(completed, priority, null, sortBy, sortDirection, next, STREAM_BATCH_SIZE,
+                    false);
+            page.getItems().forEach(consumer);
+            next = page.getNext();
+        } while (next != null);
+    }
+
     @Transactional(readOnly = true)
     public TodoDTO findById(Long id) {
-        log.info("Buscando todo por ID: {}", id);
-        return todoRepository.findById(id)
+        log.debug("Buscando todo por ID: {}", id);
+        return findOwned(id)
                 .map(this::convertToDTO)
                 .orElseThrow(() -> {
                     log.error("Todo não encontrado com ID: {}", id);
@@ -67,66 +171,441 @@ public class TodoService {
 
     @Transactional
     public TodoDTO create(TodoDTO todoDTO) {
-        log.info("Criando novo todo: {}", todoDTO.getTitle());
+        log.debug("Criando novo todo: {}", todoDTO.getTitle());
         Todo todo = new Todo();
+        // Hibernate only fills in the tenant at flush; the stats, search index and scheduler need it before that
+        todo.setTenant(currentUser.tenant());
+        todo.setOwner(currentUser.id());
         updateTodoFromDTO(todo, todoDTO);
+        todoChangeService.recordChanged(List.of(todo));
         Todo savedTodo = todoRepository.save(todo);
+        todoStatsService.recordCreated(TodoStatsService.TodoState.of(savedTodo));
+        dueDateScheduler.schedule(List.of(savedTodo));
+        TodoDTO created = convertToDTO(savedTodo);
+        todoSearchService.index(created);
+        outboxService.record(OutboxService.TODO, OutboxService.CREATED, created.getId(), created);
+        collectionVersionService.todosChanged();
         log.info("Todo criado com ID: {}", savedTodo.getId());
-        return convertToDTO(savedTodo);
+        return created;
     }
 
     @Transactional
     public TodoDTO update(Long id, TodoDTO todoDTO) {
-        log.info("Atualizando todo ID: {}", id);
-        Todo todo = todoRepository.findById(id)
+        return update(id, todoDTO, null);
+    }
+
+    /**
+     * Updates the todo only if it is still at {@code expectedVersion} (from {@code If-Match}); {@code null} skips
+     * the check. A concurrent update committing in between still fails on the version column at flush.
+     */
+    @Transactional
+    public TodoDTO update(Long id, TodoDTO todoDTO, Long expectedVersion) {
+        log.debug("Atualizando todo ID: {}", id);
+        Todo todo = findOwned(id)
                 .orElseThrow(() -> {
                     log.error("Todo não encontrado para atualização. ID: {}", id);
                     return new EntityNotFoundException("Todo not found with id: " + id);
                 });
+        if (expectedVersion != null && !expectedVersion.equals(todo.getVersion())) {
+            log.warn("Todo ID: {} alterado desde a versão {} (atual: {})", id, expectedVersion, todo.getVersion());
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                    "Todo " + id + " has been modified since version " + expectedVersion);
+        }
         
+        TodoStatsService.TodoState before = TodoStatsService.TodoState.of(todo);
         updateTodoFromDTO(todo, todoDTO);
+        todoChangeService.recordChanged(List.of(todo));
         Todo updatedTodo = todoRepository.save(todo);
+        // Flushed here so that the returned DTO, and its ETag, carry the incremented version
+        todoRepository.flush();
+        todoStatsService.recordUpdated(before, TodoStatsService.TodoState.of(updatedTodo));
+        dueDateScheduler.schedule(List.of(updatedTodo));
+        TodoDTO updated = convertToDTO(updatedTodo);
+        todoSearchService.index(updated);
+        outboxService.record(OutboxService.TODO, OutboxService.UPDATED, id, updated);
+        collectionVersionService.todosChanged();
         log.info("Todo atualizado com sucesso. ID: {}", id);
-        return convertToDTO(updatedTodo);
+        return updated;
     }
 
     @Transactional
     public void delete(Long id) {
-        log.info("Deletando todo ID: {}", id);
-        if (!todoRepository.existsById(id)) {
-            log.error("Todo não encontrado para deleção. ID: {}", id);
-            throw new EntityNotFoundException("Todo not found with id: " + id);
-        }
-        todoRepository.deleteById(id);
+        log.debug("Deletando todo ID: {}", id);
+        // Loaded rather than existence-checked: the statistics need the state being removed.
+        Todo todo = findOwned(id)
+                .orElseThrow(() -> {
+                    log.error("Todo não encontrado para deleção. ID: {}", id);
+                    return new EntityNotFoundException("Todo not found with id: " + id);
+                });
+        todoChangeService.recordDeleted(List.of(id));
+        todoRepository.delete(todo);
+        todoStatsService.recordDeleted(TodoStatsService.TodoState.of(todo));
+        dueDateScheduler.cancel(List.of(id));
+        todoSearchService.remove(id);
+        outboxService.record(OutboxService.TODO, OutboxService.DELETED, id, null);
+        collectionVersionService.todosChanged();
         log.info("Todo deletado com sucesso. ID: {}", id);
     }
 
+    /**
+     * Creates every valid item in one transaction. Category ids are resolved with a single query and the inserts
+     * go out as JDBC batches; invalid items are reported in place without aborting the rest.
+     */
+    @Transactional
+    public BatchResultDTO createAll(List<TodoDTO> todoDTOs) {
+        log.debug("Criando {} todos em lote", todoDTOs.size());
+        checkBatchSize(todoDTOs);
+        String tenant = currentUser.tenant();
+        String owner = currentUser.id();
+        Map<Long, Category> categories = resolveCategories(owner, todoDTOs);
+
+        List<BatchItemResultDTO> results = new ArrayList<>();
+        List<Todo> todos = new ArrayList<>();
+        List<BatchItemResultDTO> created = new ArrayList<>();
+        for (int i = 0; i < todoDTOs.size(); i++) {
+            TodoDTO todoDTO = todoDTOs.get(i);
+            String error = validate(todoDTO, categories);
+            if (error != null) {
+                results.add(itemResult(i, null, "FAILED", error));
+                continue;
+            }
+            Todo todo = new Todo();
+            todo.setTenant(tenant);
+            todo.setOwner(owner);
+            copyFields(todo, todoDTO, categories);
+            todos.add(todo);
+            BatchItemResultDTO result = itemResult(i, null, "CREATED", null);
+            created.add(result);
+            results.add(result);
+        }
+
+        todoChangeService.recordChanged(todos);
+        List<Todo> saved = todoRepository.saveAll(todos);
+        todoRepository.flush();
+        for (int i = 0; i < saved.size(); i++) {
+            created.get(i).setId(saved.get(i).getId());
+            todoStatsService.recordCreated(TodoStatsService.TodoState.of(saved.get(i)));
+            TodoDTO dto = convertToDTO(saved.get(i));
+            todoSearchService.index(dto);
+            outboxService.record(OutboxService.TODO, OutboxService.CREATED, dto.getId(), dto);
+        }
+        if (!saved.isEmpty()) {
+            dueDateScheduler.schedule(saved);
+            collectionVersionService.todosChanged();
+        }
+        BatchResultDTO batch = batchResult(results);
+        log.info("Lote criado: {} sucesso(s), {} falha(s)", batch.getSucceeded(), batch.getFailed());
+        return batch;
+    }
+
+    /**
+     * Updates every valid item in one transaction: all targeted todos are loaded with one query, all categories
+     * with another, and dirty checking flushes the changes as JDBC batches.
+     */
+    @Transactional
+    public BatchResultDTO updateAll(List<TodoDTO> todoDTOs) {
+        log.debug("Atualizando {} todos em lote", todoDTOs.size());
+        checkBatchSize(todoDTOs);
+        String owner = currentUser.id();
+        String tenant = currentUser.tenant();
+        Map<Long, Category> categories = resolveCategories(owner, todoDTOs);
+        Set<Long> ids = new HashSet<>();
+        todoDTOs.stream().map(TodoDTO::getId).filter(Objects::nonNull).forEach(ids::add);
+        Map<Long, Todo> todos = new HashMap<>();
+        todoRepository.findAllById(ids).stream()
+                .filter(todo -> owner.equals(todo.getOwner()) && tenant.equals(todo.getTenant()))
+                .forEach(todo -> todos.put(todo.getId(), todo));
+
+        List<BatchItemResultDTO> results = new ArrayList<>();
+        List<Todo> updated = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < todoDTOs.size(); i++) {
+            TodoDTO todoDTO = todoDTOs.get(i);
+            Long id = todoDTO.getId();
+            String error = id == null ? "Id is required"
+                    : !seen.add(id) ? "Duplicate id in batch"
+                    : !todos.containsKey(id) ? "Todo not found with id: " + id
+                    : validate(todoDTO, categories);
+            if (error != null) {
+                results.add(itemResult(i, id, "FAILED", error));
+                continue;
+            }
+            Todo todo = todos.get(id);
+            TodoStatsService.TodoState before = TodoStatsService.TodoState.of(todo);
+            copyFields(todo, todoDTO, categories);
+            updated.add(todo);
+            todoStatsService.recordUpdated(before, TodoStatsService.TodoState.of(todo));
+            results.add(itemResult(i, id, "UPDATED", null));
+        }
+
+        if (!updated.isEmpty()) {
+            todoChangeService.recordChanged(updated);
+            dueDateScheduler.schedule(updated);
+        }
+        // Flushed before the DTOs are built, so that the index and the outbox see the stamped, versioned rows
+        todoRepository.flush();
+        for (Todo todo : updated) {
+            TodoDTO dto = convertToDTO(todo);
+            todoSearchService.index(dto);
+            outboxService.record(OutboxService.TODO, OutboxService.UPDATED, dto.getId(), dto);
+        }
+        BatchResultDTO batch = batchResult(results);
+        if (batch.getSucceeded() > 0) {
+            collectionVersionService.todosChanged();
+        }
+        log.info("Lote atualizado: {} sucesso(s), {} falha(s)", batch.getSucceeded(), batch.getFailed());
+        return batch;
+    }
+
+    /**
+     * Deletes the existing ids with a single set-based statement; unknown ids are reported as failures.
+     */
+    @Transactional
+    public BatchResultDTO deleteAll(List<Long> ids) {
+        log.debug("Deletando {} todos em lote", ids.size());
+        checkBatchSize(ids);
+        Set<Long> existing = new HashSet<>(todoRepository.findExistingIds(new HashSet<>(ids), currentUser.id()));
+
+        List<BatchItemResultDTO> results = new ArrayList<>();
+        Set<Long> deleted = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (id != null && existing.contains(id) && deleted.add(id)) {
+                results.add(itemResult(i, id, "DELETED", null));
+            } else {
+                results.add(itemResult(i, id, "FAILED", id != null && deleted.contains(id)
+                        ? "Duplicate id in batch" : "Todo not found with id: " + id));
+            }
+        }
+
+        if (!deleted.isEmpty()) {
+            todoChangeService.recordDeleted(deleted);
+            todoRepository.deleteAllByIdInBatch(deleted);
+            todoStatsService.recordBulkChange();
+            dueDateScheduler.cancel(deleted);
+            todoSearchService.removeAll(deleted);
+            outboxService.recordAll(OutboxService.TODO, OutboxService.DELETED, deleted, null);
+            collectionVersionService.todosChanged();
+        }
+        BatchResultDTO batch = batchResult(results);
+        log.info("Lote deletado: {} sucesso(s), {} falha(s)", batch.getSucceeded(), batch.getFailed());
+        return batch;
+    }
+
+    private static void checkBatchSize(List<?> items) {
+        if (items.isEmpty() || items.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch must contain between 1 and " + MAX_BATCH_SIZE + " items");
+        }
+    }
+
+    /**
+     * The owner's categories among those the items reference; any other id is then reported as not found.
+     */
+    private Map<Long, Category> resolveCategories(String owner, List<TodoDTO> todoDTOs) {
+        Set<Long> categoryIds = new HashSet<>();
+        todoDTOs.stream().map(TodoDTO::getCategoryId).filter(Objects::nonNull).forEach(categoryIds::add);
+        Map<Long, Category> categories = new HashMap<>();
+        if (!categoryIds.isEmpty()) {
+            String tenant = currentUser.tenant();
+            categoryRepository.findAllById(categoryIds).stream()
+                    .filter(category -> owner.equals(category.getOwner()) && tenant.equals(category.getTenant()))
+                    .forEach(category -> categories.put(category.getId(), category));
+        }
+        return categories;
+    }
+
+    private String validate(TodoDTO todoDTO, Map<Long, Category> categories) {
+        Set<ConstraintViolation<TodoDTO>> violations = validator.validate(todoDTO);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (todoDTO.getCategoryId() != null && !categories.containsKey(todoDTO.getCategoryId())) {
+            return "Category not found with id: " + todoDTO.getCategoryId();
+        }
+        return null;
+    }
+
+    private static BatchItemResultDTO itemResult(int index, Long id, String status, String error) {
+        BatchItemResultDTO result = new BatchItemResultDTO();
+        result.setIndex(index);
+        result.setId(id);
+        result.setStatus(status);
+        result.setError(error);
+        return result;
+    }
+
+    private static BatchResultDTO batchResult(List<BatchItemResultDTO> results) {
+        results.sort(Comparator.comparingInt(BatchItemResultDTO::getIndex));
+        BatchResultDTO batch = new BatchResultDTO();
+        batch.setResults(results);
+        batch.setFailed((int) results.stream().filter(result -> "FAILED".equals(result.getStatus())).count());
+        batch.setSucceeded(results.size() - batch.getFailed());
+        return batch;
+    }
+
+    /**
+     * @param cacheable whether the page goes through the query cache; off for the stream, whose batches would
+     *                  otherwise keep the whole listing on the heap
+     */
+    private TodoPageDTO fetchPage(Boolean completed, String priority, Long categoryId, String sortBy,
+                                  String sortDirection, String next, int limit, boolean cacheable) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Sort.Direction direction = Sort.Direction.fromString(sortDirection);
+        Sort sort = listingSort(sortBy, direction);
+        Class<?> sortType = keysetType(sortBy);
+
+        Specification<Todo> spec = filterSpec(currentUser.id(), completed, priority, categoryId);
+        if (next != null) {
+            spec = spec.and(after(sortBy, direction, TodoCursor.decode(next, sortBy, direction.name(), sortType)));
+        }
+
+        List<TodoDTO> rows = todoRepository.findDTOs(spec, sort, limit + 1, cacheable);
+        boolean hasMore = rows.size() > limit;
+        List<TodoDTO> items = hasMore ? new ArrayList<>(rows.subList(0, limit)) : rows;
+
+        TodoPageDTO page = new TodoPageDTO();
+        page.setItems(items);
+        if (hasMore) {
+            TodoDTO last = items.get(items.size() - 1);
+            Object value = new BeanWrapperImpl(last).getPropertyValue(sortBy);
+            page.setNext(new TodoCursor(sortBy, direction.name(), value, last.getId()).encode());
+        }
+        return page;
+    }
+
+    /**
+     * Rows returned per listing call, next to the {@code todos.service} timer of the same method: a latency
+     * regression can then be told apart from callers simply asking for more.
+     */
+    private void recordResults(String method, int rows) {
+        meterRegistry.summary("todos.service.results", "method", method).record(rows);
+    }
+
+    /**
+     * Orders by {@code sortBy} with {@code id} as the tie-breaker, which is the order the indexes keep entries in.
+     */
+    static Sort listingSort(String sortBy, Sort.Direction direction) {
+        if (!SORTABLE_FIELDS.contains(sortBy)) {
+            throw new IllegalArgumentException("Cannot sort by: " + sortBy + "; sortable fields are "
+                    + SORTABLE_FIELDS.stream().sorted().collect(Collectors.joining(", ")));
+        }
+        Sort sort = Sort.by(direction, sortBy);
+        return "id".equals(sortBy) ? sort : sort.and(Sort.by(direction, "id"));
+    }
+
+    private static Class<?> keysetType(String sortBy) {
+        PropertyDescriptor property = BeanUtils.getPropertyDescriptor(Todo.class, sortBy);
+        if (property == null || !TodoCursor.supports(property.getPropertyType())) {
+            throw new IllegalArgumentException("Cannot paginate by sort field: " + sortBy);
+        }
+        return property.getPropertyType();
+    }
+
+    private static Specification<Todo> filterSpec(String owner, Boolean completed, String priority,
+                                                  Long categoryId) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("owner"), owner));
+            
+            if (completed != null) {
+                predicates.add(cb.equal(root.get("completed"), completed));
+            }
+            
+            if (priority != null) {
+                predicates.add(cb.equal(root.get("priority"), priority));
+            }
+            
+            if (categoryId != null) {
+                // Compares the foreign key column; no join to category
+                predicates.add(cb.equal(root.get("category").get("id"), categoryId));
+            }
+            
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Rows strictly after the cursor in (sortBy, id) order. Null sort values sort lowest, as H2 orders them,
+     * so they open an ascending listing and close a descending one.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Specification<Todo> after(String sortBy, Sort.Direction direction, TodoCursor cursor) {
+        return (root, query, cb) -> {
+            Path<Comparable> column = root.get(sortBy);
+            Path<Long> id = root.get("id");
+            Comparable value = (Comparable) cursor.getValue();
+            boolean ascending = direction.isAscending();
+            Predicate idAfter = ascending ? cb.greaterThan(id, cursor.getId()) : cb.lessThan(id, cursor.getId());
+
+            if (value == null) {
+                Predicate remainingNulls = cb.and(cb.isNull(column), idAfter);
+                return ascending ? cb.or(remainingNulls, cb.isNotNull(column)) : remainingNulls;
+            }
+
+            Predicate beyond = ascending ? cb.greaterThan(column, value) : cb.lessThan(column, value);
+            Predicate tie = cb.and(cb.equal(column, value), idAfter);
+            return ascending ? cb.or(beyond, tie) : cb.or(beyond, tie, cb.isNull(column));
+        };
+    }
+
+    /**
+     * Loads through the second-level cache by id, then drops a todo of another user's. Loads by id are not
+     * restricted to the session's tenant, so the tenant is checked here along with the owner.
+     */
+    private Optional<Todo> findOwned(Long id) {
+        String owner = currentUser.id();
+        String tenant = currentUser.tenant();
+        return todoRepository.findById(id)
+                .filter(todo -> owner.equals(todo.getOwner()) && tenant.equals(todo.getTenant()));
+    }
+
     private void updateTodoFromDTO(Todo todo, TodoDTO todoDTO) {
+        copyFields(todo, todoDTO);
+        
+        if (todoDTO.getCategoryId() != null) {
+            // Existence comes from the category cache; the reference itself is a proxy, so no query is issued.
+            if (!categoryService.exists(todoDTO.getCategoryId())) {
+                log.error("Categoria não encontrada. ID: {}", todoDTO.getCategoryId());
+                throw new EntityNotFoundException("Category not found with id: " + todoDTO.getCategoryId());
+            }
+            todo.setCategory(categoryRepository.getReferenceById(todoDTO.getCategoryId()));
+        }
+    }
+
+    private static void copyFields(Todo todo, TodoDTO todoDTO) {
         todo.setTitle(todoDTO.getTitle());
         todo.setDescription(todoDTO.getDescription());
         todo.setCompleted(todoDTO.isCompleted());
         todo.setDueDate(todoDTO.getDueDate());
         todo.setPriority(todoDTO.getPriority());
-        
+    }
+
+    private static void copyFields(Todo todo, TodoDTO todoDTO, Map<Long, Category> categories) {
+        copyFields(todo, todoDTO);
         if (todoDTO.getCategoryId() != null) {
-            Category category = categoryRepository.findById(todoDTO.getCategoryId())
-                    .orElseThrow(() -> {
-                        log.error("Categoria não encontrada. ID: {}", todoDTO.getCategoryId());
-                        return new EntityNotFoundException("Category not found with id: " + todoDTO.getCategoryId());
-                    });
-            todo.setCategory(category);
+            todo.setCategory(categories.get(todoDTO.getCategoryId()));
         }
     }
 
     private TodoDTO convertToDTO(Todo todo) {
         TodoDTO dto = new TodoDTO();
         dto.setId(todo.getId());
+        dto.setTenant(todo.getTenant());
+        dto.setOwner(todo.getOwner());
         dto.setTitle(todo.getTitle());
         dto.setDescription(todo.getDescription());
         dto.setCompleted(todo.isCompleted());
         dto.setCreatedAt(todo.getCreatedAt());
         dto.setDueDate(todo.getDueDate());
         dto.setPriority(todo.getPriority());
+        dto.setUpdatedAt(todo.getUpdatedAt());
+        dto.setVersion(todo.getVersion());
+        dto.setChangeSeq(todo.getChangeSeq());
         if (todo.getCategory() != null) {
             dto.setCategoryId(todo.getCategory().getId());
         }
@@ -0,0 +1,284 @@
+package com.example.todoapi.service;
+
+import com.example.todoapi.config.TenantPartitions;
+import com.example.todoapi.dto.TodoStatsDTO;
+import com.example.todoapi.model.Todo;
+import com.example.todoapi.repository.TodoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Aggregated counts of the signed-in user's todos for {@code /api/todos/stats}. In the default {@code sql} mode
+ * every call runs one grouped query over the (owner, completed, priority, category) index plus an overdue count
+ * over (owner, completed, due_date). In {@code memory} mode counters per user, by tenant and owner, are seeded
+ * from the same queries grouped by tenant and owner and then kept current by {@link TodoService}, which reports
+ * every committed write here; bulk changes re-seed them, and a periodic resync bounds any drift from writes racing
+ * a reload.
+ */
+@Slf4j
+@Service
+public class TodoStatsService {
+    static final String NO_PRIORITY = "NONE";
+
+    private final TodoRepository todoRepository;
+    private final CurrentUser currentUser;
+    private final TenantPartitions tenantPartitions;
+    private final boolean incremental;
+    private final ReentrantLock lock = new ReentrantLock();
+    // By tenant and owner, see CurrentUser.userKey; null until the first reload
+    private Map<String, Counters> counters;
+
+    public TodoStatsService(TodoRepository todoRepository, CurrentUser currentUser, TenantPartitions tenantPartitions,
+                            @Value("${todos.stats.mode:sql}") String mode) {
+        if (!"sql".equals(mode) && !"memory".equals(mode)) {
+            throw new IllegalArgumentException("todos.stats.mode must be sql or memory, got: " + mode);
+        }
+        this.todoRepository = todoRepository;
+        this.currentUser = currentUser;
+        this.tenantPartitions = tenantPartitions;
+        this.incremental = "memory".equals(mode);
+    }
+
+    /**
+     * The fields of a todo that the statistics depend on.
+     */
+    public record TodoState(String user, boolean completed, String priority, Long categoryId,
+                            LocalDateTime dueDate) {
+        public static TodoState of(Todo todo) {
+            return new TodoState(CurrentUser.userKey(todo.getTenant(), todo.getOwner()), todo.isCompleted(),
+                    todo.getPriority(), todo.getCategory() != null ? todo.getCategory().getId() : null,
+                    todo.getDueDate());
+        }
+    }
+
+    public TodoStatsDTO getStats() {
+        String owner = currentUser.id();
+        LocalDateTime now = LocalDateTime.now();
+        if (incremental) {
+            lock.lock();
+            try {
+                if (counters != null) {
+                    Counters owned = counters.get(currentUser.userKey());
+                    return (owned != null ? owned : new Counters(now)).toDTO(now);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        Counters fresh = new Counters(now);
+        todoRepository.countGrouped(owner).forEach(fresh::addGrouped);
+        fresh.overdue = todoRepository.countOverdue(owner, now);
+        return fresh.toDTO(now);
+    }
+
+    public void recordCreated(TodoState state) {
+        applyAfterCommit(() -> countersOf(state.user()).apply(state, 1));
+    }
+
+    public void recordUpdated(TodoState before, TodoState after) {
+        if (before.equals(after)) {
+            return;
+        }
+        applyAfterCommit(() -> {
+            countersOf(before.user()).apply(before, -1);
+            countersOf(after.user()).apply(after, 1);
+        });
+    }
+
+    public void recordDeleted(TodoState state) {
+        applyAfterCommit(() -> countersOf(state.user()).apply(state, -1));
+    }
+
+    /**
+     * For writes whose individual rows are not known, such as set-based deletes and category cascades. Only the
+     * signed-in user's counters are re-seeded: the request's session sees just its own tenant.
+     */
+    public void recordBulkChange() {
+        if (!incremental) {
+            return;
+        }
+        String user = currentUser.userKey();
+        String owner = currentUser.id();
+        AfterCommit.run(() -> reload(user, owner));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        if (!incremental) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Counters> fresh = new HashMap<>();
+        for (Object[] row : tenantPartitions.collect(todoRepository::countGroupedByOwner)) {
+            countersOf(fresh, row, now).addGrouped(Arrays.copyOfRange(row, 2, row.length));
+        }
+        for (Object[] row : tenantPartitions.collect(() -> todoRepository.countOverdueByOwner(now))) {
+            countersOf(fresh, row, now).overdue = (Long) row[2];
+        }
+        for (Object[] row : tenantPartitions.collect(() -> todoRepository.countUpcomingByOwnerAndDueDate(now))) {
+            countersOf(fresh, row, now).upcoming.put((LocalDateTime) row[2], (Long) row[3]);
+        }
+        lock.lock();
+        try {
+            counters = fresh;
+        } finally {
+            lock.unlock();
+        }
+        log.info("Contadores de estatísticas recarregados: {} todos de {} usuário(s)",
+                 fresh.values().stream().mapToLong(owned -> owned.total).sum(), fresh.size());
+    }
+
+    /**
+     * Runs in the user's own request, whose session only sees their tenant.
+     */
+    private void reload(String user, String owner) {
+        LocalDateTime now = LocalDateTime.now();
+        Counters fresh = new Counters(now);
+        todoRepository.countGrouped(owner).forEach(fresh::addGrouped);
+        fresh.overdue = todoRepository.countOverdue(owner, now);
+        for (Object[] row : todoRepository.countUpcomingByDueDate(owner, now)) {
+            fresh.upcoming.put((LocalDateTime) row[0], (Long) row[1]);
+        }
+        lock.lock();
+        try {
+            if (counters != null) {
+                counters.put(user, fresh);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${todos.stats.resync-interval:600000}",
+            initialDelayString = "${todos.stats.resync-interval:600000}")
+    public void resync() {
+        reload();
+    }
+
+    boolean isIncremental() {
+        return incremental;
+    }
+
+    private void applyAfterCommit(Runnable update) {
+        if (!incremental) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            lock.lock();
+            try {
+                if (counters != null) {
+                    update.run();
+                }
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Guarded by lock; only called once the counters are loaded.
+     */
+    private Counters countersOf(String user) {
+        return counters.computeIfAbsent(user, key -> new Counters(LocalDateTime.now()));
+    }
+
+    /**
+     * The counters of the user a row starting with (tenant, owner) is for.
+     */
+    private static Counters countersOf(Map<String, Counters> counters, Object[] row, LocalDateTime now) {
+        return counters.computeIfAbsent(CurrentUser.userKey((String) row[0], (String) row[1]),
+                key -> new Counters(now));
+    }
+
+    /**
+     * One user's counts. Open todos due before {@code watermark} are folded into {@code overdue}; later ones wait in
+     * {@code upcoming}, keyed by due date, until a read moves the watermark past them.
+     */
+    private static final class Counters {
+        long total;
+        long completed;
+        long overdue;
+        long uncategorized;
+        final Map<String, Long> byPriority = new HashMap<>();
+        final Map<Long, Long> byCategory = new HashMap<>();
+        final NavigableMap<LocalDateTime, Long> upcoming = new TreeMap<>();
+        LocalDateTime watermark;
+
+        Counters(LocalDateTime watermark) {
+            this.watermark = watermark;
+        }
+
+        /**
+         * Adds a row of (completed, priority, categoryId, count).
+         */
+        void addGrouped(Object[] row) {
+            long count = (Long) row[3];
+            total += count;
+            if ((Boolean) row[0]) {
+                completed += count;
+            }
+            byPriority.merge(row[1] != null ? (String) row[1] : NO_PRIORITY, count, Long::sum);
+            if (row[2] == null) {
+                uncategorized += count;
+            } else {
+                byCategory.merge((Long) row[2], count, Long::sum);
+            }
+        }
+
+        void apply(TodoState state, long delta) {
+            total += delta;
+            if (state.completed()) {
+                completed += delta;
+            }
+            add(byPriority, state.priority() != null ? state.priority() : NO_PRIORITY, delta);
+            if (state.categoryId() == null) {
+                uncategorized += delta;
+            } else {
+                add(byCategory, state.categoryId(), delta);
+            }
+            if (!state.completed() && state.dueDate() != null) {
+                if (state.dueDate().isBefore(watermark)) {
+                    overdue += delta;
+                } else {
+                    add(upcoming, state.dueDate(), delta);
+                }
+            }
+        }
+
+        TodoStatsDTO toDTO(LocalDateTime now) {
+            if (now.isAfter(watermark)) {
+                NavigableMap<LocalDateTime, Long> due = upcoming.headMap(now, false);
+                due.values().forEach(count -> overdue += count);
+                due.clear();
+                watermark = now;
+            }
+            TodoStatsDTO dto = new TodoStatsDTO();
+            dto.setTotal(total);
+            dto.setCompleted(completed);
+            dto.setOpen(total - completed);
+            dto.setOverdue(overdue);
+            dto.setUncategorized(uncategorized);
+            dto.setByPriority(new HashMap<>(byPriority));
+            dto.setByCategory(new HashMap<>(byCategory));
+            return dto;
+        }
+
+        private static <K> void add(Map<K, Long> counts, K key, long delta) {
+            if (counts.merge(key, delta, Long::sum) == 0) {
+                counts.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+-- Schema of the persistent profile, matching the entities; Hibernate validates it on startup.
+-- Later changes go in new V<n>__*.sql files: an applied migration must never be edited.
+
+-- Todo ids come from a pooled sequence (allocationSize = 50), which lets Hibernate batch inserts
+create sequence todo_seq start with 1 increment by 50;
+
+create table category (
+    id          bigint generated by default as identity,
+    name        varchar(255) not null,
+    description varchar(255),
+    version     bigint default 0,
+    primary key (id)
+);
+
+create table todo (
+    id          bigint not null,
+    title       varchar(255) not null,
+    description varchar(255),
+    completed   boolean not null,
+    created_at  timestamp(6) not null,
+    due_date    timestamp(6),
+    category_id bigint,
+    priority    varchar(255),
+    updated_at  timestamp(6),
+    change_seq  bigint default 0 not null,
+    version     bigint default 0,
+    primary key (id),
+    constraint fk_todo_category foreign key (category_id) references category (id)
+);
+
+create table todo_tombstone (
+    todo_id    bigint not null,
+    change_seq bigint not null,
+    deleted_at timestamp(6) not null,
+    primary key (todo_id)
+);
+
+-- Listing indexes: one per supported filter and sort column (see Todo)
+create index idx_todo_created_at on todo (created_at);
+create index idx_todo_due_date on todo (due_date);
+create index idx_todo_completed_created_at on todo (completed, created_at);
+create index idx_todo_completed_due_date on todo (completed, due_date);
+create index idx_todo_priority_created_at on todo (priority, created_at);
+create index idx_todo_priority_due_date on todo (priority, due_date);
+create index idx_todo_completed_priority_created_at on todo (completed, priority, created_at);
+create index idx_todo_completed_priority_due_date on todo (completed, priority, due_date);
+create index idx_todo_completed_priority_category on todo (completed, priority, category_id);
+
+-- /api/categories/{id}/todos
+create index idx_todo_category_created_at on todo (category_id, created_at);
+create index idx_todo_category_due_date on todo (category_id, due_date);
+
+-- /api/todos/changes
+create index idx_todo_change_seq on todo (change_seq, id);
+create index idx_todo_tombstone_change_seq on todo_tombstone (change_seq, todo_id);
@@ -0,0 +1,40 @@
+-- Todos and categories belong to the user who created them (the subject of their bearer token). Rows from
+-- before there were users go to ${legacy_owner}, set by spring.flyway.placeholders.legacy_owner.
+
+alter table category add column owner varchar(255);
+update category set owner = '${legacy_owner}';
+alter table category alter column owner set not null;
+create index idx_category_owner on category (owner);
+
+alter table todo add column owner varchar(255);
+update todo set owner = coalesce((select c.owner from category c where c.id = todo.category_id), '${legacy_owner}');
+alter table todo alter column owner set not null;
+
+alter table todo_tombstone add column owner varchar(255);
+update todo_tombstone set owner = '${legacy_owner}';
+alter table todo_tombstone alter column owner set not null;
+
+-- Every listing is one owner's: the listing indexes now lead with it (see Todo)
+drop index idx_todo_created_at;
+drop index idx_todo_due_date;
+drop index idx_todo_completed_created_at;
+drop index idx_todo_completed_due_date;
+drop index idx_todo_priority_created_at;
+drop index idx_todo_priority_due_date;
+drop index idx_todo_completed_priority_created_at;
+drop index idx_todo_completed_priority_due_date;
+drop index idx_todo_completed_priority_category;
+drop index idx_todo_change_seq;
+drop index idx_todo_tombstone_change_seq;
+
+create index idx_todo_owner_created_at on todo (owner, created_at);
+create index idx_todo_owner_due_date on todo (owner, due_date);
+create index idx_todo_owner_completed_created_at on todo (owner, completed, created_at);
+create index idx_todo_owner_completed_due_date on todo (owner, completed, due_date);
+create index idx_todo_owner_priority_created_at on todo (owner, priority, created_at);
+create index idx_todo_owner_priority_due_date on todo (owner, priority, due_date);
+create index idx_todo_owner_completed_priority_created_at on todo (owner, completed, priority, created_at);
+create index idx_todo_owner_completed_priority_due_date on todo (owner, completed, priority, due_date);
+create index idx_todo_owner_completed_priority_category on todo (owner, completed, priority, category_id);
+create index idx_todo_owner_change_seq on todo (owner, change_seq, id);
+create index idx_todo_tombstone_owner_change_seq on todo_tombstone (owner, change_seq, todo_id);
@@ -0,0 +1,47 @@
+-- Rows belong to a tenant (team) as well as to a user; Hibernate fills in and filters on the column (@TenantId).
+-- Existing rows go to ${default_tenant}, the tenant of users configured without one.
+
+alter table category add column tenant varchar(255);
+update category set tenant = '${default_tenant}';
+alter table category alter column tenant set not null;
+
+alter table todo add column tenant varchar(255);
+update todo set tenant = '${default_tenant}';
+alter table todo alter column tenant set not null;
+
+alter table todo_tombstone add column tenant varchar(255);
+update todo_tombstone set tenant = '${default_tenant}';
+alter table todo_tombstone alter column tenant set not null;
+
+-- Every index leads with the tenant, so that each tenant reads ranges of its own (see Todo)
+drop index idx_category_owner;
+drop index idx_todo_owner_created_at;
+drop index idx_todo_owner_due_date;
+drop index idx_todo_owner_completed_created_at;
+drop index idx_todo_owner_completed_due_date;
+drop index idx_todo_owner_priority_created_at;
+drop index idx_todo_owner_priority_due_date;
+drop index idx_todo_owner_completed_priority_created_at;
+drop index idx_todo_owner_completed_priority_due_date;
+drop index idx_todo_owner_completed_priority_category;
+drop index idx_todo_category_created_at;
+drop index idx_todo_category_due_date;
+drop index idx_todo_owner_change_seq;
+drop index idx_todo_tombstone_owner_change_seq;
+
+create index idx_category_tenant_owner on category (tenant, owner);
+create index idx_todo_tenant_owner_created_at on todo (tenant, owner, created_at);
+create index idx_todo_tenant_owner_due_date on todo (tenant, owner, due_date);
+create index idx_todo_tenant_owner_completed_created_at on todo (tenant, owner, completed, created_at);
+create index idx_todo_tenant_owner_completed_due_date on todo (tenant, owner, completed, due_date);
+create index idx_todo_tenant_owner_priority_created_at on todo (tenant, owner, priority, created_at);
+create index idx_todo_tenant_owner_priority_due_date on todo (tenant, owner, priority, due_date);
+create index idx_todo_tenant_owner_completed_priority_created_at
+    on todo (tenant, owner, completed, priority, created_at);
+create index idx_todo_tenant_owner_completed_priority_due_date on todo (tenant, owner, completed, priority, due_date);
+create index idx_todo_tenant_owner_completed_priority_category
+    on todo (tenant, owner, completed, priority, category_id);
+create index idx_todo_tenant_category_created_at on todo (tenant, category_id, created_at);
+create index idx_todo_tenant_category_due_date on todo (tenant, category_id, due_date);
+create index idx_todo_tenant_owner_change_seq on todo (tenant, owner, change_seq, id);
+create index idx_todo_tombstone_tenant_owner_change_seq on todo_tombstone (tenant, owner, change_seq, todo_id);
@@ -0,0 +1,2 @@
+-- Open todos by due date across all tenants, read once at startup by DueDateScheduler (see Todo)
+create index idx_todo_completed_due_date on todo (completed, due_date);
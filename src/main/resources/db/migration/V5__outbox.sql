@@ -0,0 +1,26 @@
+-- Transactional outbox: every todo and category write adds its events here in the same transaction, and
+-- OutboxPublisher numbers and publishes them (see OutboxEvent)
+create sequence outbox_event_seq start with 1 increment by 50;
+
+create table outbox_event (
+    id bigint not null,
+    tenant varchar(255) not null,
+    owner varchar(255) not null,
+    aggregate_type varchar(255) not null,
+    aggregate_id bigint not null,
+    type varchar(255) not null,
+    payload varchar(4000),
+    created_at timestamp(6) not null,
+    position bigint,
+    primary key (id)
+);
+
+create index idx_outbox_event_position on outbox_event (position, id);
+create index idx_outbox_event_tenant_owner_position on outbox_event (tenant, owner, position);
+
+-- Delivered positions per webhook, and the last position published
+create table outbox_offset (
+    consumer varchar(255) not null,
+    position bigint not null,
+    primary key (consumer)
+);
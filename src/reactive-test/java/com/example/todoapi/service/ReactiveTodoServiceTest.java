@@ -0,0 +1,165 @@
+package com.example.todoapi.service;
+
+import com.example.todoapi.dto.TodoDTO;
+import com.example.todoapi.model.TodoRow;
+import com.example.todoapi.repository.ReactiveTodoRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveTodoServiceTest {
+    private static final Authentication ALICE = new TestingAuthenticationToken("alice", null, "ROLE_USER");
+
+    @Mock
+    private ReactiveTodoRepository todoRepository;
+
+    @Mock
+    private TodoService blockingTodoService;
+
+    @InjectMocks
+    private ReactiveTodoService todoService;
+
+    private TodoRow todo;
+    private TodoDTO todoDTO;
+
+    @BeforeEach
+    void setUp() {
+        todo = new TodoRow();
+        todo.setId(1L);
+        todo.setTenant(CurrentUser.DEFAULT_TENANT);
+        todo.setOwner("alice");
+        todo.setTitle("Test Todo");
+        todo.setDescription("Test Description");
+        todo.setCompleted(false);
+        todo.setCreatedAt(LocalDateTime.now());
+        todo.setPriority("HIGH");
+
+        todoDTO = new TodoDTO();
+        todoDTO.setTitle("Test Todo");
+        todoDTO.setDescription("Test Description");
+        todoDTO.setPriority("HIGH");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findAll_ShouldFilterByExampleAndSortWithTieBreaker() {
+        ArgumentCaptor<Example<TodoRow>> example = ArgumentCaptor.forClass(Example.class);
+        ArgumentCaptor<Sort> sort = ArgumentCaptor.forClass(Sort.class);
+        when(todoRepository.findAll(example.capture(), sort.capture())).thenReturn(Flux.just(todo));
+
+        StepVerifier.create(signedIn(todoService.findAll(false, "HIGH", "createdAt", "DESC")))
+                .assertNext(dto -> assertEquals(todo.getTitle(), dto.getTitle()))
+                .verifyComplete();
+
+        assertEquals(false, example.getValue().getProbe().getCompleted());
+        assertEquals("HIGH", example.getValue().getProbe().getPriority());
+        assertEquals(CurrentUser.DEFAULT_TENANT, example.getValue().getProbe().getTenant());
+        assertEquals("alice", example.getValue().getProbe().getOwner());
+        assertNull(example.getValue().getProbe().getTitle());
+        assertEquals(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id")),
+                sort.getValue());
+    }
+
+    @Test
+    void findAll_WithUnsortableField_ShouldSignalError() {
+        StepVerifier.create(signedIn(todoService.findAll(null, null, "title", "ASC")))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(todoRepository);
+    }
+
+    @Test
+    void findById_WhenNotFound_ShouldSignalEntityNotFound() {
+        when(todoRepository.findByIdAndTenantAndOwner(1L, CurrentUser.DEFAULT_TENANT, "alice"))
+                .thenReturn(Mono.empty());
+
+        StepVerifier.create(signedIn(todoService.findById(1L)))
+                .expectError(EntityNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void create_ShouldGoThroughTodoServiceAsTheSignedInUser() {
+        AtomicReference<Authentication> caller = new AtomicReference<>();
+        when(blockingTodoService.create(todoDTO)).thenAnswer(invocation -> {
+            caller.set(SecurityContextHolder.getContext().getAuthentication());
+            TodoDTO created = new TodoDTO();
+            created.setId(1L);
+            return created;
+        });
+
+        StepVerifier.create(signedIn(todoService.create(todoDTO)))
+                .assertNext(dto -> assertEquals(1L, dto.getId()))
+                .verifyComplete();
+
+        assertSame(ALICE, caller.get());
+        verifyNoInteractions(todoRepository);
+    }
+
+    @Test
+    void update_ShouldGoThroughTodoService() {
+        when(blockingTodoService.update(1L, todoDTO)).thenReturn(todoDTO);
+
+        StepVerifier.create(signedIn(todoService.update(1L, todoDTO)))
+                .expectNext(todoDTO)
+                .verifyComplete();
+    }
+
+    @Test
+    void delete_WhenNotFound_ShouldSignalEntityNotFound() {
+        doThrow(new EntityNotFoundException("Todo not found with id: 1")).when(blockingTodoService).delete(1L);
+
+        StepVerifier.create(signedIn(todoService.delete(1L)))
+                .expectError(EntityNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void create_WithoutSignedInUser_ShouldNotCallTodoService() {
+        StepVerifier.create(todoService.create(todoDTO))
+                .expectError(AuthenticationCredentialsNotFoundException.class)
+                .verify();
+
+        verifyNoInteractions(blockingTodoService);
+    }
+
+    @Test
+    void findById_WithoutSignedInUser_ShouldSignalAuthenticationError() {
+        StepVerifier.create(todoService.findById(1L))
+                .expectError(AuthenticationCredentialsNotFoundException.class)
+                .verify();
+
+        verifyNoInteractions(todoRepository);
+    }
+
+    private static <T> Mono<T> signedIn(Mono<T> mono) {
+        return mono.contextWrite(ReactiveSecurityContextHolder.withAuthentication(ALICE));
+    }
+
+    private static <T> Flux<T> signedIn(Flux<T> flux) {
+        return flux.contextWrite(ReactiveSecurityContextHolder.withAuthentication(ALICE));
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.todoapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Infrastructure for the reactive profile ({@code spring.main.web-application-type: reactive}).
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfig {
+
+    /**
+     * R2DBC goes around Hibernate and its per-tenant connections, so its reads would see the shared schema.
+     */
+    public ReactiveConfig(TenancyProperties tenancyProperties) {
+        if (tenancyProperties.getLayout() == TenancyProperties.Layout.SCHEMA) {
+            throw new IllegalStateException("todos.tenancy.layout=schema is not supported by the reactive profile");
+        }
+    }
+
+    /**
+     * Netty rather than Tomcat, which would otherwise win because the servlet stack is on the classpath too.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * The JDBC pool is declared here because Spring Boot skips its own as soon as an R2DBC connection factory
+     * exists. JPA still owns the schema and carries every write of the reactive API.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+}
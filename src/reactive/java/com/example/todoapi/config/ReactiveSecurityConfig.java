@@ -0,0 +1,93 @@
+package com.example.todoapi.config;
+
+import com.example.todoapi.service.JwtService;
+import io.jsonwebtoken.JwtException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.MapReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.authentication.ServerAuthenticationEntryPointFailureHandler;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * The reactive counterpart of {@link SecurityConfig}: the same bearer tokens, verified through the same
+ * {@link JwtService} cache, and the same rules.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+    private static final String BEARER = "Bearer ";
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtService jwtService) {
+        HttpStatusServerEntryPoint unauthorized = new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED);
+        AuthenticationWebFilter bearerFilter = new AuthenticationWebFilter(bearerAuthenticationManager(jwtService));
+        // The token travels as the credentials of an unauthenticated token until it is verified
+        bearerFilter.setServerAuthenticationConverter(exchange -> Mono
+                .justOrEmpty(exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION))
+                .filter(header -> header.regionMatches(true, 0, BEARER, 0, BEARER.length()))
+                .map(header -> UsernamePasswordAuthenticationToken.unauthenticated(
+                        null, header.substring(BEARER.length()).trim())));
+        bearerFilter.setAuthenticationFailureHandler(new ServerAuthenticationEntryPointFailureHandler(unauthorized));
+
+        http
+            .csrf(csrf -> csrf.disable())
+            .httpBasic(httpBasic -> httpBasic.disable())
+            .formLogin(formLogin -> formLogin.disable())
+            .authorizeExchange(exchange -> exchange
+                .pathMatchers("/api/auth/**").permitAll()
+                .pathMatchers("/api/logs/**").hasRole("ADMIN")
+                .pathMatchers("/api/**").authenticated()
+                .pathMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                .pathMatchers("/actuator/**").hasRole("ADMIN")
+                .anyExchange().permitAll()
+            )
+            .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(unauthorized))
+            .addFilterAt(bearerFilter, SecurityWebFiltersOrder.AUTHENTICATION);
+
+        return http.build();
+    }
+
+    /**
+     * Checks the credentials posted to {@code /api/auth/token}; password hashing runs off the event loop.
+     */
+    @Bean
+    public ReactiveAuthenticationManager authenticationManager(AuthProperties authProperties,
+                                                               PasswordEncoder passwordEncoder) {
+        List<UserDetails> users = authProperties.userDetails();
+        // MapReactiveUserDetailsService refuses an empty map; without accounts nobody can sign in
+        ReactiveUserDetailsService userDetailsService = users.isEmpty()
+                ? username -> Mono.empty() : new MapReactiveUserDetailsService(users);
+        UserDetailsRepositoryReactiveAuthenticationManager manager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(userDetailsService);
+        manager.setPasswordEncoder(passwordEncoder);
+        return manager;
+    }
+
+    private static ReactiveAuthenticationManager bearerAuthenticationManager(JwtService jwtService) {
+        return authentication -> Mono.fromCallable(() -> jwtService.verify((String) authentication.getCredentials()))
+                .map(token -> (Authentication) UsernamePasswordAuthenticationToken.authenticated(
+                        token.user(), null, token.authorities()))
+                .onErrorMap(e -> e instanceof JwtException || e instanceof IllegalArgumentException,
+                        e -> new BadCredentialsException("Invalid token", e));
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.todoapi.controller;
+
+import com.example.todoapi.config.AuthProperties;
+import com.example.todoapi.dto.TokenDTO;
+import com.example.todoapi.dto.TokenRequestDTO;
+import com.example.todoapi.service.JwtService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RestController
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+public class ReactiveAuthController {
+    private final ReactiveAuthenticationManager authenticationManager;
+    private final JwtService jwtService;
+    private final AuthProperties authProperties;
+
+    @PostMapping("/token")
+    public Mono<TokenDTO> createToken(@Valid @RequestBody TokenRequestDTO tokenRequest) {
+        return authenticationManager.authenticate(
+                        UsernamePasswordAuthenticationToken.unauthenticated(tokenRequest.getUsername(),
+                                                                            tokenRequest.getPassword()))
+                .map(authentication -> jwtService.issue(authentication.getName(),
+                        authProperties.tenantOf(authentication.getName()), authentication.getAuthorities()));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.todoapi.controller;
+
+import com.example.todoapi.dto.CategoryDTO;
+import com.example.todoapi.service.ReactiveCategoryService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RestController
+@RequestMapping("/api/categories")
+@RequiredArgsConstructor
+public class ReactiveCategoryController {
+    private final ReactiveCategoryService categoryService;
+
+    @GetMapping
+    public Flux<CategoryDTO> getAllCategories() {
+        return categoryService.findAll();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<CategoryDTO> getCategoryById(@PathVariable Long id) {
+        return categoryService.findById(id);
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<CategoryDTO> createCategory(@Valid @RequestBody CategoryDTO categoryDTO) {
+        return categoryService.create(categoryDTO);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<CategoryDTO> updateCategory(@PathVariable Long id, @Valid @RequestBody CategoryDTO categoryDTO) {
+        return categoryService.update(id, categoryDTO);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteCategory(@PathVariable Long id) {
+        return categoryService.delete(id);
+    }
+}
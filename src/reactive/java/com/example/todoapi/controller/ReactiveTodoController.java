@@ -0,0 +1,55 @@
+package com.example.todoapi.controller;
+
+import com.example.todoapi.dto.TodoDTO;
+import com.example.todoapi.service.ReactiveTodoService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The todo API on WebFlux. {@code GET /api/todos} streams as it reads: a JSON array by default, or one object
+ * per line with {@code Accept: application/x-ndjson}.
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RestController
+@RequestMapping("/api/todos")
+@RequiredArgsConstructor
+public class ReactiveTodoController {
+    private final ReactiveTodoService todoService;
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<TodoDTO> getAllTodos(
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) String priority,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDirection) {
+        return todoService.findAll(completed, priority, sortBy, sortDirection);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<TodoDTO> getTodoById(@PathVariable Long id) {
+        return todoService.findById(id);
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<TodoDTO> createTodo(@Valid @RequestBody TodoDTO todoDTO) {
+        return todoService.create(todoDTO);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<TodoDTO> updateTodo(@PathVariable Long id, @Valid @RequestBody TodoDTO todoDTO) {
+        return todoService.update(id, todoDTO);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteTodo(@PathVariable Long id) {
+        return todoService.delete(id);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.todoapi.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * R2DBC mapping of the {@code category} table, read by the reactive profile; the schema and every write belong to
+ * {@link Category}.
+ */
+@Table("category")
+@Data
+@NoArgsConstructor
+public class CategoryRow {
+    @Id
+    private Long id;
+
+    private String tenant;
+
+    private String owner;
+
+    private String name;
+
+    private String description;
+
+    @Version
+    private Long version;
+}
@@ -0,0 +1,47 @@
+package com.example.todoapi.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC mapping of the {@code todo} table, read by the reactive profile. The schema and every write belong to
+ * {@link Todo}; the category is held as its id since R2DBC does not map relationships.
+ */
+@Table("todo")
+@Data
+@NoArgsConstructor
+public class TodoRow {
+    @Id
+    private Long id;
+
+    private String tenant;
+
+    private String owner;
+
+    private String title;
+
+    private String description;
+
+    // Boxed so that a query-by-example probe can leave it unconstrained
+    private Boolean completed;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime dueDate;
+
+    private Long categoryId;
+
+    private String priority;
+
+    private LocalDateTime updatedAt;
+
+    private long changeSeq;
+
+    @Version
+    private Long version;
+}
@@ -0,0 +1,12 @@
+package com.example.todoapi.repository;
+
+import com.example.todoapi.model.CategoryRow;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCategoryRepository extends R2dbcRepository<CategoryRow, Long> {
+    Flux<CategoryRow> findByTenantAndOwner(String tenant, String owner);
+
+    Mono<CategoryRow> findByIdAndTenantAndOwner(Long id, String tenant, String owner);
+}
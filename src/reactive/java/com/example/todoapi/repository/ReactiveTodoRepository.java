@@ -0,0 +1,9 @@
+package com.example.todoapi.repository;
+
+import com.example.todoapi.model.TodoRow;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveTodoRepository extends R2dbcRepository<TodoRow, Long> {
+    Mono<TodoRow> findByIdAndTenantAndOwner(Long id, String tenant, String owner);
+}
@@ -0,0 +1,58 @@
+package com.example.todoapi.service;
+
+import com.example.todoapi.dto.CategoryDTO;
+import com.example.todoapi.model.CategoryRow;
+import com.example.todoapi.repository.ReactiveCategoryRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link CategoryService} for the reactive profile, over the signed-in user's
+ * categories. Writes are handed to {@link CategoryService} itself, which also deletes or moves the category's
+ * todos with their changes and outbox events.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveCategoryService {
+    private final ReactiveCategoryRepository categoryRepository;
+    private final CategoryService categoryService;
+
+    public Flux<CategoryDTO> findAll() {
+        return ReactiveCurrentUser.user()
+                .flatMapMany(user -> categoryRepository.findByTenantAndOwner(user.tenant(), user.name()))
+                .map(this::convertToDTO);
+    }
+
+    public Mono<CategoryDTO> findById(Long id) {
+        return ReactiveCurrentUser.user()
+                .flatMap(user -> categoryRepository.findByIdAndTenantAndOwner(id, user.tenant(), user.name()))
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException("Category not found with id: " + id)))
+                .map(this::convertToDTO);
+    }
+
+    public Mono<CategoryDTO> create(CategoryDTO categoryDTO) {
+        return ReactiveCurrentUser.call(() -> categoryService.create(categoryDTO));
+    }
+
+    public Mono<CategoryDTO> update(Long id, CategoryDTO categoryDTO) {
+        return ReactiveCurrentUser.call(() -> categoryService.update(id, categoryDTO));
+    }
+
+    public Mono<Void> delete(Long id) {
+        return ReactiveCurrentUser.run(() -> categoryService.delete(id));
+    }
+
+    private CategoryDTO convertToDTO(CategoryRow category) {
+        CategoryDTO dto = new CategoryDTO();
+        dto.setId(category.getId());
+        dto.setName(category.getName());
+        dto.setDescription(category.getDescription());
+        dto.setVersion(category.getVersion());
+        return dto;
+    }
+}
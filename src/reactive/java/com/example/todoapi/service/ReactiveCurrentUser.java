@@ -0,0 +1,55 @@
+package com.example.todoapi.service;
+
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+
+/**
+ * The reactive counterpart of {@link CurrentUser}, read from the subscriber context rather than the thread.
+ */
+final class ReactiveCurrentUser {
+
+    private ReactiveCurrentUser() {
+    }
+
+    static Mono<CurrentUser.SignedIn> user() {
+        return signedInContext()
+                .map(SecurityContext::getAuthentication)
+                .map(authentication -> new CurrentUser.SignedIn(authentication.getName(),
+                        CurrentUser.tenantOf(authentication)));
+    }
+
+    /**
+     * Calls the blocking services on a worker thread, signed in there as the subscriber's user. Writes go this way
+     * so that they take the servlet stack's path: one JPA transaction with the tenant filter, the change sequence
+     * and tombstones, the outbox, and the stats, search index, due-date and collection version updates.
+     */
+    static <T> Mono<T> call(Callable<T> call) {
+        return signedInContext().flatMap(context -> Mono.fromCallable(() -> {
+            SecurityContextHolder.setContext(context);
+            try {
+                return call.call();
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        }).subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    static Mono<Void> run(Runnable run) {
+        return call(() -> {
+            run.run();
+            return null;
+        }).then();
+    }
+
+    private static Mono<SecurityContext> signedInContext() {
+        return ReactiveSecurityContextHolder.getContext()
+                .filter(context -> CurrentUser.tenantOf(context.getAuthentication()) != null)
+                .switchIfEmpty(Mono.error(() -> new AuthenticationCredentialsNotFoundException("No signed-in user")));
+    }
+}
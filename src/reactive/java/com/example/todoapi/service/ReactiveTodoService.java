@@ -0,0 +1,89 @@
+package com.example.todoapi.service;
+
+import com.example.todoapi.dto.TodoDTO;
+import com.example.todoapi.model.TodoRow;
+import com.example.todoapi.repository.ReactiveTodoRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link TodoService} for the reactive profile, covering listing and CRUD of the
+ * signed-in user's todos. Listings are emitted row by row as R2DBC reads them instead of being collected first.
+ * Writes are handed to {@link TodoService} itself, see {@link ReactiveCurrentUser#call}, so that they record the
+ * same changes, outbox events, statistics, index entries and due dates as on the servlet stack.
+ */
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveTodoService {
+    private final ReactiveTodoRepository todoRepository;
+    private final TodoService todoService;
+
+    public Flux<TodoDTO> findAll(Boolean completed, String priority, String sortBy, String sortDirection) {
+        return ReactiveCurrentUser.user().flatMapMany(user -> {
+            if (log.isDebugEnabled()) {
+                log.debug("Buscando todos com filtros - completed: {}, priority: {}, sortBy: {}, sortDirection: {}",
+                          completed, priority, sortBy, sortDirection);
+            }
+            Sort sort = TodoService.listingSort(sortBy, Sort.Direction.fromString(sortDirection));
+
+            // Null probe fields are left unconstrained
+            TodoRow probe = new TodoRow();
+            probe.setTenant(user.tenant());
+            probe.setOwner(user.name());
+            probe.setCompleted(completed);
+            probe.setPriority(priority);
+
+            return todoRepository.findAll(Example.of(probe), sort).map(this::convertToDTO);
+        });
+    }
+
+    public Mono<TodoDTO> findById(Long id) {
+        log.debug("Buscando todo por ID: {}", id);
+        return ReactiveCurrentUser.user()
+                .flatMap(user -> todoRepository.findByIdAndTenantAndOwner(id, user.tenant(), user.name()))
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.error("Todo não encontrado com ID: {}", id);
+                    return Mono.error(new EntityNotFoundException("Todo not found with id: " + id));
+                }))
+                .map(this::convertToDTO);
+    }
+
+    public Mono<TodoDTO> create(TodoDTO todoDTO) {
+        return ReactiveCurrentUser.call(() -> todoService.create(todoDTO));
+    }
+
+    public Mono<TodoDTO> update(Long id, TodoDTO todoDTO) {
+        return ReactiveCurrentUser.call(() -> todoService.update(id, todoDTO));
+    }
+
+    public Mono<Void> delete(Long id) {
+        return ReactiveCurrentUser.run(() -> todoService.delete(id));
+    }
+
+    private TodoDTO convertToDTO(TodoRow todo) {
+        TodoDTO dto = new TodoDTO();
+        dto.setId(todo.getId());
+        dto.setTenant(todo.getTenant());
+        dto.setOwner(todo.getOwner());
+        dto.setTitle(todo.getTitle());
+        dto.setDescription(todo.getDescription());
+        dto.setCompleted(Boolean.TRUE.equals(todo.getCompleted()));
+        dto.setCreatedAt(todo.getCreatedAt());
+        dto.setDueDate(todo.getDueDate());
+        dto.setCategoryId(todo.getCategoryId());
+        dto.setPriority(todo.getPriority());
+        dto.setUpdatedAt(todo.getUpdatedAt());
+        dto.setVersion(todo.getVersion());
+        dto.setChangeSeq(todo.getChangeSeq());
+        return dto;
+    }
+}
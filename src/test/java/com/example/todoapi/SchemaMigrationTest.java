@@ -0,0 +1,31 @@
+package com.example.todoapi;
+
+import com.example.todoapi.config.SecondLevelCacheConfig;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the Flyway migrations of the persistent profile on an empty database and has Hibernate validate the
+ * result, so an entity change without a matching migration fails the build instead of the first deployment.
+ */
+@DataJpaTest(properties = {
+        "logging.file.name=target/test-logs/application.log",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"})
+@Import(SecondLevelCacheConfig.class)
+public class SchemaMigrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    void migrations_ShouldMatchEntities() {
+        assertTrue(flyway.info().applied().length > 0);
+        assertEquals(0, flyway.info().pending().length);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.todoapi;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.asm.ClassReader;
+import org.springframework.asm.ClassVisitor;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * On Java 21 a virtual thread that blocks inside a {@code synchronized} method or block pins its carrier thread,
+ * which quietly turns the virtual-thread mode back into a small fixed pool. The application's own classes use
+ * {@code java.util.concurrent} locks instead; this scans their bytecode so that a new monitor fails the build.
+ */
+public class VirtualThreadPinningTest {
+
+    @Test
+    void applicationClasses_ShouldNotUseMonitors() throws IOException, URISyntaxException {
+        Path classes = Path.of(TodoApiApplication.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        List<String> monitors = new ArrayList<>();
+        List<Path> classFiles;
+        try (Stream<Path> files = Files.walk(classes)) {
+            classFiles = files.filter(path -> path.toString().endsWith(".class")).collect(Collectors.toList());
+        }
+        for (Path classFile : classFiles) {
+            try (InputStream in = Files.newInputStream(classFile)) {
+                new ClassReader(in).accept(new MonitorFinder(monitors), ClassReader.SKIP_DEBUG);
+            }
+        }
+
+        assertFalse(classFiles.isEmpty());
+        assertTrue(monitors.isEmpty(), "synchronized pins virtual threads, use a ReentrantLock: " + monitors);
+    }
+
+    private static final class MonitorFinder extends ClassVisitor {
+        private final List<String> monitors;
+        private String className;
+
+        MonitorFinder(List<String> monitors) {
+            super(Opcodes.ASM9);
+            this.monitors = monitors;
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName,
+                          String[] interfaces) {
+            className = name.replace('/', '.');
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+                                         String[] exceptions) {
+            String method = className + "." + name;
+            if ((access & Opcodes.ACC_SYNCHRONIZED) != 0) {
+                monitors.add(method + " (synchronized method)");
+            }
+            return new MethodVisitor(Opcodes.ASM9) {
+                @Override
+                public void visitInsn(int opcode) {
+                    if (opcode == Opcodes.MONITORENTER) {
+                        monitors.add(method + " (synchronized block)");
+                    }
+                }
+            };
+        }
+    }
+}
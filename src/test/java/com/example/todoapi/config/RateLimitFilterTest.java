@@ -0,0 +1,268 @@
+package com.example.todoapi.config;
+
+import com.example.todoapi.service.CurrentUser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.PathContainer;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitFilterTest {
+    private final AtomicLong nanos = new AtomicLong();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RateLimitProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.getDefaultBudget().setCapacity(3);
+        properties.getDefaultBudget().setPerSecond(1);
+        RateLimitProperties.Budget logReads = new RateLimitProperties.Budget();
+        logReads.setEndpoints(List.of("GET /api/logs/search"));
+        logReads.setCapacity(1);
+        logReads.setPerSecond(0.5);
+        properties.getBudgets().put("log-reads", logReads);
+        properties.getConcurrency().setInitialLimit(1);
+        properties.getConcurrency().setMinLimit(1);
+    }
+
+    @Test
+    void doFilter_ShouldAnswer429WithRetryAfterOnceTheClientBudgetIsSpent() throws Exception {
+        RateLimitFilter filter = filter();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, send(filter, "GET", "/api/todos/1", "10.0.0.1").getStatus());
+        }
+        MockHttpServletResponse rejected = send(filter, "GET", "/api/todos/1", "10.0.0.1");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("\"status\":429"));
+        assertEquals(200, send(filter, "GET", "/api/todos/1", "10.0.0.2").getStatus());
+        assertEquals(1.0, meterRegistry.get("todos.ratelimit.requests")
+                .tags("budget", "default", "outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void doFilter_ShouldRefillTheBucketOverTime() throws Exception {
+        RateLimitFilter filter = filter();
+        for (int i = 0; i < 3; i++) {
+            send(filter, "GET", "/api/todos/1", "10.0.0.1");
+        }
+        assertEquals(429, send(filter, "GET", "/api/todos/1", "10.0.0.1").getStatus());
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertEquals(200, send(filter, "GET", "/api/todos/1", "10.0.0.1").getStatus());
+        assertEquals(429, send(filter, "GET", "/api/todos/1", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void doFilter_ShouldKeepExpensiveEndpointsOnTheirOwnBudget() throws Exception {
+        RateLimitFilter filter = filter();
+
+        assertEquals(200, send(filter, "GET", "/api/logs/search", "10.0.0.1").getStatus());
+        MockHttpServletResponse rejected = send(filter, "GET", "/api/logs/search", "10.0.0.1");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("2", rejected.getHeader("Retry-After"));
+        assertEquals(200, send(filter, "GET", "/api/todos/1", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void doFilter_ShouldIgnoreUnverifiedApiKeys() throws Exception {
+        RateLimitFilter filter = filter();
+        for (int i = 0; i < 3; i++) {
+            send(filter, "GET", "/api/todos/1", "10.0.0.1");
+        }
+
+        MockHttpServletRequest request = request("GET", "/api/todos/1", "10.0.0.1");
+        request.addHeader("X-API-Key", "client-" + System.nanoTime());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertEquals(429, response.getStatus());
+    }
+
+    @Test
+    void doFilter_ShouldBudgetSignedInUsersByTenantAndName() throws Exception {
+        RateLimitFilter filter = filter();
+        try {
+            signIn("alice", "acme");
+            for (int i = 0; i < 3; i++) {
+                send(filter, "GET", "/api/todos/1", "10.0.0.1");
+            }
+            assertEquals(429, send(filter, "GET", "/api/todos/1", "10.0.0.2").getStatus());
+
+            signIn("alice", "globex");
+            assertEquals(200, send(filter, "GET", "/api/todos/1", "10.0.0.1").getStatus());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    void doFilter_ShouldShedWith503WhenTheConcurrencyLimitIsReached() throws Exception {
+        properties.setEnabled(false);
+        RateLimitFilter filter = filter();
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+        FilterChain holdingSlot = (request, response) ->
+                nested[0] = send(filter, "GET", "/api/todos/1", "10.0.0.2");
+
+        MockHttpServletResponse outer = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/todos/1", "10.0.0.1"), outer, holdingSlot);
+
+        assertEquals(200, outer.getStatus());
+        assertEquals(503, nested[0].getStatus());
+        assertEquals("1", nested[0].getHeader("Retry-After"));
+        assertEquals(200, send(filter, "GET", "/api/todos/1", "10.0.0.2").getStatus());
+        assertEquals(1.0, meterRegistry.get("todos.concurrency.rejected").counter().count());
+    }
+
+    @Test
+    void doFilter_ShouldNotHoldSlotsForExcludedStreams() throws Exception {
+        properties.setEnabled(false);
+        RateLimitFilter filter = filter();
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+        FilterChain holdingStream = (request, response) ->
+                nested[0] = send(filter, "GET", "/api/todos/1", "10.0.0.2");
+
+        filter.doFilter(request("GET", "/api/logs/stream", "10.0.0.1"), new MockHttpServletResponse(), holdingStream);
+
+        assertEquals(200, nested[0].getStatus());
+    }
+
+    @Test
+    void doFilter_ShouldHoldTheSlotUntilAnAsyncResponseCompletes() throws Exception {
+        properties.setEnabled(false);
+        RateLimitFilter filter = filter();
+        MockHttpServletRequest streaming = request("GET", "/api/todos", "10.0.0.1");
+        streaming.setAsyncSupported(true);
+        FilterChain startingAsync = (request, response) -> request.startAsync();
+
+        filter.doFilter(streaming, new MockHttpServletResponse(), startingAsync);
+
+        assertEquals(503, send(filter, "GET", "/api/todos/1", "10.0.0.2").getStatus());
+        streaming.getAsyncContext().complete();
+        assertEquals(200, send(filter, "GET", "/api/todos/1", "10.0.0.2").getStatus());
+    }
+
+    @Test
+    void doFilter_ShouldNotShrinkTheLimitForLongRunningStreams() throws Exception {
+        properties.setEnabled(false);
+        properties.getConcurrency().setInitialLimit(4);
+        properties.getConcurrency().setTargetLatency(Duration.ofNanos(1));
+        RateLimiter rateLimiter = new RateLimiter(properties, meterRegistry, nanos::get);
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(properties.getConcurrency(), meterRegistry);
+        RateLimitFilter filter = new RateLimitFilter(rateLimiter, limiter, properties, new ObjectMapper());
+        MockHttpServletRequest streaming = request("GET", "/api/todos", "10.0.0.1");
+        streaming.setAsyncSupported(true);
+        FilterChain startingAsync = (request, response) -> request.startAsync();
+
+        filter.doFilter(streaming, new MockHttpServletResponse(), startingAsync);
+        Thread.sleep(5);
+        streaming.getAsyncContext().complete();
+
+        assertEquals(4.0, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void release_ShouldShrinkTheLimitOnSlowRequestsAndGrowItWhileInUse() {
+        RateLimitProperties.Concurrency concurrency = new RateLimitProperties.Concurrency();
+        concurrency.setInitialLimit(10);
+        concurrency.setMinLimit(2);
+        concurrency.setTargetLatency(Duration.ofMillis(100));
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(concurrency, meterRegistry, nanos::get);
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(500), false);
+            nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        }
+        assertEquals(2.0, limiter.limit());
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(10), false);
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(10), false);
+
+        assertTrue(limiter.limit() > 2.0);
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void release_ShouldShrinkTheLimitOncePerTargetLatencyForABurstOfSlowRequests() {
+        RateLimitProperties.Concurrency concurrency = new RateLimitProperties.Concurrency();
+        concurrency.setInitialLimit(20);
+        concurrency.setTargetLatency(Duration.ofMillis(100));
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(concurrency, meterRegistry, nanos::get);
+
+        for (int i = 0; i < 15; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        for (int i = 0; i < 15; i++) {
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(500), i % 2 == 0);
+        }
+        assertEquals(18.0, limiter.limit(), 1e-9);
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(limiter.tryAcquire());
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(500), false);
+        assertEquals(16.2, limiter.limit(), 1e-9);
+    }
+
+    @Test
+    void appliesTo_ShouldLeaveOutLogReadsAndTokenIssue() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new RateLimitProperties.Concurrency(), meterRegistry);
+
+        assertTrue(limiter.appliesTo(PathContainer.parsePath("/api/todos")));
+        assertFalse(limiter.appliesTo(PathContainer.parsePath("/api/logs/search")));
+        assertFalse(limiter.appliesTo(PathContainer.parsePath("/api/auth/token")));
+        assertFalse(limiter.appliesTo(PathContainer.parsePath("/api/events")));
+    }
+
+    private RateLimitFilter filter() {
+        RateLimiter rateLimiter = new RateLimiter(properties, meterRegistry, nanos::get);
+        ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(properties.getConcurrency(), meterRegistry);
+        return new RateLimitFilter(rateLimiter, concurrencyLimiter, properties,
+                new ObjectMapper().findAndRegisterModules());
+    }
+
+    private static void signIn(String name, String tenant) {
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                new CurrentUser.SignedIn(name, tenant), null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+
+    private static MockHttpServletResponse send(RateLimitFilter filter, String method, String uri, String address) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request(method, uri, address), response, new MockFilterChain());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String address) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(address);
+        return request;
+    }
+}
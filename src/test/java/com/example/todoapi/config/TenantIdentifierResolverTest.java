@@ -0,0 +1,212 @@
+package com.example.todoapi.config;
+
+import com.example.todoapi.dto.CategoryDTO;
+import com.example.todoapi.dto.TodoDTO;
+import com.example.todoapi.model.Category;
+import com.example.todoapi.model.Todo;
+import com.example.todoapi.repository.CategoryRepository;
+import com.example.todoapi.repository.TodoRepository;
+import com.example.todoapi.service.CategoryService;
+import com.example.todoapi.service.CollectionVersionService;
+import com.example.todoapi.service.CurrentUser;
+import com.example.todoapi.service.DueDateScheduler;
+import com.example.todoapi.service.OutboxService;
+import com.example.todoapi.service.TodoChangeService;
+import com.example.todoapi.service.TodoSearchService;
+import com.example.todoapi.service.TodoService;
+import com.example.todoapi.service.TodoStatsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tenant partitioning against a real schema. Tests run outside a test transaction, so that every repository call
+ * opens a session for whoever is signed in at that point.
+ */
+@DataJpaTest(properties = "logging.file.name=target/test-logs/application.log")
+@Import({TodoService.class, CategoryService.class, TodoChangeService.class, SecondLevelCacheConfig.class,
+        TenancyConfig.class, AuthConfig.class, SimpleMeterRegistry.class, CurrentUser.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TenantIdentifierResolverTest {
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @MockBean
+    private TodoStatsService todoStatsService;
+
+    @MockBean
+    private TodoSearchService todoSearchService;
+
+    @MockBean
+    private CollectionVersionService collectionVersionService;
+
+    @MockBean
+    private DueDateScheduler dueDateScheduler;
+
+    @MockBean
+    private OutboxService outboxService;
+
+    @MockBean
+    private Validator validator;
+
+    private Todo globexTodo;
+
+    @BeforeEach
+    void setUp() {
+        // The same username in two tenants: only the tenant tells the rows apart
+        signIn("alice", "acme");
+        save("Acme todo");
+        signIn("alice", "globex");
+        globexTodo = save("Globex todo");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        todoRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void queries_ShouldOnlySeeTheSignedInTenant() {
+        signIn("alice", "acme");
+
+        assertEquals(1, categoryRepository.findByOwner("alice").size());
+        assertEquals("Acme todo", todoRepository.findAll().get(0).getTitle());
+        assertEquals(1, todoRepository.count());
+        assertEquals(1L, todoRepository.countGrouped("alice").get(0)[3]);
+        assertEquals("acme", todoRepository.findAll().get(0).getTenant());
+    }
+
+    @Test
+    void bulkDelete_ShouldOnlyAffectTheSignedInTenant() {
+        signIn("alice", "globex");
+        Long categoryId = categoryRepository.findByOwner("alice").get(0).getId();
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> todoRepository.deleteAllByCategoryIdInBatch(categoryId));
+
+        assertEquals(0, todoRepository.count());
+        SecurityContextHolder.clearContext();
+        assertEquals(1, todoRepository.count());
+    }
+
+    @Test
+    void loadsById_ShouldNotReachAcrossTenants() {
+        // Loads by id are not filtered by tenant; start from the database rather than the second-level cache
+        entityManagerFactory.getCache().evictAll();
+        Long todoId = globexTodo.getId();
+        Long categoryId = globexTodo.getCategory().getId();
+        TodoDTO todo = new TodoDTO();
+        todo.setTitle("Taken over");
+        CategoryDTO category = new CategoryDTO();
+        category.setName("Taken over");
+        signIn("alice", "acme");
+
+        assertThrows(EntityNotFoundException.class, () -> todoService.findById(todoId));
+        assertThrows(EntityNotFoundException.class, () -> todoService.update(todoId, todo));
+        assertThrows(EntityNotFoundException.class, () -> todoService.delete(todoId));
+        assertThrows(EntityNotFoundException.class, () -> categoryService.findById(categoryId));
+        assertThrows(EntityNotFoundException.class, () -> categoryService.update(categoryId, category));
+        assertThrows(EntityNotFoundException.class, () -> categoryService.delete(categoryId));
+
+        signIn("alice", "globex");
+        assertEquals("Globex todo", todoService.findById(todoId).getTitle());
+        assertEquals("Work", categoryService.findById(categoryId).getName());
+    }
+
+    @Test
+    void create_ShouldReportTheTenantAlongWithTheOwner() {
+        signIn("alice", "acme");
+        TodoDTO todo = new TodoDTO();
+        todo.setTitle("Acme report");
+
+        todoService.create(todo);
+
+        ArgumentCaptor<TodoStatsService.TodoState> state = ArgumentCaptor.forClass(TodoStatsService.TodoState.class);
+        verify(todoStatsService).recordCreated(state.capture());
+        assertEquals("acme:alice", state.getValue().user());
+        ArgumentCaptor<TodoDTO> indexed = ArgumentCaptor.forClass(TodoDTO.class);
+        verify(todoSearchService).index(indexed.capture());
+        assertEquals("acme", indexed.getValue().getTenant());
+    }
+
+    @Test
+    void countsByOwner_ShouldKeepNamesakesInOtherTenantsApart() {
+        SecurityContextHolder.clearContext();
+
+        assertEquals(2, todoRepository.countGroupedByOwner().size());
+    }
+
+    @Test
+    void withNobodySignedIn_ShouldSeeAllTenants() {
+        SecurityContextHolder.clearContext();
+
+        assertEquals(2, todoRepository.count());
+        assertEquals(2, categoryRepository.findByOwner("alice").size());
+    }
+
+    @Test
+    void resolve_WithoutTenantClaim_ShouldUseDefaultTenant() {
+        TenantIdentifierResolver resolver = new TenantIdentifierResolver();
+        SecurityContextHolder.getContext()
+                .setAuthentication(new TestingAuthenticationToken("alice", null, "ROLE_USER"));
+
+        assertEquals(CurrentUser.DEFAULT_TENANT, resolver.resolveCurrentTenantIdentifier());
+        assertFalse(resolver.isRoot(resolver.resolveCurrentTenantIdentifier()));
+        SecurityContextHolder.clearContext();
+        assertTrue(resolver.isRoot(resolver.resolveCurrentTenantIdentifier()));
+    }
+
+    private void signIn(String name, String tenant) {
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                new CurrentUser.SignedIn(name, tenant), null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+
+    private Todo save(String title) {
+        Category category = new Category();
+        category.setOwner("alice");
+        category.setName("Work");
+        categoryRepository.save(category);
+        Todo todo = new Todo();
+        todo.setOwner("alice");
+        todo.setTitle(title);
+        todo.setCategory(category);
+        return todoRepository.save(todo);
+    }
+}
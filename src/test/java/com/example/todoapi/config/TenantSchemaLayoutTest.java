@@ -0,0 +1,135 @@
+package com.example.todoapi.config;
+
+import com.example.todoapi.model.Category;
+import com.example.todoapi.model.Todo;
+import com.example.todoapi.repository.CategoryRepository;
+import com.example.todoapi.repository.TodoRepository;
+import com.example.todoapi.service.CurrentUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The schema layout against a real database: each tenant's rows in a schema of its own. Tests run outside a test
+ * transaction, so that every repository call opens a session for whoever is signed in at that point.
+ */
+@DataJpaTest(properties = {
+        "logging.file.name=target/test-logs/application.log",
+        "todos.tenancy.layout=schema",
+        "todos.auth.users.alice.tenant=acme",
+        "todos.auth.users.bob.tenant=globex"
+})
+@Import({TenancyConfig.class, AuthConfig.class, SecondLevelCacheConfig.class, CurrentUser.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TenantSchemaLayoutTest {
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TenantPartitions tenantPartitions;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private Todo acmeTodo;
+    private Todo globexTodo;
+
+    @BeforeEach
+    void setUp() {
+        signIn("alice", "acme");
+        acmeTodo = save("alice", "Acme todo");
+        signIn("bob", "globex");
+        globexTodo = save("bob", "Globex todo");
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String tenant : List.of("acme", "globex")) {
+            try (TenantIdentifierResolver.Scope ignored = TenantIdentifierResolver.scope(tenant)) {
+                todoRepository.deleteAllInBatch();
+                categoryRepository.deleteAllInBatch();
+            }
+        }
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void writes_ShouldLandInTheSchemaOfTheSignedInTenant() {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+        assertEquals(List.of("Acme todo"), jdbc.queryForList("select title from TENANT_ACME.todo", String.class));
+        assertEquals(List.of("Globex todo"), jdbc.queryForList("select title from TENANT_GLOBEX.todo", String.class));
+        assertEquals(0, jdbc.queryForObject("select count(*) from PUBLIC.todo", Long.class));
+        assertEquals(1, jdbc.queryForObject("select count(*) from TENANT_ACME.category", Long.class));
+        // Ids come from the shared sequence, so they never repeat across tenants
+        assertNotEquals(acmeTodo.getId(), globexTodo.getId());
+    }
+
+    @Test
+    void queries_ShouldOnlySeeTheSignedInTenantsSchema() {
+        signIn("alice", "acme");
+
+        assertEquals(List.of("Acme todo"), todoRepository.findAll().stream().map(Todo::getTitle).toList());
+        assertTrue(todoRepository.findById(globexTodo.getId()).isEmpty());
+    }
+
+    @Test
+    void collect_ShouldRunOncePerTenantWithNobodySignedIn() {
+        SecurityContextHolder.clearContext();
+
+        List<Object[]> counts = tenantPartitions.collect(todoRepository::countGroupedByOwner);
+
+        assertEquals(List.of("acme:alice", "globex:bob"),
+                counts.stream().map(row -> CurrentUser.userKey((String) row[0], (String) row[1])).toList());
+    }
+
+    @Test
+    void partitions_WithTenantsMappingToTheSameSchema_ShouldFail() {
+        TenancyProperties tenancy = new TenancyProperties();
+        tenancy.setLayout(TenancyProperties.Layout.SCHEMA);
+        AuthProperties auth = new AuthProperties();
+        for (Map.Entry<String, String> user : Map.of("alice", "north-east", "bob", "north_east").entrySet()) {
+            AuthProperties.Account account = new AuthProperties.Account();
+            account.setTenant(user.getValue());
+            auth.getUsers().put(user.getKey(), account);
+        }
+
+        assertThrows(IllegalStateException.class, () -> new TenantPartitions(tenancy, auth));
+    }
+
+    private void signIn(String name, String tenant) {
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                new CurrentUser.SignedIn(name, tenant), null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+
+    private Todo save(String owner, String title) {
+        Category category = new Category();
+        category.setOwner(owner);
+        category.setName("Work");
+        categoryRepository.save(category);
+        Todo todo = new Todo();
+        todo.setOwner(owner);
+        todo.setTitle(title);
+        todo.setCategory(category);
+        return todoRepository.save(todo);
+    }
+}
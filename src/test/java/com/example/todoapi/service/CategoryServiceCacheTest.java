@@ -0,0 +1,147 @@
+package com.example.todoapi.service;
+
+import com.example.todoapi.config.CacheConfig;
+import com.example.todoapi.dto.CategoryDTO;
+import com.example.todoapi.model.Category;
+import com.example.todoapi.repository.CategoryRepository;
+import com.example.todoapi.repository.TodoRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig({CacheConfig.class, CategoryService.class, CurrentUser.class})
+public class CategoryServiceCacheTest {
+
+    @MockBean
+    private CategoryRepository categoryRepository;
+
+    @MockBean
+    private TodoRepository todoRepository;
+
+    @MockBean
+    private TodoStatsService todoStatsService;
+
+    @MockBean
+    private TodoSearchService todoSearchService;
+
+    @MockBean
+    private CollectionVersionService collectionVersionService;
+
+    @MockBean
+    private DueDateScheduler dueDateScheduler;
+
+    @MockBean
+    private OutboxService outboxService;
+
+    @MockBean
+    private TodoChangeService todoChangeService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        signIn("alice");
+        category = new Category();
+        category.setId(1L);
+        category.setTenant(CurrentUser.DEFAULT_TENANT);
+        category.setOwner("alice");
+        category.setName("Work");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void findById_ShouldHitDatabaseOnce() {
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+
+        categoryService.findById(1L);
+        CategoryDTO cached = categoryService.findById(1L);
+
+        assertEquals("Work", cached.getName());
+        verify(categoryRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void update_ShouldRefreshEntryAndInvalidateList() {
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(categoryRepository.findByOwner("alice")).thenReturn(List.of(category));
+        when(categoryRepository.save(any(Category.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        categoryService.findAll();
+
+        CategoryDTO changes = new CategoryDTO();
+        changes.setName("Personal");
+        categoryService.update(1L, changes);
+
+        assertEquals("Personal", categoryService.findById(1L).getName());
+        categoryService.findAll();
+        verify(categoryRepository, times(2)).findByOwner("alice");
+    }
+
+    @Test
+    void exists_ShouldCacheOnlyPositiveAnswersUntilDelete() {
+        when(categoryRepository.existsByIdAndOwner(2L, "alice")).thenReturn(false, true);
+        when(categoryRepository.existsByIdAndOwner(1L, "alice")).thenReturn(true);
+
+        assertFalse(categoryService.exists(2L));
+        assertTrue(categoryService.exists(2L));
+        assertTrue(categoryService.exists(1L));
+        assertTrue(categoryService.exists(1L));
+        verify(categoryRepository, times(1)).existsByIdAndOwner(1L, "alice");
+
+        categoryService.delete(1L);
+        when(categoryRepository.existsByIdAndOwner(1L, "alice")).thenReturn(false);
+
+        assertFalse(categoryService.exists(1L));
+    }
+
+    @Test
+    void findById_ShouldKeepEntriesApartPerUser() {
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        categoryService.findById(1L);
+
+        signIn("bob");
+
+        assertThrows(EntityNotFoundException.class, () -> categoryService.findById(1L));
+        verify(categoryRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void findAll_ShouldKeepEntriesApartPerTenant() {
+        when(categoryRepository.findByOwner("alice")).thenReturn(List.of(category));
+        categoryService.findAll();
+
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(
+                new CurrentUser.SignedIn("alice", "globex"), null, "ROLE_USER"));
+        categoryService.findAll();
+
+        verify(categoryRepository, times(2)).findByOwner("alice");
+    }
+
+    private static void signIn(String user) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(user, null, "ROLE_USER"));
+    }
+}
@@ -3,6 +3,7 @@ package com.example.todoapi.service;
 import com.example.todoapi.dto.CategoryDTO;
 import com.example.todoapi.model.Category;
 import com.example.todoapi.repository.CategoryRepository;
+import com.example.todoapi.repository.TodoRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,12 +12,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +30,30 @@ public class CategoryServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private TodoStatsService todoStatsService;
+
+    @Mock
+    private TodoSearchService todoSearchService;
+
+    @Mock
+    private CollectionVersionService collectionVersionService;
+
+    @Mock
+    private TodoChangeService todoChangeService;
+
+    @Mock
+    private DueDateScheduler dueDateScheduler;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private CurrentUser currentUser;
+
     @InjectMocks
     private CategoryService categoryService;
 
@@ -37,22 +66,27 @@ public class CategoryServiceTest {
         category.setId(1L);
         category.setName("Test Category");
         category.setDescription("Test Description");
+        category.setTenant("acme");
+        category.setOwner("alice");
 
         categoryDTO = new CategoryDTO();
         categoryDTO.setName("Test Category");
         categoryDTO.setDescription("Test Description");
+
+        lenient().when(currentUser.id()).thenReturn("alice");
+        lenient().when(currentUser.tenant()).thenReturn("acme");
     }
 
     @Test
     void findAll_ShouldReturnListOfCategories() {
-        when(categoryRepository.findAll()).thenReturn(Arrays.asList(category));
+        when(categoryRepository.findByOwner("alice")).thenReturn(Arrays.asList(category));
 
         List<CategoryDTO> result = categoryService.findAll();
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(category.getName(), result.get(0).getName());
-        verify(categoryRepository).findAll();
+        verify(categoryRepository).findByOwner("alice");
     }
 
     @Test
@@ -74,6 +108,22 @@ public class CategoryServiceTest {
         verify(categoryRepository).findById(1L);
     }
 
+    @Test
+    void findById_WhenCategoryBelongsToAnotherUser_ShouldThrowException() {
+        category.setOwner("bob");
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+
+        assertThrows(EntityNotFoundException.class, () -> categoryService.findById(1L));
+    }
+
+    @Test
+    void exists_ShouldDelegateToRepository() {
+        when(categoryRepository.existsByIdAndOwner(1L, "alice")).thenReturn(true);
+
+        assertTrue(categoryService.exists(1L));
+        verify(categoryRepository).existsByIdAndOwner(1L, "alice");
+    }
+
     @Test
     void create_ShouldReturnCreatedCategory() {
         when(categoryRepository.save(any(Category.class))).thenReturn(category);
@@ -82,7 +132,7 @@ public class CategoryServiceTest {
 
         assertNotNull(result);
         assertEquals(categoryDTO.getName(), result.getName());
-        verify(categoryRepository).save(any(Category.class));
+        verify(categoryRepository).save(argThat(saved -> "alice".equals(saved.getOwner())));
     }
 
     @Test
@@ -109,20 +159,57 @@ public class CategoryServiceTest {
 
     @Test
     void delete_WhenCategoryExists_ShouldDeleteCategory() {
-        when(categoryRepository.existsById(1L)).thenReturn(true);
+        when(categoryRepository.existsByIdAndOwner(1L, "alice")).thenReturn(true);
+        when(todoRepository.findIdsByCategoryId(1L)).thenReturn(List.of(3L, 4L));
 
         categoryService.delete(1L);
 
-        verify(categoryRepository).existsById(1L);
-        verify(categoryRepository).deleteById(1L);
+        verify(categoryRepository).existsByIdAndOwner(1L, "alice");
+        verify(todoChangeService).recordCategoryDeleted(1L);
+        verify(todoRepository).deleteAllByCategoryIdInBatch(1L);
+        verify(categoryRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(todoStatsService).recordBulkChange();
+        verify(outboxService).recordAll(OutboxService.TODO, OutboxService.DELETED, List.of(3L, 4L), null);
+        verify(outboxService).record(OutboxService.CATEGORY, OutboxService.DELETED, 1L, null);
+        // The category's todos went with it
+        verify(collectionVersionService).categoriesChanged();
+        verify(collectionVersionService).todosChanged();
     }
 
     @Test
     void delete_WhenCategoryDoesNotExist_ShouldThrowException() {
-        when(categoryRepository.existsById(1L)).thenReturn(false);
+        when(categoryRepository.existsByIdAndOwner(1L, "alice")).thenReturn(false);
 
         assertThrows(EntityNotFoundException.class, () -> categoryService.delete(1L));
-        verify(categoryRepository).existsById(1L);
-        verify(categoryRepository, never()).deleteById(any());
+        verify(categoryRepository).existsByIdAndOwner(1L, "alice");
+        verify(categoryRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void delete_WithReassign_ShouldMoveTodosInsteadOfDeletingThem() {
+        Category target = new Category();
+        target.setId(2L);
+        when(categoryRepository.existsByIdAndOwner(1L, "alice")).thenReturn(true);
+        when(categoryRepository.existsByIdAndOwner(2L, "alice")).thenReturn(true);
+        when(categoryRepository.getReferenceById(2L)).thenReturn(target);
+        when(todoChangeService.recordBulkChange()).thenReturn(7L);
+        when(todoRepository.findIdsByCategoryId(1L)).thenReturn(List.of(3L));
+
+        categoryService.delete(1L, 2L);
+
+        verify(todoRepository).reassignCategory(eq(1L), eq(target), eq(7L), any(LocalDateTime.class));
+        verify(todoRepository, never()).deleteAllByCategoryIdInBatch(any());
+        verify(todoSearchService).reindexAll(List.of(3L));
+        verify(outboxService).recordAll(OutboxService.TODO, OutboxService.MOVED, List.of(3L), Map.of("categoryId", 2L));
+        verify(categoryRepository).deleteAllByIdInBatch(List.of(1L));
+    }
+
+    @Test
+    void delete_WithReassignToItself_ShouldThrowException() {
+        when(categoryRepository.existsByIdAndOwner(1L, "alice")).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class, () -> categoryService.delete(1L, 1L));
+        verify(todoRepository, never()).reassignCategory(any(), any(), anyLong(), any());
+        verify(categoryRepository, never()).deleteAllByIdInBatch(any());
     }
 } 
\ No newline at end of file
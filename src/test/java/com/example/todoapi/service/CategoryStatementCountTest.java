@@ -0,0 +1,150 @@
+package com.example.todoapi.service;
+
+import com.example.todoapi.config.AuthConfig;
+import com.example.todoapi.config.SecondLevelCacheConfig;
+import com.example.todoapi.config.StatementCounter;
+import com.example.todoapi.config.TenancyConfig;
+import com.example.todoapi.dto.TodoPageDTO;
+import com.example.todoapi.model.Category;
+import com.example.todoapi.model.Todo;
+import com.example.todoapi.repository.CategoryRepository;
+import com.example.todoapi.repository.TodoRepository;
+import com.example.todoapi.repository.TodoTombstoneRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pins the number of SQL statements of the category paths against a real schema. The counts must not depend on
+ * how many todos a category holds; a test failing here usually means a lazy load or cascade crept into the path.
+ */
+@DataJpaTest(properties = "logging.file.name=target/test-logs/application.log")
+@Import({CategoryService.class, TodoService.class, TodoChangeService.class, SecondLevelCacheConfig.class,
+        TenancyConfig.class, AuthConfig.class, SimpleMeterRegistry.class, CurrentUser.class})
+public class CategoryStatementCountTest {
+    private static final int TODOS = 25;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TodoTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockBean
+    private TodoStatsService todoStatsService;
+
+    @MockBean
+    private TodoSearchService todoSearchService;
+
+    @MockBean
+    private CollectionVersionService collectionVersionService;
+
+    @MockBean
+    private DueDateScheduler dueDateScheduler;
+
+    @MockBean
+    private OutboxService outboxService;
+
+    @MockBean
+    private Validator validator;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.getContext()
+                .setAuthentication(new TestingAuthenticationToken("alice", null, "ROLE_USER"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void delete_ShouldUseConstantStatements() {
+        Category category = seed("Work", TODOS);
+
+        StatementCounter.reset();
+        categoryService.delete(category.getId());
+        entityManager.flush();
+
+        // exists, todo ids for the outbox, tombstones, todos, category
+        assertEquals(5, StatementCounter.count());
+        assertEquals(0, todoRepository.count());
+        assertEquals(TODOS, tombstoneRepository.count());
+        assertFalse(categoryRepository.existsById(category.getId()));
+    }
+
+    @Test
+    void deleteWithReassign_ShouldUseConstantStatements() {
+        Category category = seed("Work", TODOS);
+        Category target = seed("Home", 0);
+
+        StatementCounter.reset();
+        categoryService.delete(category.getId(), target.getId());
+        entityManager.flush();
+
+        // exists twice, todo ids for the outbox, reassign, category
+        assertEquals(5, StatementCounter.count());
+        entityManager.clear();
+        assertEquals(TODOS, todoRepository.findByCategoryId(target.getId()).size());
+        assertEquals(0, tombstoneRepository.count());
+    }
+
+    @Test
+    void findCategoryPage_ShouldUseConstantStatements() {
+        Category category = seed("Work", TODOS);
+
+        StatementCounter.reset();
+        TodoPageDTO page = todoService.findCategoryPage(category.getId(), null, null, "createdAt", "DESC", null, 10);
+
+        // exists, page
+        assertEquals(2, StatementCounter.count());
+        assertEquals(10, page.getItems().size());
+        assertNotNull(page.getNext());
+    }
+
+    private Category seed(String name, int todos) {
+        Category category = new Category();
+        category.setOwner("alice");
+        category.setName(name);
+        categoryRepository.save(category);
+        List<Todo> rows = new ArrayList<>();
+        for (int i = 0; i < todos; i++) {
+            Todo todo = new Todo();
+            todo.setOwner("alice");
+            todo.setTitle(name + " todo " + i);
+            todo.setCategory(category);
+            rows.add(todo);
+        }
+        todoRepository.saveAll(rows);
+        entityManager.flush();
+        entityManager.clear();
+        return category;
+    }
+}
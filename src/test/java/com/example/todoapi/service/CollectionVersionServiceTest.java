@@ -0,0 +1,72 @@
+package com.example.todoapi.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CollectionVersionServiceTest {
+
+    private final CollectionVersionService collectionVersionService =
+            new CollectionVersionService(new CurrentUser(), 100);
+
+    @BeforeEach
+    void setUp() {
+        signIn("alice");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void todosChanged_ShouldChangeOnlyTheTodoTag() {
+        String todos = collectionVersionService.todos().eTag();
+        String categories = collectionVersionService.categories().eTag();
+
+        collectionVersionService.todosChanged();
+
+        assertNotEquals(todos, collectionVersionService.todos().eTag());
+        assertEquals(categories, collectionVersionService.categories().eTag());
+        assertTrue(collectionVersionService.todos().eTag().matches("\"[0-9a-z]+-[0-9]+-[A-Za-z0-9_-]+\""));
+    }
+
+    @Test
+    void todosChanged_ShouldLeaveOtherUsersTagsAlone() {
+        signIn("bob");
+        String bob = collectionVersionService.todos().eTag();
+        signIn("alice");
+        String alice = collectionVersionService.todos().eTag();
+
+        collectionVersionService.todosChanged();
+
+        assertNotEquals(alice, collectionVersionService.todos().eTag());
+        signIn("bob");
+        assertEquals(bob, collectionVersionService.todos().eTag());
+    }
+
+    @Test
+    void todosChanged_InsideTransaction_ShouldWaitForCommit() {
+        String before = collectionVersionService.todos().eTag();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            collectionVersionService.todosChanged();
+            assertEquals(before, collectionVersionService.todos().eTag());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertNotEquals(before, collectionVersionService.todos().eTag());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void signIn(String name) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(name, null, "ROLE_USER"));
+    }
+}
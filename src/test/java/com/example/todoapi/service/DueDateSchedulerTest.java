@@ -0,0 +1,163 @@
+package com.example.todoapi.service;
+
+import com.example.todoapi.config.AuthProperties;
+import com.example.todoapi.config.TenancyProperties;
+import com.example.todoapi.config.TenantPartitions;
+import com.example.todoapi.model.Category;
+import com.example.todoapi.model.Todo;
+import com.example.todoapi.repository.TodoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DueDateSchedulerTest {
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private CurrentUser currentUser;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TenantPartitions tenantPartitions =
+            new TenantPartitions(new TenancyProperties(), new AuthProperties());
+    private final List<Object[]> rows = new ArrayList<>();
+    private DueDateScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(todoRepository.findOpenDueAfter(any())).thenReturn(rows);
+        scheduler = new DueDateScheduler(todoRepository, currentUser, tenantPartitions, Duration.ofMillis(200),
+                Duration.ofHours(1), 10, 2, 60_000, Runnable::run, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void start_ShouldFireReminderThenOverdueToTheOwnerOnly() throws InterruptedException {
+        rows.add(new Object[]{1L, "acme", "alice", "Ship it", 7L, LocalDateTime.now().plusNanos(400_000_000)});
+        SseSubscriberTest.RecordingEmitter alice = subscribe("acme", "alice");
+        SseSubscriberTest.RecordingEmitter namesake = subscribe("globex", "alice");
+
+        scheduler.start();
+        awaitEvents(alice, 2);
+
+        assertTrue(alice.events.get(0).contains("event:reminder"));
+        assertTrue(alice.events.get(0).contains("title=Ship it"));
+        assertTrue(alice.events.get(1).contains("event:overdue"));
+        assertTrue(namesake.events.isEmpty());
+        assertEquals(0, scheduler.pendingCount());
+        assertEquals(2, meterRegistry.get("todos.due.lag").timer().count());
+        assertEquals(1.0, meterRegistry.get("todos.due.events").tag("type", "OVERDUE").counter().count());
+    }
+
+    @Test
+    void schedule_ShouldReplaceAndDropEventsOfSavedTodos() {
+        scheduler.start();
+        Todo todo = todo(1L, LocalDateTime.now().plusHours(1));
+
+        scheduler.schedule(List.of(todo));
+        assertEquals(2, scheduler.pendingCount());
+
+        todo.setDueDate(LocalDateTime.now().plusNanos(100_000_000));
+        scheduler.schedule(List.of(todo));
+        assertEquals(1, scheduler.pendingCount());
+
+        todo.setDueDate(LocalDateTime.now().plusHours(1));
+        todo.setCompleted(true);
+        scheduler.schedule(List.of(todo));
+        assertEquals(0, scheduler.pendingCount());
+    }
+
+    @Test
+    void start_ShouldReplayWritesReportedDuringTheLoad() {
+        LocalDateTime dueDate = LocalDateTime.now().plusHours(1);
+        rows.add(new Object[]{1L, "acme", "alice", "Loaded", 7L, dueDate});
+        rows.add(new Object[]{2L, "acme", "alice", "Loaded", 7L, dueDate});
+        rows.add(new Object[]{3L, "acme", "alice", "Loaded", 8L, dueDate});
+
+        scheduler.schedule(List.of(todo(1L, dueDate.plusHours(1))));
+        scheduler.cancel(List.of(2L));
+        when(currentUser.userKey()).thenReturn("acme:alice");
+        scheduler.cancelCategory(8L);
+        scheduler.start();
+
+        assertEquals(2, scheduler.pendingCount());
+        verify(todoRepository, times(1)).findOpenDueAfter(any());
+    }
+
+    @Test
+    void start_ShouldHoldOverdueEventsMissedWhileDownForClientsThatReconnect() {
+        LocalDateTime dueDate = LocalDateTime.now().minusMinutes(10);
+        rows.add(new Object[]{1L, "acme", "alice", "Missed", 7L, dueDate});
+        rows.add(new Object[]{2L, "acme", "alice", "Done since", 7L, dueDate});
+        rows.add(new Object[]{3L, "acme", "bob", "Missed", 7L, dueDate});
+
+        scheduler.start();
+        scheduler.cancel(List.of(2L));
+        SseSubscriberTest.RecordingEmitter alice = subscribe("acme", "alice");
+        SseSubscriberTest.RecordingEmitter namesake = subscribe("globex", "alice");
+
+        assertEquals(1, alice.events.size());
+        assertTrue(alice.events.get(0).contains("event:overdue"));
+        assertTrue(alice.events.get(0).contains("id=1"));
+        assertTrue(namesake.events.isEmpty());
+        assertEquals(0, scheduler.pendingCount());
+    }
+
+    @Test
+    void register_WhenLimitReached_ShouldReject() {
+        subscribe("acme", "alice");
+        subscribe("acme", "bob");
+
+        assertThrows(RuntimeException.class, () -> subscribe("acme", "carol"));
+    }
+
+    private SseSubscriberTest.RecordingEmitter subscribe(String tenant, String owner) {
+        SseSubscriberTest.RecordingEmitter emitter = new SseSubscriberTest.RecordingEmitter();
+        scheduler.register(CurrentUser.userKey(tenant, owner),
+                new SseSubscriber<>(emitter, event -> event.getType().toLowerCase(), event -> true, 10,
+                        Runnable::run));
+        return emitter;
+    }
+
+    private static Todo todo(Long id, LocalDateTime dueDate) {
+        Category category = new Category();
+        category.setId(7L);
+        Todo todo = new Todo();
+        todo.setId(id);
+        todo.setTenant("acme");
+        todo.setOwner("alice");
+        todo.setTitle("Saved");
+        todo.setCategory(category);
+        todo.setDueDate(dueDate);
+        return todo;
+    }
+
+    private static void awaitEvents(SseSubscriberTest.RecordingEmitter emitter, int count)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (emitter.events.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, emitter.events.size());
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.todoapi.service;
+
+import com.example.todoapi.config.AuthProperties;
+import com.example.todoapi.config.JwtProperties;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtServiceTest {
+    private static final String SECRET = "test-secret-that-is-long-enough-for-hs256";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AuthProperties authProperties = new AuthProperties();
+    private JwtProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new JwtProperties();
+        properties.setSecret(SECRET);
+        properties.setExpiration(Duration.ofHours(1));
+        AuthProperties.Account alice = new AuthProperties.Account();
+        alice.setRoles(List.of("USER", "ADMIN"));
+        alice.setTenant("acme");
+        authProperties.getUsers().put("alice", alice);
+    }
+
+    @Test
+    void verify_ShouldReturnSubjectAndRolesAndServeRepeatsFromCache() {
+        JwtService jwtService = new JwtService(properties, authProperties, meterRegistry);
+        String token = jwtService.issue("alice", "acme", AuthorityUtils.createAuthorityList("ROLE_ADMIN"))
+                .getAccessToken();
+
+        JwtService.VerifiedToken first = jwtService.verify(token);
+        JwtService.VerifiedToken second = jwtService.verify(token);
+
+        assertEquals(new CurrentUser.SignedIn("alice", "acme"), first.user());
+        assertEquals(AuthorityUtils.createAuthorityList("ROLE_ADMIN"), first.authorities());
+        assertSame(first, second);
+        assertEquals(1.0, tokens("verified"));
+        assertEquals(1.0, tokens("cached"));
+    }
+
+    @Test
+    void verify_WithExpiredToken_ShouldThrowException() {
+        properties.setExpiration(Duration.ofSeconds(-1));
+        JwtService jwtService = new JwtService(properties, authProperties, meterRegistry);
+        String token = jwtService.issue("alice", "acme", List.of()).getAccessToken();
+
+        assertThrows(ExpiredJwtException.class, () -> jwtService.verify(token));
+        assertThrows(ExpiredJwtException.class, () -> jwtService.verify(token));
+        assertEquals(2.0, tokens("rejected"));
+    }
+
+    @Test
+    void verify_WithForeignSignatureOrMissingExpiry_ShouldThrowException() {
+        JwtService jwtService = new JwtService(properties, authProperties, meterRegistry);
+        String foreign = Jwts.builder()
+                .setSubject("alice")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor("another-secret-that-is-long-enough-too".getBytes(StandardCharsets.UTF_8)),
+                        SignatureAlgorithm.HS256)
+                .compact();
+        String endless = Jwts.builder()
+                .setSubject("alice")
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThrows(JwtException.class, () -> jwtService.verify(foreign));
+        assertThrows(JwtException.class, () -> jwtService.verify(endless));
+        assertThrows(JwtException.class, () -> jwtService.verify("not-a-token"));
+    }
+
+    @Test
+    void verify_WithUnknownUserOrForeignTenantOrRole_ShouldThrowException() {
+        JwtService jwtService = new JwtService(properties, authProperties, meterRegistry);
+        String unknown = jwtService.issue("mallory", "acme", List.of()).getAccessToken();
+        String otherTenant = jwtService.issue("alice", "globex", List.of()).getAccessToken();
+        String extraRole = jwtService.issue("alice", "acme", AuthorityUtils.createAuthorityList("ROLE_OWNER"))
+                .getAccessToken();
+
+        assertThrows(JwtException.class, () -> jwtService.verify(unknown));
+        assertThrows(JwtException.class, () -> jwtService.verify(otherTenant));
+        assertThrows(JwtException.class, () -> jwtService.verify(extraRole));
+        assertEquals(3.0, tokens("rejected"));
+    }
+
+    @Test
+    void constructor_WithoutSecret_ShouldThrowException() {
+        properties.setSecret("");
+
+        assertThrows(IllegalArgumentException.class, () -> new JwtService(properties, authProperties, meterRegistry));
+    }
+
+    @Test
+    void constructor_WithShortSecret_ShouldThrowException() {
+        properties.setSecret("too-short");
+
+        assertThrows(JwtException.class, () -> new JwtService(properties, authProperties, meterRegistry));
+    }
+
+    private double tokens(String outcome) {
+        return meterRegistry.get("todos.auth.tokens").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.todoapi.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogIndexServiceTest {
+
+    @TempDir
+    Path logDir;
+
+    private Path activeLog;
+    private LogIndexService logIndexService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        activeLog = logDir.resolve("application.log");
+        Files.writeString(logDir.resolve("application.log.2025-03-14.0.log"),
+                "2025-03-14 23:59:58 [main] INFO  c.e.todoapi.TodoApiApplication - Started TodoApiApplication\n");
+        Files.writeString(activeLog,
+                "2025-03-15 10:00:00 [http-nio-8080-exec-1] INFO  c.e.todoapi.service.TodoService - Criando novo todo: Reunião\n"
+                + "2025-03-15 10:00:01 [http-nio-8080-exec-2] ERROR c.e.t.exception.GlobalExceptionHandler - Unexpected error: boom\n"
+                + "java.lang.IllegalStateException: boom\n"
+                + "\tat com.example.todoapi.service.TodoService.create(TodoService.java:42)\n"
+                + "2025-03-15 10:05:00 [http-nio-8080-exec-1] ERROR c.e.todoapi.service.TodoService - Todo não encontrado com ID: 7\n");
+        logIndexService = new LogIndexService(new LogService(activeLog, 16));
+        logIndexService.refresh();
+    }
+
+    @Test
+    void search_ByTermPrefix_ShouldReturnMatchingEntries() throws IOException {
+        List<String> result = logIndexService.search("todo encontr", null, null, null, null, null, 10);
+
+        assertEquals(1, result.size());
+        assertTrue(result.get(0).endsWith("Todo não encontrado com ID: 7"));
+    }
+
+    @Test
+    void search_ByLevel_ShouldIncludeContinuationLines() throws IOException {
+        List<String> result = logIndexService.search("illegalstateexception", List.of("ERROR"),
+                null, null, null, null, 10);
+
+        assertEquals(1, result.size());
+        assertTrue(result.get(0).contains("Unexpected error: boom"));
+        assertTrue(result.get(0).endsWith("(TodoService.java:42)"));
+    }
+
+    @Test
+    void search_ByTimeRangeAndLogger_ShouldFilterEntries() throws IOException {
+        List<String> result = logIndexService.search(null, null, "c.e.todoapi.service", null,
+                LocalDateTime.of(2025, 3, 15, 10, 0), LocalDateTime.of(2025, 3, 15, 10, 4), 10);
+
+        assertEquals(1, result.size());
+        assertTrue(result.get(0).contains("Criando novo todo"));
+    }
+
+    @Test
+    void search_ShouldCoverRotatedFilesAndKeepNewestWithinLimit() throws IOException {
+        assertEquals(1, logIndexService.search("started", null, null, null, null, null, 10).size());
+
+        List<String> newest = logIndexService.search(null, null, null, "http-nio-8080-exec-1", null, null, 1);
+        assertEquals(1, newest.size());
+        assertTrue(newest.get(0).contains("ID: 7"));
+    }
+
+    @Test
+    void search_ShouldSeeAppendedLinesAfterNextRefresh() throws IOException {
+        assertTrue(logIndexService.search("deletado", null, null, null, null, null, 10).isEmpty());
+        Files.writeString(activeLog,
+                "2025-03-15 10:06:00 [http-nio-8080-exec-3] INFO  c.e.todoapi.service.TodoService - Todo deletado com sucesso. ID: 7\n",
+                StandardOpenOption.APPEND);
+        assertTrue(logIndexService.search("deletado", null, null, null, null, null, 10).isEmpty());
+        logIndexService.refresh();
+
+        assertEquals(1, logIndexService.search("deletado", null, null, null, null, null, 10).size());
+    }
+
+    @Test
+    void search_ShouldIndexJsonLines() throws IOException {
+        Files.writeString(activeLog,
+                "{\"@timestamp\":\"2025-03-15T10:07:00.123\",\"message\":\"Unexpected error: falha\","
+                + "\"logger_name\":\"com.example.todoapi.exception.GlobalExceptionHandler\","
+                + "\"thread_name\":\"http-nio-8080-exec-4\",\"level\":\"ERROR\",\"traceId\":{\"id\":1},"
+                + "\"stack_trace\":\"java.lang.IllegalArgumentException: falha\\n\\tat com.example.Foo.bar\"}\n",
+                StandardOpenOption.APPEND);
+        logIndexService.refresh();
+
+        List<String> result = logIndexService.search("illegalargumentexception", List.of("ERROR"),
+                "com.example.todoapi.exception", "http-nio-8080-exec-4",
+                LocalDateTime.of(2025, 3, 15, 10, 7), LocalDateTime.of(2025, 3, 15, 10, 7), 10);
+
+        assertEquals(1, result.size());
+        assertTrue(result.get(0).startsWith("{\"@timestamp\":\"2025-03-15T10:07:00.123\""));
+    }
+
+    @Test
+    void search_WhenOldestArchiveIsPruned_ShouldRebuildIndex() throws IOException {
+        Files.delete(logDir.resolve("application.log.2025-03-14.0.log"));
+        logIndexService.refresh();
+
+        List<String> result = logIndexService.search(null, Arrays.asList("ERROR"), null, null, null, null, 10);
+
+        assertEquals(2, result.size());
+        assertTrue(result.get(0).startsWith("2025-03-15 10:00:01"));
+        assertTrue(logIndexService.search("started", null, null, null, null, null, 10).isEmpty());
+    }
+
+    @Test
+    void search_WhenOldestArchiveIsPrunedBeforeRefresh_ShouldAnswerServiceUnavailable() throws IOException {
+        Files.delete(logDir.resolve("application.log.2025-03-14.0.log"));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> logIndexService.search(null, List.of("ERROR"), null, null, null, null, 10));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+
+        logIndexService.refresh();
+        assertEquals(2, logIndexService.search(null, List.of("ERROR"), null, null, null, null, 10).size());
+    }
+
+    @Test
+    void search_WhenActiveFileRollsBeforeRefresh_ShouldKeepReadingTheRightLines() throws IOException {
+        Files.move(activeLog, logDir.resolve("application.log.2025-03-15.0.log"));
+        Files.writeString(activeLog,
+                "2025-03-16 00:00:01 [main] INFO  c.e.todoapi.service.TodoService - Linha nova após a rotação\n");
+
+        List<String> result = logIndexService.search(null, List.of("ERROR"), null, null, null, null, 10);
+
+        assertEquals(2, result.size());
+        assertTrue(result.get(0).startsWith("2025-03-15 10:00:01"));
+        assertTrue(result.get(1).endsWith("Todo não encontrado com ID: 7"));
+    }
+
+    @Test
+    void search_WithPrefixMatchingTooManyWords_ShouldThrowException() throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            lines.append("2025-03-15 10:08:00 [main] INFO  c.e.todoapi.service.TodoService - Lote lote")
+                    .append(i).append('\n');
+        }
+        Files.writeString(activeLog, lines, StandardOpenOption.APPEND);
+        logIndexService.refresh();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> logIndexService.search("lote", null, null, null, null, null, 10));
+        assertEquals(1, logIndexService.search("lote299", null, null, null, null, null, 10).size());
+    }
+
+    @Test
+    void search_WithUnknownLevel_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> logIndexService.search(null, List.of("VERBOSE"), null, null, null, null, 10));
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.todoapi.service;
+
+import com.example.todoapi.dto.LogPageDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogServiceTest {
+
+    @TempDir
+    Path logDir;
+
+    private Path activeLog;
+    private LogService logService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        activeLog = logDir.resolve("application.log");
+        Files.writeString(logDir.resolve("application.log.2025-03-14.0.log"), "old one\nold two\n");
+        Files.writeString(logDir.resolve("application.log.2025-03-15.0.log"), "archived one\narchived two\n");
+        Files.writeString(activeLog, "current one\ncurrent two\ncurrent three\n");
+        // A tiny chunk size makes every line cross a read boundary
+        logService = new LogService(activeLog, 5);
+    }
+
+    @Test
+    void tail_ShouldReturnLastLinesOfActiveFile() throws IOException {
+        LogPageDTO page = logService.tail(2, null);
+
+        assertEquals(Arrays.asList("current two", "current three"), page.getLines());
+        assertEquals(totalSize(), page.getAfter());
+    }
+
+    @Test
+    void tail_WhenActiveFileIsShort_ShouldContinueIntoArchives() throws IOException {
+        LogPageDTO page = logService.tail(6, null);
+
+        assertEquals(Arrays.asList("old two", "archived one", "archived two",
+                "current one", "current two", "current three"), page.getLines());
+    }
+
+    @Test
+    void tail_WithBeforeCursor_ShouldPageBackwards() throws IOException {
+        LogPageDTO first = logService.tail(2, null);
+        LogPageDTO second = logService.tail(2, first.getBefore());
+        LogPageDTO third = logService.tail(10, second.getBefore());
+
+        assertEquals(Arrays.asList("archived two", "current one"), second.getLines());
+        assertEquals(Arrays.asList("old one", "old two", "archived one"), third.getLines());
+        assertEquals(0, third.getBefore());
+    }
+
+    @Test
+    void readForward_ShouldResumeFromAfterCursor() throws IOException {
+        LogPageDTO first = logService.readForward(0, 3);
+        LogPageDTO second = logService.readForward(first.getAfter(), 3);
+
+        assertEquals(Arrays.asList("old one", "old two", "archived one"), first.getLines());
+        assertEquals(Arrays.asList("archived two", "current one", "current two"), second.getLines());
+    }
+
+    @Test
+    void readForward_ShouldNotReturnLineStillBeingWritten() throws IOException {
+        long end = logService.tail(1, null).getAfter();
+        Files.writeString(activeLog, "partial", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        LogPageDTO page = logService.readForward(end, 10);
+
+        assertTrue(page.getLines().isEmpty());
+        assertEquals(end, page.getAfter());
+    }
+
+    @Test
+    void tail_ShouldNotReturnLineStillBeingWritten() throws IOException {
+        long end = totalSize();
+        Files.writeString(activeLog, "current fo", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        LogPageDTO partial = logService.tail(2, null);
+
+        assertEquals(Arrays.asList("current two", "current three"), partial.getLines());
+        assertEquals(end, partial.getAfter());
+
+        Files.writeString(activeLog, "ur\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        LogPageDTO complete = logService.tail(2, null);
+
+        assertEquals(Arrays.asList("current three", "current four"), complete.getLines());
+        assertEquals(totalSize(), complete.getAfter());
+        assertEquals(List.of("current four"), logService.readForward(partial.getAfter(), 10).getLines());
+    }
+
+    @Test
+    void tail_WithInvalidLineCount_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> logService.tail(0, null));
+    }
+
+    @Test
+    void exists_WhenNoLogFiles_ShouldReturnFalse() throws IOException {
+        LogService missing = new LogService(logDir.resolve("missing/application.log"), 5);
+
+        assertFalse(missing.exists());
+        assertTrue(missing.tail(10, null).getLines().isEmpty());
+    }
+
+    private long totalSize() throws IOException {
+        long total = 0;
+        for (LogService.Segment segment : logService.segments()) {
+            total += segment.size();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.todoapi.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogTailServiceTest {
+
+    @TempDir
+    Path logDir;
+
+    private Path activeLog;
+    private LogTailService logTailService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        activeLog = logDir.resolve("application.log");
+        Files.writeString(activeLog, "2025-03-15 10:00:00 [main] INFO  c.e.todoapi.Old - written before subscribing\n");
+        logTailService = new LogTailService(new LogService(activeLog, 64), 100, 2, 60_000, Runnable::run);
+    }
+
+    @Test
+    void poll_ShouldDeliverOnlyLinesAppendedAfterSubscribing() throws IOException {
+        SseSubscriberTest.RecordingEmitter emitter = subscribe(null, null);
+        logTailService.poll();
+
+        append("2025-03-15 10:00:01 [main] INFO  c.e.todoapi.New - first new line\n");
+        logTailService.poll();
+
+        assertEquals(1, emitter.events.size());
+        assertTrue(emitter.events.get(0).contains("first new line"));
+    }
+
+    @Test
+    void poll_ShouldApplyLevelAndTermFiltersPerSubscriber() throws IOException {
+        SseSubscriberTest.RecordingEmitter errors = subscribe(List.of("ERROR"), null);
+        SseSubscriberTest.RecordingEmitter todos = subscribe(null, "TODO");
+        logTailService.poll();
+
+        append("2025-03-15 10:00:01 [main] ERROR c.e.t.GlobalExceptionHandler - Unexpected error: boom\n"
+                + "java.lang.IllegalStateException: boom\n"
+                + "2025-03-15 10:00:02 [main] INFO  c.e.t.service.TodoService - Todo criado com ID: 1\n");
+        logTailService.poll();
+
+        assertEquals(2, errors.events.size());
+        assertTrue(errors.events.get(1).contains("IllegalStateException"));
+        assertEquals(1, todos.events.size());
+        assertTrue(todos.events.get(0).contains("Todo criado"));
+    }
+
+    @Test
+    void poll_ShouldMatchTermsAsWordPrefixesLikeTheSearch() throws IOException {
+        SseSubscriberTest.RecordingEmitter matching = subscribe(null, "todo cri");
+        logTailService.poll();
+
+        append("2025-03-15 10:00:01 [main] INFO  c.e.t.service.TodoService - Todo criado com ID: 1\n"
+                + "2025-03-15 10:00:02 [main] INFO  c.e.t.service.TodoService - Todo atualizado: escrito\n");
+        logTailService.poll();
+
+        assertEquals(1, matching.events.size());
+        assertTrue(matching.events.get(0).contains("Todo criado"));
+        assertThrows(IllegalArgumentException.class, () -> LogTailService.lineFilter(null, "!"));
+    }
+
+    @Test
+    void subscribe_WhenLimitReached_ShouldReject() {
+        subscribe(null, null);
+        subscribe(null, null);
+
+        assertThrows(RuntimeException.class, () -> subscribe(null, null));
+        assertEquals(2, logTailService.subscriberCount());
+    }
+
+    @Test
+    void subscribe_WhenManyArriveAtOnce_ShouldNotExceedTheLimit() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> attempts = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            attempts.add(clients.submit(() -> {
+                start.await();
+                return subscribe(null, null);
+            }));
+        }
+        start.countDown();
+        int accepted = 0;
+        for (Future<?> attempt : attempts) {
+            try {
+                attempt.get();
+                accepted++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(ResponseStatusException.class, e.getCause());
+            }
+        }
+        clients.shutdown();
+
+        assertEquals(2, accepted);
+        assertEquals(2, logTailService.subscriberCount());
+    }
+
+    private SseSubscriberTest.RecordingEmitter subscribe(List<String> levels, String term) {
+        SseSubscriberTest.RecordingEmitter emitter = new SseSubscriberTest.RecordingEmitter();
+        logTailService.register(new SseSubscriber<>(emitter, "log", LogTailService.lineFilter(levels, term),
+                100, Runnable::run));
+        return emitter;
+    }
+
+    private void append(String text) throws IOException {
+        Files.writeString(activeLog, text, StandardOpenOption.APPEND);
+    }
+}
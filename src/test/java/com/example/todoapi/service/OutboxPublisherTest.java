@@ -0,0 +1,217 @@
+package com.example.todoapi.service;
+
+import com.example.todoapi.config.OutboxProperties;
+import com.example.todoapi.model.OutboxEvent;
+import com.example.todoapi.model.OutboxOffset;
+import com.example.todoapi.repository.OutboxEventRepository;
+import com.example.todoapi.repository.OutboxOffsetRepository;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxPublisherTest {
+
+    @Mock
+    private OutboxEventRepository eventRepository;
+
+    @Mock
+    private OutboxOffsetRepository offsetRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CurrentUser currentUser;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OutboxProperties properties = new OutboxProperties();
+    private OutboxPublisher publisher;
+    private HttpServer webhook;
+
+    @BeforeEach
+    void setUp() {
+        properties.setBatchSize(10);
+        properties.getStream().setBufferSize(10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (publisher != null) {
+            publisher.shutdown();
+        }
+        if (webhook != null) {
+            webhook.stop(0);
+        }
+    }
+
+    @Test
+    void publish_ShouldNumberEventsAndSendThemToTheOwnerOnly() {
+        start(0);
+        SseSubscriberTest.RecordingEmitter alice = register("acme", "alice", 0);
+        SseSubscriberTest.RecordingEmitter namesake = register("globex", "alice", 0);
+        when(eventRepository.findUnpublished(any()))
+                .thenReturn(List.of(event(10L, "acme", "alice"), event(11L, "acme", "bob"),
+                                    event(12L, "acme", "alice")))
+                .thenReturn(List.of());
+
+        publisher.publish();
+
+        assertEquals(3, publisher.lastPosition());
+        assertEquals(2, alice.events.size());
+        assertTrue(alice.events.get(0).contains("id:1"));
+        assertTrue(alice.events.get(0).contains("event:todo.created"));
+        assertTrue(alice.events.get(1).contains("id:3"));
+        assertTrue(namesake.events.isEmpty());
+        assertEquals(3, savedOffset(OutboxPublisher.PUBLISHED));
+        assertEquals(3.0, meterRegistry.get("todos.outbox.published").counter().count());
+    }
+
+    @Test
+    void publish_WhenIdle_ShouldOnlyReadTheOutboxAfterAWrite() {
+        start(0);
+        when(eventRepository.findUnpublished(any())).thenReturn(List.of());
+
+        publisher.publish();
+        publisher.publish();
+        publisher.publish();
+        verify(eventRepository, times(1)).findUnpublished(any());
+
+        publisher.recorded();
+        publisher.publish();
+        verify(eventRepository, times(2)).findUnpublished(any());
+    }
+
+    @Test
+    void publish_WhenClientResumesFromEarlierPosition_ShouldCatchUpFromDatabase() {
+        start(5);
+        OutboxEvent missed = event(3L, "acme", "alice");
+        missed.setPosition(4L);
+        when(eventRepository.findUnpublished(any())).thenReturn(List.of());
+        when(eventRepository.findPublishedForUserAfter(eq("acme"), eq("alice"), eq(2L), eq(5L), any()))
+                .thenReturn(List.of(missed));
+        SseSubscriberTest.RecordingEmitter alice = register("acme", "alice", 2);
+
+        publisher.publish();
+        publisher.publish();
+
+        assertEquals(1, alice.events.size());
+        assertTrue(alice.events.get(0).contains("id:4"));
+        verify(eventRepository, times(1)).findPublishedForUserAfter(any(), any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void publish_WhenWebhookFails_ShouldRetryTheSameEventsUntilAccepted() throws Exception {
+        List<String> bodies = new CopyOnWriteArrayList<>();
+        AtomicInteger failuresLeft = new AtomicInteger(1);
+        webhook = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        webhook.createContext("/events", exchange -> {
+            bodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            exchange.sendResponseHeaders(failuresLeft.getAndDecrement() > 0 ? 500 : 204, -1);
+            exchange.close();
+        });
+        webhook.start();
+        OutboxProperties.Webhook settings = new OutboxProperties.Webhook();
+        settings.setUrl("http://localhost:" + webhook.getAddress().getPort() + "/events");
+        settings.setRetryDelay(Duration.ofMillis(1));
+        properties.getWebhooks().put("audit", settings);
+        start(0);
+        OutboxEvent event = event(10L, "acme", "alice");
+        when(eventRepository.findUnpublished(any())).thenReturn(List.of(event)).thenReturn(List.of());
+        when(eventRepository.findPublishedAfter(eq(0L), any())).thenReturn(List.of(event));
+
+        publisher.publish();
+        Thread.sleep(5);
+        publisher.publish();
+
+        assertEquals(2, bodies.size());
+        assertEquals(bodies.get(0), bodies.get(1));
+        assertTrue(bodies.get(1).contains("\"position\":1"));
+        assertTrue(bodies.get(1).contains("\"payload\":{\"title\":\"Ship it\"}"));
+        assertEquals(1, savedOffset("webhook:audit"));
+        assertEquals(0.0, meterRegistry.get("todos.outbox.webhook.lag").gauge().value());
+        assertEquals(1.0, meterRegistry.get("todos.outbox.webhook.deliveries").tag("outcome", "failure")
+                .counter().count());
+    }
+
+    @Test
+    void prune_ShouldKeepEventsAWebhookHasNotReceived() {
+        properties.getWebhooks().put("audit", new OutboxProperties.Webhook());
+        properties.getWebhooks().get("audit").setUrl("http://localhost:1/events");
+        when(offsetRepository.findById("webhook:audit")).thenReturn(Optional.of(offset("webhook:audit", 4)));
+        start(9);
+        when(eventRepository.findMaxPositionCreatedBefore(any())).thenReturn(7L);
+
+        publisher.prune();
+
+        verify(eventRepository).deleteThrough(4L);
+    }
+
+    private void start(long published) {
+        lenient().when(offsetRepository.findById(OutboxPublisher.PUBLISHED))
+                .thenReturn(Optional.of(offset(OutboxPublisher.PUBLISHED, published)));
+        publisher = new OutboxPublisher(eventRepository, offsetRepository, properties, transactionManager,
+                currentUser, Jackson2ObjectMapperBuilder.json().build(), Runnable::run, meterRegistry);
+        publisher.init();
+    }
+
+    private SseSubscriberTest.RecordingEmitter register(String tenant, String owner, long position) {
+        SseSubscriberTest.RecordingEmitter emitter = new SseSubscriberTest.RecordingEmitter();
+        publisher.register(tenant, owner, publisher.subscriber(emitter), position);
+        return emitter;
+    }
+
+    private long savedOffset(String consumer) {
+        ArgumentCaptor<OutboxOffset> saved = ArgumentCaptor.forClass(OutboxOffset.class);
+        verify(offsetRepository, atLeastOnce()).save(saved.capture());
+        return saved.getAllValues().stream()
+                .filter(offset -> consumer.equals(offset.getConsumer()))
+                .reduce((first, second) -> second)
+                .orElseThrow()
+                .getPosition();
+    }
+
+    private static OutboxEvent event(Long id, String tenant, String owner) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setTenant(tenant);
+        event.setOwner(owner);
+        event.setAggregateType(OutboxService.TODO);
+        event.setAggregateId(id);
+        event.setType(OutboxService.CREATED);
+        event.setPayload("{\"title\":\"Ship it\"}");
+        event.setCreatedAt(LocalDateTime.now());
+        return event;
+    }
+
+    private static OutboxOffset offset(String consumer, long position) {
+        OutboxOffset offset = new OutboxOffset();
+        offset.setConsumer(consumer);
+        offset.setPosition(position);
+        return offset;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.todoapi.service;
+
+import com.example.todoapi.config.AuthConfig;
+import com.example.todoapi.config.SecondLevelCacheConfig;
+import com.example.todoapi.config.StatementCounter;
+import com.example.todoapi.config.TenancyConfig;
+import com.example.todoapi.model.Category;
+import com.example.todoapi.model.Todo;
+import com.example.todoapi.repository.CategoryRepository;
+import com.example.todoapi.repository.TodoRepository;
+import com.example.todoapi.repository.TodoTombstoneRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The second-level and query caches against a real schema. Tests run outside a test transaction: Hibernate only
+ * caches what has been committed.
+ */
+@DataJpaTest(properties = "logging.file.name=target/test-logs/application.log")
+@Import({TodoService.class, CategoryService.class, TodoChangeService.class, SecondLevelCacheConfig.class,
+        TenancyConfig.class, AuthConfig.class, SimpleMeterRegistry.class, CurrentUser.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private TodoChangeService todoChangeService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TodoTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private TodoStatsService todoStatsService;
+
+    @MockBean
+    private TodoSearchService todoSearchService;
+
+    @MockBean
+    private CollectionVersionService collectionVersionService;
+
+    @MockBean
+    private DueDateScheduler dueDateScheduler;
+
+    @MockBean
+    private OutboxService outboxService;
+
+    @MockBean
+    private Validator validator;
+
+    private Category category;
+    private Todo todo;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.getContext()
+                .setAuthentication(new TestingAuthenticationToken("alice", null, "ROLE_USER"));
+        category = new Category();
+        category.setOwner("alice");
+        category.setName("Work");
+        categoryRepository.save(category);
+        todo = new Todo();
+        todo.setOwner("alice");
+        todo.setTitle("Cached todo");
+        todo.setCategory(category);
+        todoRepository.save(todo);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tombstoneRepository.deleteAllInBatch();
+        todoRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void findById_ShouldBeServedFromSecondLevelCache() {
+        todoService.findById(todo.getId());
+
+        StatementCounter.reset();
+        assertEquals("Cached todo", todoService.findById(todo.getId()).getTitle());
+        assertEquals(0, StatementCounter.count());
+    }
+
+    @Test
+    void findPage_ShouldBeServedFromQueryCacheUntilTodoWrite() {
+        todoService.findPage(null, null, "createdAt", "DESC", null, 10);
+
+        StatementCounter.reset();
+        assertEquals(1, todoService.findPage(null, null, "createdAt", "DESC", null, 10).getItems().size());
+        assertEquals(0, StatementCounter.count());
+
+        Todo other = new Todo();
+        other.setOwner("alice");
+        other.setTitle("Another todo");
+        todoRepository.save(other);
+
+        StatementCounter.reset();
+        assertEquals(2, todoService.findPage(null, null, "createdAt", "DESC", null, 10).getItems().size());
+        assertEquals(1, StatementCounter.count());
+    }
+
+    @Test
+    void findAll_ShouldNotGoThroughQueryCache() {
+        todoService.findAll(null, null, "createdAt", "DESC");
+
+        StatementCounter.reset();
+        assertEquals(1, todoService.findAll(null, null, "createdAt", "DESC").size());
+        assertEquals(1, StatementCounter.count());
+    }
+
+    @Test
+    void tombstoneInsert_ShouldKeepEntityRegions() {
+        todoService.findById(todo.getId());
+        categoryRepository.findById(category.getId());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> todoChangeService.recordDeleted(List.of(todo.getId())));
+
+        StatementCounter.reset();
+        todoService.findById(todo.getId());
+        categoryRepository.findById(category.getId());
+        assertEquals(0, StatementCounter.count());
+        assertEquals(1, tombstoneRepository.count());
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.todoapi.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SseSubscriberTest {
+
+    @Test
+    void offer_WhenQueueIsFull_ShouldDropAndNotifyClient() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        List<Runnable> pending = new ArrayList<>();
+        SseSubscriber<String> subscriber = new SseSubscriber<>(emitter, "log", line -> true, 2, pending::add);
+
+        for (int i = 1; i <= 5; i++) {
+            subscriber.offer("line " + i);
+        }
+        assertEquals(3, subscriber.getDropped());
+        assertEquals(1, pending.size());
+
+        pending.remove(0).run();
+
+        assertEquals(3, emitter.events.size());
+        assertTrue(emitter.events.get(0).contains("event:dropped"));
+        assertTrue(emitter.events.get(0).contains("count=3"));
+        assertTrue(emitter.events.get(1).contains("data:line 1"));
+        assertTrue(emitter.events.get(2).contains("data:line 2"));
+    }
+
+    @Test
+    void offer_ShouldSkipItemsRejectedByFilter() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        SseSubscriber<String> subscriber = new SseSubscriber<>(emitter, "log",
+                line -> line.contains("ERROR"), 10, Runnable::run);
+
+        subscriber.offer("INFO ok");
+        subscriber.offer("ERROR boom");
+
+        assertEquals(1, emitter.events.size());
+        assertTrue(emitter.events.get(0).contains("ERROR boom"));
+    }
+
+    @Test
+    void offer_WhenClientIsGone_ShouldCloseSubscriber() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.failing = true;
+        SseSubscriber<String> subscriber = new SseSubscriber<>(emitter, "log", line -> true, 10, Runnable::run);
+
+        subscriber.offer("line");
+
+        assertTrue(subscriber.isClosed());
+    }
+
+    @Test
+    void offer_WhenSendersRejectTheDrain_ShouldDropSubscriber() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        SseSubscriber<String> subscriber = new SseSubscriber<>(emitter, "log", line -> true, 10, runnable -> {
+            throw new RejectedExecutionException("saturated");
+        });
+
+        subscriber.offer("line");
+
+        assertTrue(subscriber.isClosed());
+        assertTrue(emitter.events.isEmpty());
+    }
+
+    static class RecordingEmitter extends SseEmitter {
+        // Also written from the firing thread of DueDateSchedulerTest
+        final List<String> events = new CopyOnWriteArrayList<>();
+        boolean failing;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            events.add(builder.build().stream()
+                    .map(part -> part.getData().toString())
+                    .collect(Collectors.joining()));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.todoapi.service;
+
+import com.example.todoapi.config.AuthProperties;
+import com.example.todoapi.config.TenancyProperties;
+import com.example.todoapi.config.TenantPartitions;
+import com.example.todoapi.dto.TodoChangesDTO;
+import com.example.todoapi.dto.TodoDTO;
+import com.example.todoapi.model.Todo;
+import com.example.todoapi.model.TodoTombstone;
+import com.example.todoapi.repository.TodoRepository;
+import com.example.todoapi.repository.TodoTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TodoChangeServiceTest {
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private TodoTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private CurrentUser currentUser;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final TenantPartitions tenantPartitions =
+            new TenantPartitions(new TenancyProperties(), new AuthProperties());
+
+    private TodoChangeService todoChangeService;
+
+    @BeforeEach
+    void setUp() {
+        when(todoRepository.findMaxChangeSeq()).thenReturn(7L);
+        when(tombstoneRepository.findMaxChangeSeq()).thenReturn(9L);
+        todoChangeService = new TodoChangeService(todoRepository, tombstoneRepository, currentUser,
+                tenantPartitions, transactionManager, Duration.ofDays(30));
+        todoChangeService.init();
+    }
+
+    @Test
+    void recordChanged_ShouldContinueAfterStoredSequence() {
+        Todo first = new Todo();
+        Todo second = new Todo();
+
+        todoChangeService.recordChanged(List.of(first, second));
+
+        assertEquals(10L, first.getChangeSeq());
+        assertEquals(10L, second.getChangeSeq());
+        assertNotNull(first.getUpdatedAt());
+        assertEquals(10L, todoChangeService.stableSequence());
+    }
+
+    @Test
+    void openTransaction_ShouldHoldBackReadersUntilItCompletes() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            todoChangeService.recordChanged(List.of(new Todo()));
+            todoChangeService.recordChanged(List.of(new Todo()));
+            assertEquals(9L, todoChangeService.stableSequence());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            assertEquals(11L, todoChangeService.stableSequence());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void changes_ShouldMergeUpsertsAndDeletionsInSequenceOrder() {
+        when(currentUser.id()).thenReturn("alice");
+        when(todoRepository.findDTOs(any(), any(), eq(3))).thenReturn(List.of(dto(1L, 3L), dto(4L, 8L)));
+        when(tombstoneRepository.findChangesAfter("alice", 0L, 0L, 9L, Limit.of(3)))
+                .thenReturn(List.of(tombstone(2L, 5L)));
+
+        TodoChangesDTO result = todoChangeService.changes(null, 2);
+
+        assertEquals(2, result.getChanges().size());
+        assertEquals("UPSERT", result.getChanges().get(0).getType());
+        assertEquals(1L, result.getChanges().get(0).getId());
+        assertEquals("DELETE", result.getChanges().get(1).getType());
+        assertNull(result.getChanges().get(1).getTodo());
+        assertTrue(result.isHasMore());
+
+        // The next call resumes after the deletion at sequence 5
+        when(todoRepository.findDTOs(any(), any(), eq(3))).thenReturn(List.of(dto(4L, 8L)));
+        when(tombstoneRepository.findChangesAfter("alice", 5L, 2L, 9L, Limit.of(3)))
+                .thenReturn(Collections.emptyList());
+
+        TodoChangesDTO next = todoChangeService.changes(result.getNext(), 2);
+
+        assertEquals(1, next.getChanges().size());
+        assertEquals(4L, next.getChanges().get(0).getId());
+        assertFalse(next.isHasMore());
+    }
+
+    @Test
+    void changes_WithExpiredToken_ShouldAnswerGone() {
+        String expired = new ChangeToken(3, 1, System.currentTimeMillis() - Duration.ofDays(31).toMillis()).encode();
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> todoChangeService.changes(expired, 100));
+        assertEquals(HttpStatus.GONE, ex.getStatusCode());
+        verify(todoRepository, never()).findDTOs(any(), any(), anyInt());
+    }
+
+    @Test
+    void changes_WithMalformedToken_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> todoChangeService.changes("not-a-token", 100));
+        verify(tombstoneRepository, never()).findChangesAfter(any(), anyLong(), anyLong(), anyLong(), any());
+    }
+
+    private static TodoDTO dto(Long id, long changeSeq) {
+        TodoDTO dto = new TodoDTO();
+        dto.setId(id);
+        dto.setTitle("Todo " + id);
+        dto.setChangeSeq(changeSeq);
+        return dto;
+    }
+
+    private static TodoTombstone tombstone(Long todoId, long changeSeq) {
+        TodoTombstone tombstone = new TodoTombstone();
+        tombstone.setTodoId(todoId);
+        tombstone.setChangeSeq(changeSeq);
+        tombstone.setDeletedAt(LocalDateTime.now());
+        return tombstone;
+    }
+}
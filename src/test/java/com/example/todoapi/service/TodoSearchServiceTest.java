@@ -0,0 +1,202 @@
+package com.example.todoapi.service;
+
+import com.example.todoapi.config.AuthProperties;
+import com.example.todoapi.config.TenancyProperties;
+import com.example.todoapi.config.TenantPartitions;
+import com.example.todoapi.dto.TodoDTO;
+import com.example.todoapi.dto.TodoSearchResultDTO;
+import com.example.todoapi.repository.TodoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TodoSearchServiceTest {
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private CurrentUser currentUser;
+
+    private final TenantPartitions tenantPartitions =
+            new TenantPartitions(new TenancyProperties(), new AuthProperties());
+    private TodoSearchService todoSearchService;
+    private final List<TodoDTO> rows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        todoSearchService = new TodoSearchService(todoRepository, currentUser, tenantPartitions);
+        lenient().when(currentUser.id()).thenReturn("alice");
+        lenient().when(currentUser.userKey()).thenReturn("acme:alice");
+        // The mock returns every stored row; the service keeps only the ids the index matched, in rank order
+        lenient().when(todoRepository.findDTOs(any(Specification.class), any(Sort.class))).thenAnswer(i -> rows);
+        todoSearchService.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        todoSearchService.close();
+    }
+
+    @Test
+    void search_ShouldRankTitleMatchesFirst() {
+        add(1L, "Comprar leite", "Passar no mercado", false, "LOW", null);
+        add(2L, "Mercado", "Comprar pão e leite", false, "HIGH", null);
+        add(3L, "Ligar para o banco", null, false, "HIGH", null);
+
+        TodoSearchResultDTO result = todoSearchService.search("leite", null, null, null, 0, 20);
+
+        assertEquals(2, result.getTotal());
+        assertEquals(List.of(1L, 2L), ids(result));
+        assertNull(result.getNextOffset());
+    }
+
+    @Test
+    void search_ShouldApplyFiltersWithoutChangingMatches() {
+        add(1L, "Relatório mensal", null, false, "HIGH", 1L);
+        add(2L, "Relatório anual", null, true, "HIGH", 1L);
+        add(3L, "Relatório semanal", null, false, "LOW", 2L);
+
+        assertEquals(List.of(1L), ids(todoSearchService.search("relatório", false, "HIGH", null, 0, 20)));
+        assertEquals(List.of(3L), ids(todoSearchService.search("relatório", null, null, 2L, 0, 20)));
+    }
+
+    @Test
+    void search_ShouldNotMatchPhrasesAcrossTitleAndDescription() {
+        add(1L, "Comprar leite", "Passar no mercado", false, "LOW", null);
+
+        assertEquals(List.of(1L), ids(todoSearchService.search("\"comprar leite\"", null, null, null, 0, 20)));
+        assertEquals(0, todoSearchService.search("\"leite comprar\"", null, null, null, 0, 20).getTotal());
+        assertEquals(0, todoSearchService.search("\"leite passar\"", null, null, null, 0, 20).getTotal());
+    }
+
+    @Test
+    void search_ShouldPageWithOffset() {
+        for (long id = 1; id <= 5; id++) {
+            add(id, "Tarefa " + id, null, false, "MEDIUM", null);
+        }
+
+        TodoSearchResultDTO first = todoSearchService.search("tarefa", null, null, null, 0, 2);
+        TodoSearchResultDTO last = todoSearchService.search("tarefa", null, null, null, 4, 2);
+
+        assertEquals(2, first.getItems().size());
+        assertEquals(2, first.getNextOffset());
+        assertEquals(1, last.getItems().size());
+        assertNull(last.getNextOffset());
+    }
+
+    @Test
+    void remove_ShouldDropTodoFromResults() {
+        add(1L, "Pagar conta", null, false, "HIGH", 7L);
+        add(2L, "Pagar aluguel", null, false, "HIGH", 8L);
+
+        todoSearchService.remove(1L);
+        assertEquals(List.of(2L), ids(todoSearchService.search("pagar", null, null, null, 0, 20)));
+
+        todoSearchService.removeCategory(8L);
+        assertEquals(0, todoSearchService.search("pagar", null, null, null, 0, 20).getTotal());
+    }
+
+    @Test
+    void rebuild_ShouldIndexEveryStoredTodo() {
+        TodoDTO stored = todo(1L, "Revisar contrato", null, false, "HIGH", null);
+        rows.add(stored);
+        when(todoRepository.findDTOs(any(Specification.class), any(Sort.class), anyInt()))
+            .thenReturn(List.of(stored));
+
+        todoSearchService.rebuild();
+
+        assertEquals(List.of(1L), ids(todoSearchService.search("contrato", null, null, null, 0, 20)));
+    }
+
+    @Test
+    void reindexAll_ShouldReadOnlyTheMovedTodos() {
+        add(1L, "Pagar conta", null, false, "HIGH", 7L);
+        TodoDTO moved = todo(1L, "Pagar conta", null, false, "HIGH", 8L);
+        when(todoRepository.findDTOs(any(Specification.class), any(Sort.class), anyInt()))
+            .thenReturn(List.of(moved));
+        clearInvocations(todoRepository);
+
+        todoSearchService.reindexAll(List.of(1L));
+
+        verify(todoRepository, times(1)).findDTOs(any(Specification.class), any(Sort.class), anyInt());
+        assertEquals(List.of(1L), ids(todoSearchService.search("pagar", null, null, 8L, 0, 20)));
+        assertEquals(0, todoSearchService.search("pagar", null, null, 7L, 0, 20).getTotal());
+    }
+
+    @Test
+    void search_BeforeRebuild_ShouldAnswer503AndApplyHeldWritesAfterIt() throws IOException {
+        todoSearchService.close();
+        todoSearchService = new TodoSearchService(todoRepository, currentUser, tenantPartitions);
+        add(1L, "Revisar contrato", null, false, "HIGH", null);
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> todoSearchService.search("contrato", null, null, null, 0, 20));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatusCode());
+
+        // The rebuild read the database before the todo was committed
+        todoSearchService.rebuild();
+
+        assertEquals(List.of(1L), ids(todoSearchService.search("contrato", null, null, null, 0, 20)));
+    }
+
+    @Test
+    void search_ShouldOnlyMatchTheSignedInUsersTodos() {
+        add(1L, "Comprar leite", null, false, "LOW", null);
+        TodoDTO others = todo(2L, "Comprar leite", null, false, "LOW", null);
+        others.setOwner("bob");
+        todoSearchService.index(others);
+        TodoDTO namesake = todo(3L, "Comprar leite", null, false, "LOW", null);
+        namesake.setTenant("globex");
+        todoSearchService.index(namesake);
+
+        assertEquals(List.of(1L), ids(todoSearchService.search("leite", null, null, null, 0, 20)));
+    }
+
+    @Test
+    void search_WithBlankQuery_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> todoSearchService.search(" ", null, null, null, 0, 20));
+        assertThrows(IllegalArgumentException.class, () -> todoSearchService.search("x", null, null, null, 0, 0));
+    }
+
+    private void add(Long id, String title, String description, boolean completed, String priority, Long categoryId) {
+        TodoDTO todo = todo(id, title, description, completed, priority, categoryId);
+        rows.add(todo);
+        todoSearchService.index(todo);
+    }
+
+    private static TodoDTO todo(Long id, String title, String description, boolean completed, String priority,
+                                Long categoryId) {
+        TodoDTO todo = new TodoDTO();
+        todo.setId(id);
+        todo.setTenant("acme");
+        todo.setOwner("alice");
+        todo.setTitle(title);
+        todo.setDescription(description);
+        todo.setCompleted(completed);
+        todo.setPriority(priority);
+        todo.setCategoryId(categoryId);
+        return todo;
+    }
+
+    private static List<Long> ids(TodoSearchResultDTO result) {
+        return result.getItems().stream().map(TodoDTO::getId).collect(Collectors.toList());
+    }
+}
@@ -1,27 +1,40 @@
 package com.example.todoapi.service;
 
+import com.example.todoapi.dto.BatchResultDTO;
 import com.example.todoapi.dto.TodoDTO;
+import com.example.todoapi.dto.TodoPageDTO;
 import com.example.todoapi.model.Category;
 import com.example.todoapi.model.Todo;
 import com.example.todoapi.repository.CategoryRepository;
 import com.example.todoapi.repository.TodoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +46,36 @@ public class TodoServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private CategoryService categoryService;
+
+    @Mock
+    private TodoStatsService todoStatsService;
+
+    @Mock
+    private TodoSearchService todoSearchService;
+
+    @Mock
+    private CollectionVersionService collectionVersionService;
+
+    @Mock
+    private TodoChangeService todoChangeService;
+
+    @Mock
+    private DueDateScheduler dueDateScheduler;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private Validator validator;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private CurrentUser currentUser;
+
     @InjectMocks
     private TodoService todoService;
 
@@ -45,9 +88,13 @@ public class TodoServiceTest {
         category = new Category();
         category.setId(1L);
         category.setName("Test Category");
+        category.setTenant("acme");
+        category.setOwner("alice");
 
         todo = new Todo();
         todo.setId(1L);
+        todo.setTenant("acme");
+        todo.setOwner("alice");
         todo.setTitle("Test Todo");
         todo.setDescription("Test Description");
         todo.setCompleted(false);
@@ -61,19 +108,119 @@ public class TodoServiceTest {
         todoDTO.setCompleted(false);
         todoDTO.setCategoryId(1L);
         todoDTO.setPriority("HIGH");
+
+        lenient().when(currentUser.id()).thenReturn("alice");
+        lenient().when(currentUser.tenant()).thenReturn("acme");
     }
 
     @Test
     void findAll_ShouldReturnListOfTodos() {
-        when(todoRepository.findAll(any(Specification.class), any(Sort.class)))
-            .thenReturn(Arrays.asList(todo));
+        when(todoRepository.findDTOs(any(Specification.class), any(Sort.class)))
+            .thenReturn(Arrays.asList(dto(todo)));
 
         List<TodoDTO> result = todoService.findAll(false, "HIGH", "createdAt", "DESC");
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(todo.getTitle(), result.get(0).getTitle());
-        verify(todoRepository).findAll(any(Specification.class), any(Sort.class));
+        verify(todoRepository).findDTOs(any(Specification.class),
+            eq(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"))));
+        assertEquals(1, meterRegistry.get("todos.service.results").tag("method", "findAll").summary().totalAmount());
+    }
+
+    @Test
+    void findAll_WithUnsortableField_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> todoService.findAll(null, null, "description", "ASC"));
+        verifyNoInteractions(todoRepository);
+    }
+
+    @Test
+    void streamSort_WithUnsortableFieldOrDirection_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> todoService.streamSort("description", "ASC"));
+        assertThrows(IllegalArgumentException.class, () -> todoService.streamSort("dueDate", "SIDEWAYS"));
+        assertEquals(Sort.by(Sort.Direction.ASC, "dueDate", "id"), todoService.streamSort("dueDate", "asc"));
+        verifyNoInteractions(todoRepository);
+    }
+
+    @Test
+    void findPage_WhenMoreRowsExist_ShouldReturnCursor() {
+        Todo second = new Todo();
+        second.setId(2L);
+        second.setTitle("Second Todo");
+        second.setCreatedAt(todo.getCreatedAt().minusMinutes(1));
+        when(todoRepository.findDTOs(any(Specification.class), any(Sort.class), anyInt(), anyBoolean()))
+            .thenReturn(Arrays.asList(dto(todo), dto(second)));
+
+        TodoPageDTO result = todoService.findPage(null, null, "createdAt", "DESC", null, 1);
+
+        assertEquals(1, result.getItems().size());
+        assertEquals(todo.getTitle(), result.getItems().get(0).getTitle());
+        assertNotNull(result.getNext());
+    }
+
+    @Test
+    void findPage_WhenLastPage_ShouldNotReturnCursor() {
+        when(todoRepository.findDTOs(any(Specification.class), any(Sort.class), anyInt(), anyBoolean()))
+            .thenReturn(Arrays.asList(dto(todo)));
+
+        TodoPageDTO result = todoService.findPage(null, null, "createdAt", "DESC", null, 10);
+
+        assertEquals(1, result.getItems().size());
+        assertNull(result.getNext());
+    }
+
+    @Test
+    void findPage_WithCursorFromPreviousPage_ShouldQueryAgain() {
+        Todo second = new Todo();
+        second.setId(2L);
+        second.setTitle("Second Todo");
+        when(todoRepository.findDTOs(any(Specification.class), any(Sort.class), anyInt(), anyBoolean()))
+            .thenReturn(Arrays.asList(dto(todo), dto(second)))
+            .thenReturn(Arrays.asList(dto(second)));
+
+        String next = todoService.findPage(null, null, "createdAt", "DESC", null, 1).getNext();
+        TodoPageDTO result = todoService.findPage(null, null, "createdAt", "DESC", next, 1);
+
+        assertEquals(second.getTitle(), result.getItems().get(0).getTitle());
+        verify(todoRepository, times(2)).findDTOs(any(Specification.class), any(Sort.class), eq(2), eq(true));
+    }
+
+    @Test
+    void findPage_WithCursorForDifferentSort_ShouldThrowException() {
+        when(todoRepository.findDTOs(any(Specification.class), any(Sort.class), anyInt(), anyBoolean()))
+            .thenReturn(Arrays.asList(dto(todo), dto(todo)));
+        String next = todoService.findPage(null, null, "createdAt", "DESC", null, 1).getNext();
+
+        assertThrows(IllegalArgumentException.class,
+            () -> todoService.findPage(null, null, "dueDate", "DESC", next, 1));
+    }
+
+    @Test
+    void findCategoryPage_WhenCategoryDoesNotExist_ShouldThrowException() {
+        when(categoryService.exists(1L)).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class,
+            () -> todoService.findCategoryPage(1L, null, null, "createdAt", "DESC", null, 10));
+        verify(todoRepository, never()).findDTOs(any(), any(), anyInt(), anyBoolean());
+    }
+
+    @Test
+    void findPage_WithInvalidLimit_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class,
+            () -> todoService.findPage(null, null, "createdAt", "DESC", null, 0));
+        verify(todoRepository, never()).findDTOs(any(Specification.class), any(Sort.class), anyInt(), anyBoolean());
+    }
+
+    @Test
+    void streamAll_ShouldReadBatchesPastTheQueryCache() {
+        when(todoRepository.findDTOs(any(Specification.class), any(Sort.class), anyInt(), anyBoolean()))
+            .thenReturn(Arrays.asList(dto(todo)));
+        List<TodoDTO> streamed = new ArrayList<>();
+
+        todoService.streamAll(null, null, todoService.streamSort("createdAt", "DESC"), streamed::add);
+
+        assertEquals(1, streamed.size());
+        verify(todoRepository).findDTOs(any(Specification.class), any(Sort.class), eq(501), eq(false));
     }
 
     @Test
@@ -87,6 +234,14 @@ public class TodoServiceTest {
         verify(todoRepository).findById(1L);
     }
 
+    @Test
+    void findById_WhenTodoBelongsToAnotherUser_ShouldThrowException() {
+        todo.setOwner("bob");
+        when(todoRepository.findById(1L)).thenReturn(Optional.of(todo));
+
+        assertThrows(EntityNotFoundException.class, () -> todoService.findById(1L));
+    }
+
     @Test
     void findById_WhenTodoDoesNotExist_ShouldThrowException() {
         when(todoRepository.findById(1L)).thenReturn(Optional.empty());
@@ -97,30 +252,34 @@ public class TodoServiceTest {
 
     @Test
     void create_WithValidCategory_ShouldReturnCreatedTodo() {
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(categoryService.exists(1L)).thenReturn(true);
+        when(categoryRepository.getReferenceById(1L)).thenReturn(category);
         when(todoRepository.save(any(Todo.class))).thenReturn(todo);
 
         TodoDTO result = todoService.create(todoDTO);
 
         assertNotNull(result);
         assertEquals(todoDTO.getTitle(), result.getTitle());
-        verify(categoryRepository).findById(1L);
+        verify(categoryService).exists(1L);
+        verify(categoryRepository, never()).findById(any());
         verify(todoRepository).save(any(Todo.class));
+        verify(outboxService).record(OutboxService.TODO, OutboxService.CREATED, result.getId(), result);
     }
 
     @Test
     void create_WithInvalidCategory_ShouldThrowException() {
-        when(categoryRepository.findById(1L)).thenReturn(Optional.empty());
+        when(categoryService.exists(1L)).thenReturn(false);
 
         assertThrows(EntityNotFoundException.class, () -> todoService.create(todoDTO));
-        verify(categoryRepository).findById(1L);
+        verify(categoryService).exists(1L);
         verify(todoRepository, never()).save(any(Todo.class));
     }
 
     @Test
     void update_WhenTodoExists_ShouldReturnUpdatedTodo() {
         when(todoRepository.findById(1L)).thenReturn(Optional.of(todo));
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(categoryService.exists(1L)).thenReturn(true);
+        when(categoryRepository.getReferenceById(1L)).thenReturn(category);
         when(todoRepository.save(any(Todo.class))).thenReturn(todo);
 
         TodoDTO result = todoService.update(1L, todoDTO);
@@ -128,10 +287,36 @@ public class TodoServiceTest {
         assertNotNull(result);
         assertEquals(todoDTO.getTitle(), result.getTitle());
         verify(todoRepository).findById(1L);
-        verify(categoryRepository).findById(1L);
+        verify(categoryService).exists(1L);
         verify(todoRepository).save(any(Todo.class));
     }
 
+    @Test
+    void update_WithStaleVersion_ShouldRejectWithoutSaving() {
+        todo.setVersion(3L);
+        when(todoRepository.findById(1L)).thenReturn(Optional.of(todo));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> todoService.update(1L, todoDTO, 2L));
+        assertEquals(HttpStatus.PRECONDITION_FAILED, ex.getStatusCode());
+        verify(todoRepository, never()).save(any(Todo.class));
+        verify(collectionVersionService, never()).todosChanged();
+    }
+
+    @Test
+    void update_WithCurrentVersion_ShouldSaveAndAdvanceCollectionVersion() {
+        todo.setVersion(3L);
+        when(todoRepository.findById(1L)).thenReturn(Optional.of(todo));
+        when(categoryService.exists(1L)).thenReturn(true);
+        when(categoryRepository.getReferenceById(1L)).thenReturn(category);
+        when(todoRepository.save(any(Todo.class))).thenReturn(todo);
+
+        todoService.update(1L, todoDTO, 3L);
+
+        verify(todoRepository).flush();
+        verify(collectionVersionService).todosChanged();
+    }
+
     @Test
     void update_WhenTodoDoesNotExist_ShouldThrowException() {
         when(todoRepository.findById(1L)).thenReturn(Optional.empty());
@@ -143,20 +328,120 @@ public class TodoServiceTest {
 
     @Test
     void delete_WhenTodoExists_ShouldDeleteTodo() {
-        when(todoRepository.existsById(1L)).thenReturn(true);
+        when(todoRepository.findById(1L)).thenReturn(Optional.of(todo));
 
         todoService.delete(1L);
 
-        verify(todoRepository).existsById(1L);
-        verify(todoRepository).deleteById(1L);
+        verify(todoRepository).findById(1L);
+        verify(todoChangeService).recordDeleted(List.of(1L));
+        verify(todoRepository).delete(todo);
+        verify(todoStatsService).recordDeleted(TodoStatsService.TodoState.of(todo));
+        verify(todoSearchService).remove(1L);
+        verify(outboxService).record(OutboxService.TODO, OutboxService.DELETED, 1L, null);
     }
 
     @Test
     void delete_WhenTodoDoesNotExist_ShouldThrowException() {
-        when(todoRepository.existsById(1L)).thenReturn(false);
+        when(todoRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () -> todoService.delete(1L));
-        verify(todoRepository).existsById(1L);
-        verify(todoRepository, never()).deleteById(any());
+        verify(todoRepository).findById(1L);
+        verify(todoRepository, never()).delete(any(Todo.class));
+        verifyNoInteractions(todoStatsService);
+    }
+
+    @Test
+    void createAll_ShouldSaveValidItemsAndReportInvalidOnes() {
+        TodoDTO unknownCategory = new TodoDTO();
+        unknownCategory.setTitle("Orphan");
+        unknownCategory.setCategoryId(99L);
+        when(categoryRepository.findAllById(any())).thenReturn(Arrays.asList(category));
+        when(todoRepository.saveAll(any())).thenReturn(Arrays.asList(todo));
+
+        BatchResultDTO result = todoService.createAll(Arrays.asList(todoDTO, unknownCategory));
+
+        assertEquals(1, result.getSucceeded());
+        assertEquals(1, result.getFailed());
+        assertEquals("CREATED", result.getResults().get(0).getStatus());
+        assertEquals(1L, result.getResults().get(0).getId());
+        assertEquals("FAILED", result.getResults().get(1).getStatus());
+        verify(categoryRepository, times(1)).findAllById(any());
+        verify(categoryRepository, never()).findById(any());
+        verify(todoRepository).flush();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createAll_WithConstraintViolation_ShouldReportMessage() {
+        ConstraintViolation<TodoDTO> violation = mock(ConstraintViolation.class);
+        when(violation.getMessage()).thenReturn("Title is required");
+        when(validator.validate(any(TodoDTO.class))).thenReturn(Set.of(violation));
+        when(todoRepository.saveAll(any())).thenReturn(Collections.emptyList());
+
+        BatchResultDTO result = todoService.createAll(Arrays.asList(new TodoDTO()));
+
+        assertEquals(1, result.getFailed());
+        assertEquals("Title is required", result.getResults().get(0).getError());
+    }
+
+    @Test
+    void updateAll_ShouldUpdateLoadedTodosAndReportMissingOnes() {
+        todoDTO.setId(1L);
+        todoDTO.setTitle("Renamed");
+        TodoDTO missing = new TodoDTO();
+        missing.setId(2L);
+        missing.setTitle("Missing");
+        when(categoryRepository.findAllById(any())).thenReturn(Arrays.asList(category));
+        when(todoRepository.findAllById(any())).thenReturn(Arrays.asList(todo));
+
+        BatchResultDTO result = todoService.updateAll(Arrays.asList(todoDTO, missing));
+
+        assertEquals("UPDATED", result.getResults().get(0).getStatus());
+        assertEquals("FAILED", result.getResults().get(1).getStatus());
+        assertEquals("Renamed", todo.getTitle());
+        verify(todoRepository).flush();
+    }
+
+    @Test
+    void updateAll_ShouldPublishTheStampedState() {
+        todoDTO.setId(1L);
+        when(categoryRepository.findAllById(any())).thenReturn(Arrays.asList(category));
+        when(todoRepository.findAllById(any())).thenReturn(Arrays.asList(todo));
+        doAnswer(invocation -> {
+            todo.setChangeSeq(7L);
+            return null;
+        }).when(todoChangeService).recordChanged(any());
+
+        todoService.updateAll(Arrays.asList(todoDTO));
+
+        verify(todoSearchService).index(argThat(dto -> Long.valueOf(7L).equals(dto.getChangeSeq())));
+        verify(outboxService).record(eq(OutboxService.TODO), eq(OutboxService.UPDATED), eq(1L),
+            argThat(dto -> Long.valueOf(7L).equals(((TodoDTO) dto).getChangeSeq())));
+    }
+
+    @Test
+    void deleteAll_ShouldDeleteExistingIdsInOneStatement() {
+        when(todoRepository.findExistingIds(any(), eq("alice"))).thenReturn(Arrays.asList(1L));
+
+        BatchResultDTO result = todoService.deleteAll(Arrays.asList(1L, 2L));
+
+        assertEquals(1, result.getSucceeded());
+        assertEquals("FAILED", result.getResults().get(1).getStatus());
+        verify(todoRepository).deleteAllByIdInBatch(Set.of(1L));
+        verify(todoChangeService).recordDeleted(Set.of(1L));
+    }
+
+    @Test
+    void deleteAll_WithEmptyBatch_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> todoService.deleteAll(Collections.emptyList()));
+    }
+
+    private static TodoDTO dto(Todo todo) {
+        TodoDTO dto = new TodoDTO();
+        dto.setId(todo.getId());
+        dto.setTitle(todo.getTitle());
+        dto.setCreatedAt(todo.getCreatedAt());
+        dto.setDueDate(todo.getDueDate());
+        return dto;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,119 @@
+package com.example.todoapi.service;
+
+import com.example.todoapi.config.AuthProperties;
+import com.example.todoapi.config.TenancyProperties;
+import com.example.todoapi.config.TenantPartitions;
+import com.example.todoapi.dto.TodoStatsDTO;
+import com.example.todoapi.repository.TodoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TodoStatsServiceTest {
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private CurrentUser currentUser;
+
+    private final TenantPartitions tenantPartitions =
+            new TenantPartitions(new TenancyProperties(), new AuthProperties());
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(currentUser.id()).thenReturn("alice");
+        lenient().when(currentUser.userKey()).thenReturn("acme:alice");
+    }
+
+    @Test
+    void getStats_InSqlMode_ShouldAggregateGroupedRows() {
+        TodoStatsService service = new TodoStatsService(todoRepository, currentUser, tenantPartitions, "sql");
+        when(todoRepository.countGrouped("alice")).thenReturn(List.of(
+                new Object[]{true, "HIGH", 1L, 2L},
+                new Object[]{false, "HIGH", null, 3L},
+                new Object[]{false, null, 1L, 1L}));
+        when(todoRepository.countOverdue(eq("alice"), any())).thenReturn(2L);
+
+        TodoStatsDTO stats = service.getStats();
+
+        assertEquals(6, stats.getTotal());
+        assertEquals(2, stats.getCompleted());
+        assertEquals(4, stats.getOpen());
+        assertEquals(2, stats.getOverdue());
+        assertEquals(3, stats.getUncategorized());
+        assertEquals(Map.of("HIGH", 5L, TodoStatsService.NO_PRIORITY, 1L), stats.getByPriority());
+        assertEquals(Map.of(1L, 3L), stats.getByCategory());
+    }
+
+    @Test
+    void getStats_InMemoryMode_ShouldFollowRecordedWritesWithoutQuerying() {
+        TodoStatsService service = new TodoStatsService(todoRepository, currentUser, tenantPartitions, "memory");
+        when(todoRepository.countGroupedByOwner()).thenReturn(List.of(
+                new Object[]{"acme", "alice", false, "LOW", null, 1L},
+                new Object[]{"acme", "bob", false, "LOW", null, 4L},
+                new Object[]{"globex", "alice", false, "LOW", null, 8L}));
+        when(todoRepository.countOverdueByOwner(any())).thenReturn(Collections.emptyList());
+        when(todoRepository.countUpcomingByOwnerAndDueDate(any())).thenReturn(Collections.emptyList());
+        service.reload();
+
+        TodoStatsService.TodoState open = new TodoStatsService.TodoState("acme:alice", false, "HIGH", 7L, null);
+        TodoStatsService.TodoState done = new TodoStatsService.TodoState("acme:alice", true, "HIGH", 7L, null);
+        service.recordCreated(open);
+        service.recordUpdated(open, done);
+        service.recordDeleted(new TodoStatsService.TodoState("acme:alice", false, "LOW", null, null));
+        TodoStatsDTO stats = service.getStats();
+
+        assertEquals(1, stats.getTotal());
+        assertEquals(1, stats.getCompleted());
+        assertEquals(0, stats.getUncategorized());
+        assertEquals(Map.of("HIGH", 1L), stats.getByPriority());
+        assertEquals(Map.of(7L, 1L), stats.getByCategory());
+        verify(todoRepository, times(1)).countGroupedByOwner();
+        verify(todoRepository, never()).countGrouped(any());
+
+        // Other users' counters are kept apart, including a namesake in another tenant
+        when(currentUser.userKey()).thenReturn("acme:bob");
+        assertEquals(4, service.getStats().getTotal());
+        when(currentUser.userKey()).thenReturn("globex:alice");
+        assertEquals(8, service.getStats().getTotal());
+    }
+
+    @Test
+    void getStats_InMemoryMode_ShouldCountTodosAsOverdueOnceTheirDueDatePasses() throws InterruptedException {
+        TodoStatsService service = new TodoStatsService(todoRepository, currentUser, tenantPartitions, "memory");
+        when(todoRepository.countGroupedByOwner()).thenReturn(Collections.emptyList());
+        when(todoRepository.countOverdueByOwner(any())).thenReturn(Collections.emptyList());
+        when(todoRepository.countUpcomingByOwnerAndDueDate(any())).thenReturn(Collections.emptyList());
+        service.reload();
+
+        service.recordCreated(due(false, LocalDateTime.now().plusNanos(20_000_000)));
+        service.recordCreated(due(false, LocalDateTime.now().minusDays(1)));
+        service.recordCreated(due(true, LocalDateTime.now().minusDays(1)));
+        assertEquals(1, service.getStats().getOverdue());
+
+        Thread.sleep(50);
+        assertEquals(2, service.getStats().getOverdue());
+    }
+
+    @Test
+    void constructor_WithUnknownMode_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new TodoStatsService(todoRepository, currentUser, tenantPartitions, "redis"));
+    }
+
+    private static TodoStatsService.TodoState due(boolean completed, LocalDateTime dueDate) {
+        return new TodoStatsService.TodoState("acme:alice", completed, null, null, dueDate);
+    }
+}